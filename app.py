@@ -1,13 +1,26 @@
 # --- Imports e configurações básicas ---
-from flask import Flask, render_template, request, redirect, url_for, flash
+from flask import Flask, render_template, request, redirect, url_for, flash, has_request_context
 import requests
 import os
 
 # URL da API Java (backend). Em produção vem de variável de ambiente, senão usa padrão.
 API_BASE = os.getenv("API_BASE", "http://backend:8081")
 
-# API pública de CEP
-CEP_API_BASE = "http://cep.la"
+class SessaoBackend(requests.Session):
+    # cada chamada leva o IP de quem está usando o front no cabeçalho X-Cliente: sem ele, todos os
+    # usuários dividiriam o mesmo balde da admissão do backend (o IP do front). O backend só
+    # aceita o cabeçalho se o front estiver em admissao.proxies-confiaveis
+    def request(self, method, url, **kwargs):
+        if has_request_context() and request.remote_addr:
+            headers = dict(kwargs.pop("headers", None) or {})
+            headers.setdefault("X-Cliente", request.remote_addr)
+            kwargs["headers"] = headers
+        return super().request(method, url, **kwargs)
+
+
+# sessão única para o backend: reaproveita conexões e guarda o cookie que o backend devolve
+# depois de uma escrita, para a listagem logo em seguida ler do banco primário, não da réplica
+api = SessaoBackend()
 
 app = Flask(__name__)
 app.secret_key = "segredo-super-simples"  # usado pelo flash e sessões
@@ -19,7 +32,7 @@ def index():
     return redirect(url_for("listar_empresas"))
 
 
-# --- FUNÇÃO AUXILIAR: valida e consulta CEP em duas APIs diferentes ---
+# --- FUNÇÃO AUXILIAR: valida e consulta CEP pelo backend (cache + índice offline de faixas) ---
 def validar_cep(cep: str):
     # normaliza o CEP tirando pontos e traços
     cep = (cep or "").strip().replace(".", "").replace("-", "")
@@ -28,62 +41,75 @@ def validar_cep(cep: str):
     if len(cep) != 8 or not cep.isdigit():
         return False, "CEP deve ter exatamente 8 dígitos.", None
 
-    # 1ª tentativa: API cep.la
     try:
-        resp = requests.get(
-            f"{CEP_API_BASE}/{cep}",
-            headers={"Accept": "application/json"},
-            timeout=2
-        )
+        resp = api.get(f"{API_BASE}/ceps/{cep}", timeout=3)
         if resp.status_code == 200:
-            data = resp.json()
-            if data:
-                return True, None, {
-                    "uf": data.get("uf"),
-                    "localidade": data.get("cidade"),
-                    "bairro": data.get("bairro")
-                }
+            return True, None, resp.json()
+        if resp.status_code in (400, 404):
+            return False, "CEP inválido.", None
+
+        # se o backend responder algo estranho, deixa o backend decidir no cadastro
+        return True, "Impossível validar CEP agora.", None
     except Exception:
-        pass  # se falhar, tenta a próxima API
+        # se der erro de rede, também não trava o fluxo (o backend valida de novo ao salvar)
+        return True, "Erro ao validar CEP.", None
 
-    # 2ª tentativa: ViaCEP (API alternativa/teste)
-    try:
-        resp = requests.get(f"https://viacep.com.br/ws/{cep}/json/", timeout=2)
-        if resp.status_code == 200:
-            data = resp.json()
-            if data.get("erro"):
-                return False, "CEP inválido.", None
-            return True, "CEP validado via ViaCEP (API alternativa de teste).", data
 
-        # se a API responder algo estranho, considera CEP ok mas sem detalhes
-        return True, "Impossível validar CEP (APIs offline).", None
-    except Exception:
-        # se der erro geral de rede, também não trava o fluxo
-        return True, "Erro ao validar CEP (APIs offline).", None
+# --- CEP para o autopreenchimento dos formulários (repassa para o backend) ---
+@app.route("/cep/<cep>")
+def consultar_cep(cep):
+    valido, msg, dados = validar_cep(cep)
+    if not valido:
+        return {"erro": True, "mensagem": msg}, 404
+    return dados or {}
 
 
 # --- FUNÇÕES AUXILIARES DE ACESSO À API BACKEND (EMPRESAS/FORNECEDORES) ---
 def get_empresas():
-    resp = requests.get(f"{API_BASE}/empresas")
+    resp = api.get(f"{API_BASE}/empresas")
     resp.raise_for_status()
     return resp.json()
 
 
 def get_empresa(id_):
-    resp = requests.get(f"{API_BASE}/empresas/{id_}")
+    resp = api.get(f"{API_BASE}/empresas/{id_}")
     if resp.status_code == 200:
         return resp.json()
     return None
 
 
-def get_fornecedores():
-    resp = requests.get(f"{API_BASE}/fornecedores")
+def get_fornecedores(nome=None, cpf_cnpj=None, cursor=None, tamanho=50):
+    # uma página da listagem; filtros são aplicados no backend
+    params = {"tamanho": tamanho}
+    if nome:
+        params["nome"] = nome
+    if cpf_cnpj:
+        params["cpfCnpj"] = cpf_cnpj
+    if cursor:
+        params["cursor"] = cursor
+    resp = api.get(f"{API_BASE}/fornecedores", params=params)
+    resp.raise_for_status()
+    return resp.json()
+
+
+def get_tela_vinculos(empresa_id=None, pagina=0, busca=None):
+    # tudo o que a tela de vínculos mostra numa chamada só: opções dos selects (com empresa
+    # selecionada, só os fornecedores que ela ainda pode receber), página dos já vinculados e totais.
+    # O select de fornecedores vem cortado; a busca filtra pelo nome
+    params = {"pagina": pagina, "ordem": "nome"}
+    if empresa_id:
+        params["empresaId"] = empresa_id
+    if busca:
+        params["buscaFornecedor"] = busca
+    resp = api.get(f"{API_BASE}/empresas/vinculos/tela", params=params)
+    if resp.status_code == 404:
+        return None
     resp.raise_for_status()
     return resp.json()
 
 
 def get_fornecedor(id_):
-    resp = requests.get(f"{API_BASE}/fornecedores/{id_}")
+    resp = api.get(f"{API_BASE}/fornecedores/{id_}")
     if resp.status_code == 200:
         return resp.json()
     return None
@@ -124,7 +150,7 @@ def listar_empresas():
         }
 
         try:
-            resp = requests.post(f"{API_BASE}/empresas", json=body)
+            resp = api.post(f"{API_BASE}/empresas", json=body)
             if resp.status_code in (200, 201):
                 flash("Empresa criada com sucesso!", "ok")
                 return redirect(url_for("listar_empresas"))
@@ -169,7 +195,7 @@ def editar_empresa(empresa_id):
         }
 
         try:
-            resp = requests.put(f"{API_BASE}/empresas/{empresa_id}", json=body)
+            resp = api.put(f"{API_BASE}/empresas/{empresa_id}", json=body)
             if resp.status_code in (200, 204):
                 flash("Empresa atualizada com sucesso!", "ok")
                 return redirect(url_for("listar_empresas"))
@@ -179,7 +205,7 @@ def editar_empresa(empresa_id):
             flash("Erro de comunicação com o backend ao atualizar empresa.", "erro")
 
     # GET: busca empresa específica para preencher o formulário
-    resp = requests.get(f"{API_BASE}/empresas/{empresa_id}")
+    resp = api.get(f"{API_BASE}/empresas/{empresa_id}")
     empresa = resp.json()
     return render_template("empresa_form.html", empresa=empresa)
 
@@ -188,7 +214,7 @@ def editar_empresa(empresa_id):
 @app.route("/empresas/<int:empresa_id>/deletar", methods=["POST"])
 def deletar_empresa(empresa_id):
     try:
-        resp = requests.delete(f"{API_BASE}/empresas/{empresa_id}")
+        resp = api.delete(f"{API_BASE}/empresas/{empresa_id}")
         if resp.status_code in (200, 204):
             flash("Empresa excluída com sucesso!", "ok")
         elif resp.status_code == 404:
@@ -233,7 +259,7 @@ def listar_fornecedores():
         }
 
         try:
-            resp = requests.post(f"{API_BASE}/fornecedores", json=body)
+            resp = api.post(f"{API_BASE}/fornecedores", json=body)
             if resp.status_code in (200, 201):
                 flash("Fornecedor criado com sucesso!", "ok")
                 return redirect(url_for("listar_fornecedores"))
@@ -243,32 +269,27 @@ def listar_fornecedores():
         except Exception:
             flash("Erro de comunicação com o backend ao salvar fornecedor.", "erro")
 
-    # Filtros da tela (nome e CPF/CNPJ)
-    filtro_nome = (request.args.get("nome") or "").lower()
-    filtro_cpf = (request.args.get("cpfCnpj") or "").lower()
+    # Filtros da tela (nome e CPF/CNPJ) + cursor da página atual
+    filtro_nome = request.args.get("nome") or ""
+    filtro_cpf = request.args.get("cpfCnpj") or ""
+    cursor = request.args.get("cursor")
 
-    # Carrega todos os fornecedores do backend
+    # Carrega só a página pedida, já filtrada pelo backend
+    fornecedores = []
+    proximo_cursor = None
     try:
-        fornecedores = get_fornecedores()
+        pagina = get_fornecedores(filtro_nome, filtro_cpf, cursor)
+        fornecedores = pagina["itens"]
+        proximo_cursor = pagina.get("proximoCursor")
     except Exception:
-        fornecedores = []
         flash("Erro ao carregar fornecedores.", "erro")
 
-    # Função interna para aplicar os filtros na lista
-    def passa(f):
-        if filtro_nome and filtro_nome not in f["nome"].lower():
-            return False
-        if filtro_cpf and filtro_cpf not in f["cpfCnpj"].lower():
-            return False
-        return True
-
-    fornecedores_filtrados = [f for f in fornecedores if passa(f)]
-
     return render_template(
         "fornecedores.html",
-        fornecedores=fornecedores_filtrados,
+        fornecedores=fornecedores,
         filtro_nome=filtro_nome,
-        filtro_cpf=filtro_cpf
+        filtro_cpf=filtro_cpf,
+        proximo_cursor=proximo_cursor
     )
 
 
@@ -303,7 +324,7 @@ def editar_fornecedor(fornecedor_id):
         }
 
         try:
-            resp = requests.put(f"{API_BASE}/fornecedores/{fornecedor_id}", json=body)
+            resp = api.put(f"{API_BASE}/fornecedores/{fornecedor_id}", json=body)
             if resp.status_code in (200, 204):
                 flash("Fornecedor atualizado com sucesso!", "ok")
                 return redirect(url_for("listar_fornecedores"))
@@ -313,7 +334,7 @@ def editar_fornecedor(fornecedor_id):
             flash("Erro de comunicação com o backend ao atualizar fornecedor.", "erro")
 
     # GET: busca fornecedor para preencher formulário de edição
-    resp = requests.get(f"{API_BASE}/fornecedores/{fornecedor_id}")
+    resp = api.get(f"{API_BASE}/fornecedores/{fornecedor_id}")
     fornecedor = resp.json()
     return render_template("fornecedor_form.html", fornecedor=fornecedor)
 
@@ -322,7 +343,7 @@ def editar_fornecedor(fornecedor_id):
 @app.route("/fornecedores/<int:fornecedor_id>/deletar", methods=["POST"])
 def deletar_fornecedor(fornecedor_id):
     try:
-        resp = requests.delete(f"{API_BASE}/fornecedores/{fornecedor_id}")
+        resp = api.delete(f"{API_BASE}/fornecedores/{fornecedor_id}")
         if resp.status_code in (200, 204):
             flash("Fornecedor excluído com sucesso!", "ok")
         elif resp.status_code == 404:
@@ -340,18 +361,9 @@ def deletar_fornecedor(fornecedor_id):
 
 @app.route("/vinculos", methods=["GET", "POST"])
 def vinculos():
-    # listas usadas para montar os selects e a tabela na tela
-    empresas = []
-    fornecedores = []
-    fornecedores_empresa = []
     empresa_id = request.args.get("empresa_id")
-
-    # carrega empresas e fornecedores para popular os selects
-    try:
-        empresas = get_empresas()
-        fornecedores = get_fornecedores()
-    except Exception:
-        flash("Erro ao carregar empresas ou fornecedores.", "erro")
+    pagina = request.args.get("pagina", 0, type=int)
+    busca = (request.args.get("busca") or "").strip()
 
     # POST: cria vínculo entre uma empresa e um fornecedor
     if request.method == "POST":
@@ -359,7 +371,7 @@ def vinculos():
         forn = request.form.get("fornecedor_id")
 
         try:
-            resp = requests.post(f"{API_BASE}/empresas/{emp}/fornecedores/{forn}")
+            resp = api.post(f"{API_BASE}/empresas/{emp}/fornecedores/{forn}")
             if resp.status_code in (200, 201):
                 flash("Vínculo criado com sucesso!", "ok")
                 return redirect(url_for("vinculos", empresa_id=emp))
@@ -369,21 +381,33 @@ def vinculos():
         except Exception:
             flash("Erro ao criar vínculo (falha de comunicação com o backend).", "erro")
 
-    # se alguma empresa foi selecionada, carrega os fornecedores já vinculados a ela
-    if empresa_id:
-        try:
-            r = requests.get(f"{API_BASE}/empresas/{empresa_id}/fornecedores")
-            if r.status_code == 200:
-                fornecedores_empresa = r.json()
-        except Exception:
-            flash("Erro ao carregar fornecedores da empresa.", "erro")
+    # selects, fornecedores já vinculados à empresa selecionada e totais, numa chamada só
+    tela = {"empresas": [], "fornecedores": [], "vinculados": None, "totalVinculados": 0,
+            "maisFornecedores": False}
+    try:
+        dados = get_tela_vinculos(empresa_id, pagina, busca)
+        if dados is None:
+            flash("Empresa não encontrada.", "erro")
+            empresa_id = None
+            dados = get_tela_vinculos(busca=busca)
+        tela = dados
+    except Exception:
+        flash("Erro ao carregar empresas ou fornecedores.", "erro")
+
+    vinculados = tela["vinculados"]
+    tem_proxima = bool(vinculados) and (vinculados["pagina"] + 1) * vinculados["tamanho"] < vinculados["total"]
 
     return render_template(
         "vinculos.html",
-        empresas=empresas,
-        fornecedores=fornecedores,
-        fornecedores_da_empresa=fornecedores_empresa,
-        empresa_id_selecionada=empresa_id
+        empresas=tela["empresas"],
+        fornecedores=tela["fornecedores"],
+        fornecedores_da_empresa=vinculados["itens"] if vinculados else [],
+        empresa_id_selecionada=empresa_id,
+        busca=busca,
+        mais_fornecedores=tela["maisFornecedores"],
+        total_vinculos=tela["totalVinculados"],
+        pagina=pagina,
+        tem_proxima=tem_proxima
     )
 
 
@@ -398,7 +422,7 @@ def desvincular_vinculo():
         return redirect(url_for("vinculos"))
 
     try:
-        resp = requests.delete(f"{API_BASE}/empresas/{empresa_id}/fornecedores/{fornecedor_id}")
+        resp = api.delete(f"{API_BASE}/empresas/{empresa_id}/fornecedores/{fornecedor_id}")
         if resp.status_code in (200, 204):
             flash("Vínculo removido com sucesso!", "ok")
         elif resp.status_code == 400:
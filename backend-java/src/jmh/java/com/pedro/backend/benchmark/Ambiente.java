@@ -0,0 +1,85 @@
+package com.pedro.backend.benchmark;
+
+import com.pedro.backend.BackendApplication;
+import com.pedro.backend.config.AlinhadorGeradoresId;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Sobe a aplicação (sem servidor web) sobre o H2 em memória dos testes e gera a massa de dados
+ * direto em SQL com SYSTEM_RANGE: um INSERT ... SELECT por tabela, então 1M de linhas leva
+ * segundos e não passa pelo Hibernate (que é justamente o que está sendo medido).
+ *
+ * Os ids gerados aqui ficam abaixo de {@link #BASE_IDS_SOLTOS}; dados recriados a cada
+ * invocação usam faixas acima dele para nunca colidir com os geradores do Hibernate.
+ */
+final class Ambiente {
+
+    static final long BASE_IDS_SOLTOS = 1_000_000_000L;
+
+    final ConfigurableApplicationContext contexto;
+    final JdbcTemplate jdbc;
+
+    private Ambiente(ConfigurableApplicationContext contexto) {
+        this.contexto = contexto;
+        this.jdbc = contexto.getBean(JdbcTemplate.class);
+    }
+
+    static Ambiente subir() {
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties("logging.level.root=WARN", "spring.jpa.show-sql=false")
+                .run();
+        return new Ambiente(contexto);
+    }
+
+    <T> T bean(Class<T> tipo) {
+        return contexto.getBean(tipo);
+    }
+
+    // fornecedores PJ com ids [primeiro, ultimo]; nome e documento derivados do id
+    void inserirFornecedores(long primeiro, long ultimo) {
+        jdbc.update("INSERT INTO fornecedores (id, nome, cpf_cnpj, email, cep, tipo_pessoa)"
+                + " SELECT x, CONCAT('Fornecedor ', x), LPAD(CAST(x AS VARCHAR), 14, '0'),"
+                + " CONCAT('f', x, '@exemplo.com'), '01000000', 'PJ'"
+                + " FROM " + faixa(primeiro, ultimo));
+    }
+
+    // empresas de SP com ids [primeiro, ultimo]
+    void inserirEmpresas(long primeiro, long ultimo) {
+        jdbc.update("INSERT INTO empresas (id, cnpj, nome_fantasia, cep, estado)"
+                + " SELECT x, LPAD(CAST(x AS VARCHAR), 14, '0'), CONCAT('Empresa ', x), '01000000', 'SP'"
+                + " FROM " + faixa(primeiro, ultimo));
+    }
+
+    // vincula a empresa a todos os fornecedores [primeiro, ultimo]; ids dos vínculos a partir de baseId
+    void vincularEmpresa(long empresaId, long primeiro, long ultimo, long baseId) {
+        jdbc.update("INSERT INTO empresas_fornecedores (id, empresa_id, fornecedor_id)"
+                + " SELECT " + baseId + " + x, " + empresaId + ", x"
+                + " FROM " + faixa(primeiro, ultimo));
+    }
+
+    // vincula o fornecedor a todas as empresas [primeiro, ultimo]; ids dos vínculos a partir de baseId
+    void vincularFornecedor(long fornecedorId, long primeiro, long ultimo, long baseId) {
+        jdbc.update("INSERT INTO empresas_fornecedores (id, empresa_id, fornecedor_id)"
+                + " SELECT " + baseId + " + x, x, " + fornecedorId
+                + " FROM " + faixa(primeiro, ultimo));
+    }
+
+    // SYSTEM_RANGE chama a coluna de "X" maiúsculo, que não casa com DATABASE_TO_LOWER
+    private static String faixa(long primeiro, long ultimo) {
+        return "(SELECT \"X\" AS x FROM SYSTEM_RANGE(" + primeiro + ", " + ultimo + ")) faixa";
+    }
+
+    // depois da carga em SQL, os geradores de id do Hibernate precisam começar acima dela
+    void alinharGeradores() {
+        bean(AlinhadorGeradoresId.class).afterSingletonsInstantiated();
+    }
+
+    void fechar() {
+        contexto.close();
+    }
+}
@@ -0,0 +1,86 @@
+package com.pedro.backend.benchmark;
+
+import com.pedro.backend.busca.IndiceInvertido;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// índice de busca sozinho (sem Spring/banco), com nomes sintéticos no formato dos cadastros reais
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class BuscaBenchmark {
+
+    private static final String[] PRIMEIROS = {"José", "João", "Antônio", "Francisco", "Carlos", "Paulo",
+            "Pedro", "Lucas", "Luiz", "Marcos", "Maria", "Ana", "Francisca", "Antônia", "Adriana",
+            "Juliana", "Márcia", "Fernanda", "Patrícia", "Aline"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues",
+            "Ferreira", "Alves", "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho",
+            "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa", "Conceição", "Araújo"};
+    private static final String[] RAMOS = {"Distribuidora", "Comércio", "Mercado", "Transportes",
+            "Materiais", "Alimentos", "Serviços", "Indústria", "Construtora", "Papelaria"};
+
+    @Param({"100000", "1000000"})
+    public int fornecedores;
+
+    private IndiceInvertido indice;
+
+    @Setup(Level.Trial)
+    public void montar() {
+        indice = new IndiceInvertido();
+        Random aleatorio = new Random(42);
+        for (int id = 1; id <= fornecedores; id++) {
+            String nome = id % 2 == 0
+                    ? sorteio(aleatorio, PRIMEIROS) + " " + sorteio(aleatorio, SOBRENOMES) + " " + sorteio(aleatorio, SOBRENOMES)
+                    : sorteio(aleatorio, RAMOS) + " " + sorteio(aleatorio, SOBRENOMES) + " " + id + " Ltda";
+            String documento = String.format("%014d", 10_000_000_000_000L + id);
+            indice.indexar(id, nome, documento, "contato" + id + "@fornecedor.com.br");
+        }
+    }
+
+    // termo exato bem comum combinado com prefixo: o caso mais caro (muitos candidatos)
+    @Benchmark
+    public Object nomeComumComPrefixo() {
+        return indice.buscar("maria silv", 20);
+    }
+
+    // sobrenome presente em ~1/10 da base e que nunca abre o nome
+    @Benchmark
+    public Object sobrenomeComum() {
+        return indice.buscar("silva", 20);
+    }
+
+    @Benchmark
+    public Object tresTermos() {
+        return indice.buscar("distribuidora conceicao 777", 20);
+    }
+
+    @Benchmark
+    public Object documentoPorPrefixo() {
+        return indice.buscar("1000000000123", 20);
+    }
+
+    @Benchmark
+    public Object erroDeDigitacao() {
+        return indice.buscar("fernamdes ribeiro", 20);
+    }
+
+    private static String sorteio(Random aleatorio, String[] valores) {
+        return valores[aleatorio.nextInt(valores.length)];
+    }
+}
@@ -0,0 +1,95 @@
+package com.pedro.backend.benchmark;
+
+import com.pedro.backend.controller.EmpresaController;
+import com.pedro.backend.controller.FornecedorController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exclusão em cascata: uma empresa vinculada a N fornecedores e um fornecedor vinculado a
+ * N empresas. Cada invocação recria o registro a excluir e seus N vínculos (fora da medição).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class ExclusaoBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Banco {
+
+        @Param({"1000", "100000", "1000000"})
+        public int vinculos;
+
+        Ambiente ambiente;
+        long rodada;
+
+        @Setup(Level.Trial)
+        public void subir() {
+            ambiente = Ambiente.subir();
+            ambiente.inserirEmpresas(1, vinculos);
+            ambiente.inserirFornecedores(1, vinculos);
+            ambiente.alinharGeradores();
+        }
+
+        @TearDown(Level.Trial)
+        public void fechar() {
+            ambiente.fechar();
+        }
+
+        // ids "soltos" (acima da base) para não colidir com a carga inicial nem com os geradores
+        long proximaBase() {
+            return Ambiente.BASE_IDS_SOLTOS + ++rodada * 10_000_000L;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class EmpresaVinculada {
+
+        long id;
+
+        @Setup(Level.Invocation)
+        public void recriar(Banco banco) {
+            id = banco.proximaBase();
+            banco.ambiente.inserirEmpresas(id, id);
+            banco.ambiente.vincularEmpresa(id, 1, banco.vinculos, id * 10);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FornecedorVinculado {
+
+        long id;
+
+        @Setup(Level.Invocation)
+        public void recriar(Banco banco) {
+            id = banco.proximaBase();
+            banco.ambiente.inserirFornecedores(id, id);
+            banco.ambiente.vincularFornecedor(id, 1, banco.vinculos, id * 10);
+        }
+    }
+
+    @Benchmark
+    public Object excluirEmpresaComVinculos(Banco banco, EmpresaVinculada empresa) {
+        return banco.ambiente.bean(EmpresaController.class).deletar(empresa.id).getStatusCode();
+    }
+
+    @Benchmark
+    public Object excluirFornecedorComVinculos(Banco banco, FornecedorVinculado fornecedor) {
+        return banco.ambiente.bean(FornecedorController.class).deletar(fornecedor.id).getStatusCode();
+    }
+}
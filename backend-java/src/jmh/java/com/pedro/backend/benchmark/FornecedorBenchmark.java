@@ -0,0 +1,79 @@
+package com.pedro.backend.benchmark;
+
+import com.pedro.backend.controller.FornecedorController;
+import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.model.TipoPessoa;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// listagem paginada e cadastro de fornecedores com a tabela já cheia
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class FornecedorBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int fornecedores;
+
+    private Ambiente ambiente;
+    private FornecedorController controller;
+    private long proximoDocumento;
+
+    @Setup(Level.Trial)
+    public void subir() {
+        ambiente = Ambiente.subir();
+        ambiente.inserirFornecedores(1, fornecedores);
+        ambiente.alinharGeradores();
+        controller = ambiente.bean(FornecedorController.class);
+        proximoDocumento = 90_000_000_000_000L;
+    }
+
+    @TearDown(Level.Trial)
+    public void fechar() {
+        ambiente.fechar();
+    }
+
+    @Benchmark
+    public Object listarPrimeiraPagina() {
+        return controller.listar(null, 50, null, false, null, null, null).getBody();
+    }
+
+    // filtro por trecho do nome (padrão) não usa índice: mostra o custo do scan conforme a tabela cresce
+    @Benchmark
+    public Object listarFiltrandoNome() {
+        return controller.listar(null, 50, "fornecedor 99", false, null, null, null).getBody();
+    }
+
+    // mesmo filtro só pelo começo do nome (nomePorPrefixo): faixa no índice de nome, para comparar com o scan
+    @Benchmark
+    public Object listarFiltrandoPrefixoDoNome() {
+        return controller.listar(null, 50, "fornecedor 99", true, null, null, null).getBody();
+    }
+
+    @Benchmark
+    public Object criar() {
+        Fornecedor fornecedor = new Fornecedor();
+        fornecedor.setNome("Novo fornecedor");
+        fornecedor.setCpfCnpj(Long.toString(proximoDocumento++));
+        fornecedor.setEmail("novo@exemplo.com");
+        fornecedor.setCep("01000000");
+        fornecedor.setTipoPessoa(TipoPessoa.PJ);
+        return controller.criar(fornecedor).getBody();
+    }
+}
@@ -0,0 +1,112 @@
+package com.pedro.backend.benchmark;
+
+import com.pedro.backend.dto.FornecedorListado;
+import com.pedro.backend.dto.PaginaCursor;
+import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.model.TipoPessoa;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// custo de escrever uma página da listagem: entidade (introspecção do Jackson) x registro com escritor próprio.
+// Só serialização, sem Spring/banco; o tamanho do corpo (com e sem gzip) sai no log do setup.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class SerializacaoBenchmark {
+
+    @Param({"50", "500"})
+    public int tamanho;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private PaginaCursor<Fornecedor> entidades;
+    private PaginaCursor<FornecedorListado> listados;
+
+    @Setup(Level.Trial)
+    public void montar() throws IOException {
+        List<Fornecedor> comoEntidade = new ArrayList<>(tamanho);
+        List<FornecedorListado> comoRegistro = new ArrayList<>(tamanho);
+        for (long id = 1; id <= tamanho; id++) {
+            boolean pf = id % 2 == 0;
+            Fornecedor f = new Fornecedor();
+            f.setId(id);
+            f.setNome((pf ? "Maria Silva Santos " : "Distribuidora Conceição Ltda ") + id);
+            f.setCpfCnpj(pf ? String.format("%011d", id) : String.format("%014d", 10_000_000_000_000L + id));
+            f.setEmail("contato" + id + "@fornecedor.com.br");
+            f.setRg(pf ? "12345" + id : null);
+            f.setDataNascimento(pf ? LocalDate.of(1980, 1, 1).plusDays(id) : null);
+            f.setCep("80010000");
+            f.setTipoPessoa(pf ? TipoPessoa.PF : TipoPessoa.PJ);
+            f.setVersao(id % 3);
+            comoEntidade.add(f);
+            comoRegistro.add(new FornecedorListado(f.getId(), f.getNome(), f.getCpfCnpj(), f.getEmail(), f.getRg(),
+                    f.getDataNascimento(), f.getCep(), f.getTipoPessoa(), f.getVersao()));
+        }
+        String cursor = PaginaCursor.codificar(tamanho);
+        entidades = new PaginaCursor<>(comoEntidade, cursor);
+        listados = new PaginaCursor<>(comoRegistro, cursor);
+
+        ByteArrayOutputStream corpo = new ByteArrayOutputStream();
+        objectMapper.writeValue(corpo, listados);
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+            corpo.writeTo(gzip);
+        }
+        System.out.printf("%n%d fornecedores: %d bytes, %d bytes em gzip%n", tamanho, corpo.size(), comprimido.size());
+    }
+
+    @Benchmark
+    public long entidade() {
+        return escrever(entidades);
+    }
+
+    @Benchmark
+    public long registro() {
+        return escrever(listados);
+    }
+
+    private long escrever(Object pagina) {
+        Contador saida = new Contador();
+        objectMapper.writeValue(saida, pagina);
+        return saida.bytes;
+    }
+
+    // descarta os bytes: mede só a serialização, não a cópia para um buffer
+    private static final class Contador extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
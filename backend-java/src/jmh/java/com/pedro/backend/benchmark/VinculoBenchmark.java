@@ -0,0 +1,83 @@
+package com.pedro.backend.benchmark;
+
+import com.pedro.backend.controller.EmpresaFornecedorController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// empresa 1 vinculada a todos os fornecedores (listagem); empresa 2 recebe os vínculos novos
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class VinculoBenchmark {
+
+    private static final long EMPRESA_CHEIA = 1;
+    private static final long EMPRESA_ALVO = 2;
+    private static final int VINCULOS_POR_ITERACAO = 500;
+
+    @Param({"1000", "100000", "1000000"})
+    public int fornecedores;
+
+    private Ambiente ambiente;
+    private EmpresaFornecedorController controller;
+    private long proximoFornecedor;
+
+    @Setup(Level.Trial)
+    public void subir() {
+        ambiente = Ambiente.subir();
+        ambiente.inserirEmpresas(EMPRESA_CHEIA, EMPRESA_ALVO);
+        ambiente.inserirFornecedores(1, fornecedores);
+        ambiente.vincularEmpresa(EMPRESA_CHEIA, 1, fornecedores, 0);
+        ambiente.alinharGeradores();
+        controller = ambiente.bean(EmpresaFornecedorController.class);
+    }
+
+    // cada iteração vincula fornecedores ainda livres: limpa a empresa alvo e recomeça do 1
+    @Setup(Level.Iteration)
+    public void limparAlvo() {
+        ambiente.jdbc.update("DELETE FROM empresas_fornecedores WHERE empresa_id = ?", EMPRESA_ALVO);
+        proximoFornecedor = 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void fechar() {
+        ambiente.fechar();
+    }
+
+    // tempo de um lote de 500 vínculos (precisa de pelo menos 500 fornecedores livres por iteração)
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = VINCULOS_POR_ITERACAO)
+    @Measurement(iterations = 10, batchSize = VINCULOS_POR_ITERACAO)
+    public Object vincular() {
+        return controller.vincular(EMPRESA_ALVO, proximoFornecedor++).join().getBody();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public Object listarFornecedoresPorNome() {
+        return controller.listarFornecedores(EMPRESA_CHEIA, 0, 100, "nome", "asc", null).getBody();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public Object listarFornecedoresUltimaPagina() {
+        return controller.listarFornecedores(EMPRESA_CHEIA, fornecedores / 100 - 1, 100, "id", "asc", null).getBody();
+    }
+}
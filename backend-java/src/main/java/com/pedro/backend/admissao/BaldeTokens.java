@@ -0,0 +1,39 @@
+package com.pedro.backend.admissao;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de tokens de um cliente, sem lock: o estado é um long só, o instante teórico em que o
+ * balde fica cheio de novo (algoritmo GCRA). Cada requisição empurra esse instante um intervalo
+ * para frente; passa se ele não estiver mais adiantado que a rajada permitida. Um CAS por
+ * requisição, sem thread de reposição.
+ */
+final class BaldeTokens {
+
+    private final AtomicLong cheioEm = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param agora      relógio monotônico em nanos
+     * @param intervalo  nanos entre dois tokens (1s / taxa)
+     * @param folga      quanto o balde pode adiantar: (rajada - 1) * intervalo
+     * @return 0 se passou; senão, nanos até o próximo token
+     */
+    long tentar(long agora, long intervalo, long folga) {
+        while (true) {
+            long atual = cheioEm.get();
+            long base = Math.max(atual, agora);
+            long adiantado = base - agora;
+            if (adiantado > folga) {
+                return adiantado - folga;
+            }
+            if (cheioEm.compareAndSet(atual, base + intervalo)) {
+                return 0;
+            }
+        }
+    }
+
+    // balde que já encheu de novo não guarda nada que se perca ao descartar
+    boolean cheio(long agora) {
+        return cheioEm.get() <= agora;
+    }
+}
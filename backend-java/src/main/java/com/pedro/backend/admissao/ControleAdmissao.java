@@ -0,0 +1,251 @@
+package com.pedro.backend.admissao;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Porta de entrada antes dos controllers. Cada requisição passa por duas checagens, separadas
+ * para leitura (GET/HEAD) e escrita (o resto):
+ * <ul>
+ *   <li>balde de tokens do cliente (o IP da conexão; o cabeçalho {@code admissao.cliente.cabecalho}
+ *       só quando a conexão vem de {@code admissao.proxies-confiaveis}, como o front Flask que
+ *       repassa o IP do usuário): estourou a taxa, 429 com Retry-After até o próximo token</li>
+ *   <li>limite adaptativo de requisições em andamento ({@link LimiteAdaptativo}): cheio, 503
+ *       com Retry-After de 1s, na hora, sem ocupar thread esperando vaga</li>
+ * </ul>
+ * Assim uma integração despejando POST /fornecedores esgota o balde dela e as vagas de
+ * escrita, e as leituras dos outros clientes continuam entrando.
+ * Requisição assíncrona (CompletableFuture no controller) segura a vaga e conta a latência até
+ * a resposta sair de fato, não até a thread do servlet ser devolvida.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10) // depois da observação: recusadas também aparecem em http.server.requests
+@ConditionalOnProperty(name = "admissao.habilitada", havingValue = "true")
+public class ControleAdmissao extends OncePerRequestFilter {
+
+    static final String METRICA = "http.server.admission";
+
+    private static final Logger log = LoggerFactory.getLogger(ControleAdmissao.class);
+
+    private static final int MAX_CLIENTES = 10_000;
+    private static final long ORIGEM = System.nanoTime();
+
+    private final Tipo leitura;
+    private final Tipo escrita;
+    private final String cabecalhoCliente;
+    private final ProxiesConfiaveis proxies;
+    private final List<String> ignorados;
+
+    public ControleAdmissao(MeterRegistry registry,
+                            @Value("${admissao.leitura.taxa:200}") double taxaLeitura,
+                            @Value("${admissao.leitura.rajada:400}") int rajadaLeitura,
+                            @Value("${admissao.leitura.limite:50}") int limiteLeitura,
+                            @Value("${admissao.escrita.taxa:50}") double taxaEscrita,
+                            @Value("${admissao.escrita.rajada:100}") int rajadaEscrita,
+                            @Value("${admissao.escrita.limite:10}") int limiteEscrita,
+                            @Value("${admissao.janela:1s}") Duration janela,
+                            @Value("${admissao.latencia-tolerancia:2.0}") double tolerancia,
+                            @Value("${admissao.latencia-minima:50ms}") Duration latenciaMinima,
+                            @Value("${admissao.cliente.cabecalho:X-Cliente}") String cabecalhoCliente,
+                            @Value("${admissao.proxies-confiaveis:}") List<String> proxiesConfiaveis,
+                            @Value("${admissao.ignorar:/actuator,/alteracoes}") List<String> ignorados) {
+        this.leitura = new Tipo("read", registry, taxaLeitura, rajadaLeitura,
+                new LimiteAdaptativo(limiteLeitura, janela.toNanos(), tolerancia, latenciaMinima.toNanos()));
+        this.escrita = new Tipo("write", registry, taxaEscrita, rajadaEscrita,
+                new LimiteAdaptativo(limiteEscrita, janela.toNanos(), tolerancia, latenciaMinima.toNanos()));
+        this.cabecalhoCliente = cabecalhoCliente;
+        this.proxies = new ProxiesConfiaveis(proxiesConfiaveis);
+        this.ignorados = ignorados;
+        log.info("Admissão ativa: leitura {}/s por cliente (rajada {}), até {} em andamento; escrita {}/s (rajada {}), até {}",
+                taxaLeitura, rajadaLeitura, limiteLeitura, taxaEscrita, rajadaEscrita, limiteEscrita);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String caminho = request.getRequestURI();
+        for (String prefixo : ignorados) {
+            if (caminho.startsWith(prefixo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Tipo tipo = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()) ? leitura : escrita;
+
+        long espera = tipo.tentarToken(cliente(request));
+        if (espera > 0) {
+            tipo.limitadas.increment();
+            recusar(response, 429, "Muitas requisições deste cliente, tente novamente.",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + TimeUnit.SECONDS.toNanos(1) - 1)));
+            return;
+        }
+        if (!tipo.limite.entrar()) {
+            tipo.descartadas.increment();
+            recusar(response, 503, "Servidor ocupado, tente novamente.", 1);
+            return;
+        }
+
+        tipo.admitidas.increment();
+        long inicio = System.nanoTime();
+        boolean assincrona = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // o despacho assíncrono não passa de novo por aqui (OncePerRequestFilter): a vaga
+                // é devolvida quando a resposta completa, com erro ou timeout inclusive
+                request.getAsyncContext().addListener(new SaidaAssincrona(tipo.limite, inicio, response));
+                assincrona = true;
+            }
+        } finally {
+            if (!assincrona) {
+                tipo.limite.sair(latencia(response, inicio));
+            }
+        }
+    }
+
+    // export em streaming dura o que o cliente levar para baixar: fica fora do p99
+    private static long latencia(HttpServletResponse response, long inicio) {
+        String contentType = response.getContentType();
+        boolean streaming = contentType != null && contentType.startsWith("application/x-ndjson");
+        return streaming ? -1 : System.nanoTime() - inicio;
+    }
+
+    private String cliente(HttpServletRequest request) {
+        String endereco = request.getRemoteAddr();
+        if (proxies.contem(endereco)) {
+            String informado = request.getHeader(cabecalhoCliente);
+            if (informado != null && !informado.isBlank()) {
+                return informado;
+            }
+        }
+        return endereco;
+    }
+
+    private static void recusar(HttpServletResponse response, int status, String mensagem, long segundos) throws IOException {
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(segundos));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(mensagem);
+    }
+
+    LimiteAdaptativo limiteLeitura() {
+        return leitura.limite;
+    }
+
+    LimiteAdaptativo limiteEscrita() {
+        return escrita.limite;
+    }
+
+    /** devolve a vaga de uma requisição assíncrona quando ela termina */
+    private record SaidaAssincrona(LimiteAdaptativo limite, long inicio, HttpServletResponse response)
+            implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent evento) {
+            limite.sair(latencia(response, inicio));
+        }
+
+        // timeout e erro terminam em onComplete
+        @Override
+        public void onTimeout(AsyncEvent evento) {
+        }
+
+        @Override
+        public void onError(AsyncEvent evento) {
+        }
+
+        // startAsync de novo limpa os listeners: volta a escutar o contexto novo
+        @Override
+        public void onStartAsync(AsyncEvent evento) {
+            evento.getAsyncContext().addListener(this);
+        }
+    }
+
+    /** baldes por cliente, limite de concorrência e contadores de um tipo de rota */
+    private static final class Tipo {
+
+        final LimiteAdaptativo limite;
+        final Counter admitidas;
+        final Counter limitadas;
+        final Counter descartadas;
+
+        private final ConcurrentHashMap<String, BaldeTokens> baldes = new ConcurrentHashMap<>();
+        private final AtomicBoolean limpando = new AtomicBoolean();
+        private final long intervalo;
+        private final long folga;
+
+        Tipo(String tag, MeterRegistry registry, double taxa, int rajada, LimiteAdaptativo limite) {
+            this.intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / taxa);
+            this.folga = (rajada - 1) * intervalo;
+            this.limite = limite;
+
+            this.admitidas = contador(registry, tag, "admitted");
+            this.limitadas = contador(registry, tag, "rate_limited");
+            this.descartadas = contador(registry, tag, "shed");
+            Gauge.builder(METRICA + ".limit", limite, LimiteAdaptativo::limite)
+                    .description("Limite atual de requisições em andamento")
+                    .tag("class", tag).register(registry);
+            Gauge.builder(METRICA + ".inflight", limite, LimiteAdaptativo::emAndamento)
+                    .description("Requisições em andamento")
+                    .tag("class", tag).register(registry);
+            Gauge.builder(METRICA + ".p99", limite, l -> l.ultimoP99() / 1e9)
+                    .description("p99 da última janela, que move o limite")
+                    .baseUnit("seconds")
+                    .tag("class", tag).register(registry);
+        }
+
+        long tentarToken(String cliente) {
+            long agora = System.nanoTime() - ORIGEM;
+            if (baldes.size() > MAX_CLIENTES) {
+                descartarCheios(agora);
+            }
+            return baldes.computeIfAbsent(cliente, c -> new BaldeTokens()).tentar(agora, intervalo, folga);
+        }
+
+        // uma thread por vez varre; as outras seguem sem esperar
+        private void descartarCheios(long agora) {
+            if (limpando.compareAndSet(false, true)) {
+                try {
+                    baldes.values().removeIf(balde -> balde.cheio(agora));
+                } finally {
+                    limpando.set(false);
+                }
+            }
+        }
+
+        private static Counter contador(MeterRegistry registry, String tag, String resultado) {
+            return Counter.builder(METRICA)
+                    .description("Requisições admitidas e recusadas na entrada")
+                    .tag("class", tag)
+                    .tag("outcome", resultado)
+                    .register(registry);
+        }
+    }
+}
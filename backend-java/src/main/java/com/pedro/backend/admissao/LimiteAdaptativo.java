@@ -0,0 +1,114 @@
+package com.pedro.backend.admissao;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Quantas requisições de um tipo (leitura ou escrita) podem estar em andamento ao mesmo tempo.
+ * O limite se ajusta a cada janela pelo p99 da latência: se passar da referência vezes a
+ * tolerância, cai 10%; se ficou dentro e a janela chegou a encostar no limite, sobe 1 (AIMD).
+ * A referência é o menor p99 visto, subindo 1% por janela para acompanhar uma carga que ficou
+ * mais pesada de vez. Abaixo de {@code latenciaMinima} o p99 nunca conta como alto.
+ */
+final class LimiteAdaptativo {
+
+    // amostras por janela; passando disso as mais antigas da janela são sobrescritas
+    private static final int AMOSTRAS = 1024;
+    private static final int AMOSTRAS_MINIMAS = 20;
+
+    private final int minimo;
+    private final int maximo;
+    private final long janelaNanos;
+    private final double tolerancia;
+    private final long latenciaMinimaNanos;
+
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final AtomicLongArray amostras = new AtomicLongArray(AMOSTRAS);
+    private final AtomicInteger proximaAmostra = new AtomicInteger();
+    private final AtomicLong fimJanela;
+
+    private volatile int limite;
+    private volatile boolean encostouNoLimite;
+    private long referencia = Long.MAX_VALUE;
+    private long ultimoP99;
+
+    // o limite anda entre 1/5 e 4x o inicial
+    LimiteAdaptativo(int inicial, long janelaNanos, double tolerancia, long latenciaMinimaNanos) {
+        this.limite = inicial;
+        this.minimo = Math.max(1, inicial / 5);
+        this.maximo = inicial * 4;
+        this.janelaNanos = janelaNanos;
+        this.tolerancia = tolerancia;
+        this.latenciaMinimaNanos = latenciaMinimaNanos;
+        this.fimJanela = new AtomicLong(System.nanoTime() + janelaNanos);
+    }
+
+    boolean entrar() {
+        while (true) {
+            int atual = emAndamento.get();
+            int teto = limite;
+            if (atual >= teto) {
+                encostouNoLimite = true;
+                return false;
+            }
+            if (emAndamento.compareAndSet(atual, atual + 1)) {
+                if (atual + 1 == teto) {
+                    encostouNoLimite = true;
+                }
+                return true;
+            }
+        }
+    }
+
+    // latencia < 0: não entra na conta do p99 (respostas em streaming)
+    void sair(long latenciaNanos) {
+        emAndamento.decrementAndGet();
+        if (latenciaNanos >= 0) {
+            amostras.lazySet(proximaAmostra.getAndIncrement() & (AMOSTRAS - 1), latenciaNanos);
+        }
+        long fim = fimJanela.get();
+        long agora = System.nanoTime();
+        // só quem vira a janela ajusta
+        if (agora - fim >= 0 && fimJanela.compareAndSet(fim, agora + janelaNanos)) {
+            ajustar();
+        }
+    }
+
+    synchronized void ajustar() {
+        int total = Math.min(proximaAmostra.getAndSet(0), AMOSTRAS);
+        if (total < AMOSTRAS_MINIMAS) {
+            encostouNoLimite = false;
+            return;
+        }
+        long[] janela = new long[total];
+        for (int i = 0; i < total; i++) {
+            janela[i] = amostras.get(i);
+        }
+        Arrays.sort(janela);
+        long p99 = janela[(int) Math.ceil(total * 0.99) - 1];
+        ultimoP99 = p99;
+
+        referencia = referencia == Long.MAX_VALUE ? p99 : Math.min(p99, referencia + referencia / 100 + 1);
+        long alto = Math.max(latenciaMinimaNanos, (long) (referencia * tolerancia));
+        if (p99 > alto) {
+            limite = Math.max(minimo, Math.min(limite - 1, (int) (limite * 0.9)));
+        } else if (encostouNoLimite) {
+            limite = Math.min(maximo, limite + 1);
+        }
+        encostouNoLimite = false;
+    }
+
+    int limite() {
+        return limite;
+    }
+
+    int emAndamento() {
+        return emAndamento.get();
+    }
+
+    synchronized long ultimoP99() {
+        return ultimoP99;
+    }
+}
@@ -0,0 +1,81 @@
+package com.pedro.backend.admissao;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Endereços de onde o cabeçalho de cliente é aceito: IP exato ou faixa CIDR, IPv4 ou IPv6.
+ * Vindo de qualquer outro lugar, o cabeçalho é ignorado e o cliente é o IP da conexão; senão
+ * qualquer um escolheria o próprio balde (ou criaria um por requisição).
+ */
+final class ProxiesConfiaveis {
+
+    private final List<Faixa> faixas = new ArrayList<>();
+
+    ProxiesConfiaveis(List<String> enderecos) {
+        for (String endereco : enderecos) {
+            if (!endereco.isBlank()) {
+                faixas.add(Faixa.de(endereco.trim()));
+            }
+        }
+    }
+
+    boolean contem(String endereco) {
+        if (faixas.isEmpty() || endereco == null) {
+            return false;
+        }
+        byte[] ip;
+        try {
+            // o remoteAddr do servlet já vem como IP literal: não consulta DNS
+            ip = InetAddress.getByName(endereco).getAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+        for (Faixa faixa : faixas) {
+            if (faixa.contem(ip)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Faixa(byte[] rede, int bits) {
+
+        static Faixa de(String texto) {
+            int barra = texto.indexOf('/');
+            String endereco = barra < 0 ? texto : texto.substring(0, barra);
+            byte[] rede;
+            try {
+                rede = InetAddress.getByName(endereco).getAddress();
+            } catch (UnknownHostException e) {
+                throw new IllegalArgumentException("Proxy confiável inválido: " + texto, e);
+            }
+            int bits = barra < 0 ? rede.length * 8 : Integer.parseInt(texto.substring(barra + 1));
+            if (bits < 0 || bits > rede.length * 8) {
+                throw new IllegalArgumentException("Proxy confiável inválido: " + texto);
+            }
+            return new Faixa(rede, bits);
+        }
+
+        // compara os primeiros bits; IPv4 contra faixa IPv6 (ou o contrário) nunca bate
+        boolean contem(byte[] ip) {
+            if (ip.length != rede.length) {
+                return false;
+            }
+            int inteiros = bits / 8;
+            for (int i = 0; i < inteiros; i++) {
+                if (ip[i] != rede[i]) {
+                    return false;
+                }
+            }
+            int resto = bits % 8;
+            if (resto == 0) {
+                return true;
+            }
+            int mascara = 0xFF << (8 - resto);
+            return (ip[inteiros] & mascara) == (rede[inteiros] & mascara);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.pedro.backend.alteracao;
+
+import com.pedro.backend.dto.Alteracao;
+import com.pedro.backend.dto.Alteracao.Entidade;
+import com.pedro.backend.dto.Alteracao.Operacao;
+import com.pedro.backend.dto.LoteAlteracoes;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Feed de alterações (outbox): cada escrita grava na tabela alteracoes, na mesma transação,
+ * o que mudou. Se a escrita sofre rollback a alteração vai junto; se commita, o consumidor vê.
+ *
+ * O seq vem do AUTO_INCREMENT, que é reservado no INSERT e não no commit: uma transação pode
+ * commitar o seq 11 antes de outra commitar o 10. Por isso a leitura para num buraco recente
+ * (mais novo que {@code alteracoes.espera-lacuna}) em vez de pular o 10 para sempre; buraco mais
+ * velho que isso é seq de transação revertida. O INSERT aqui é sempre o último passo da transação,
+ * então o intervalo entre reservar o seq e commitar é curto.
+ *
+ * A espera longa é avisada pelos commits desta instância; escritas feitas em outra instância
+ * aparecem no fim da espera, quando a leitura é refeita.
+ */
+@Component
+public class RegistroAlteracoes {
+
+    static final int TAMANHO_BATCH = 1000;
+
+    private static final String INSERIR = "INSERT INTO alteracoes "
+            + "(entidade, operacao, entidade_id, relacionado_id, ocorrido_em) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String LER = "SELECT seq, entidade, operacao, entidade_id, relacionado_id, ocorrido_em "
+            + "FROM alteracoes WHERE seq > ? ORDER BY seq LIMIT ?";
+
+    private static final RowMapper<Alteracao> MAPEAR = (rs, linha) -> new Alteracao(
+            rs.getLong("seq"),
+            Entidade.valueOf(rs.getString("entidade")),
+            Operacao.valueOf(rs.getString("operacao")),
+            rs.getLong("entidade_id"),
+            rs.getObject("relacionado_id", Long.class),
+            rs.getTimestamp("ocorrido_em").toInstant());
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transacao;
+    private final TaskExecutor executor;
+    private final Duration esperaLacuna;
+
+    // consumidores parados esperando alteração nova
+    private final Queue<Espera> esperas = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean atendimentoAgendado = new AtomicBoolean();
+
+    // muda a cada commit com alteração registrada nesta instância (invalida os caches curtos)
+    private final AtomicLong geracao = new AtomicLong();
+
+    public RegistroAlteracoes(JdbcTemplate jdbc,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier("applicationTaskExecutor") TaskExecutor executor,
+                              @Value("${alteracoes.espera-lacuna:5s}") Duration esperaLacuna) {
+        this.jdbc = jdbc;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.esperaLacuna = esperaLacuna;
+    }
+
+    // escrita + registro numa transação só; alteracao pode devolver null (nada mudou)
+    public <T> T gravar(Supplier<T> escrita, Function<T, Alteracao> alteracao) {
+        return transacao.execute(status -> {
+            T resultado = escrita.get();
+            Alteracao registrada = alteracao.apply(resultado);
+            if (registrada != null) {
+                registrar(List.of(registrada));
+            }
+            return resultado;
+        });
+    }
+
+    // chamado dentro da transação da escrita, depois dela (seq reservado o mais perto possível do commit)
+    public void registrar(List<Alteracao> alteracoes) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Alterações só podem ser registradas dentro da transação da escrita.");
+        }
+        if (alteracoes.isEmpty()) {
+            return;
+        }
+
+        Timestamp agora = Timestamp.from(Instant.now());
+        jdbc.batchUpdate(INSERIR, alteracoes, TAMANHO_BATCH, (ps, a) -> {
+            ps.setString(1, a.entidade().name());
+            ps.setString(2, a.operacao().name());
+            ps.setLong(3, a.id());
+            ps.setObject(4, a.relacionadoId(), Types.BIGINT);
+            ps.setTimestamp(5, agora);
+        });
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                geracao.incrementAndGet();
+                avisar();
+            }
+        });
+    }
+
+    public long geracao() {
+        return geracao.get();
+    }
+
+    public LoteAlteracoes ler(long desde, int limite) {
+        List<Alteracao> lidas = jdbc.query(LER, MAPEAR, desde, limite + 1);
+
+        Instant corte = Instant.now().minus(esperaLacuna);
+        List<Alteracao> entregues = new ArrayList<>(Math.min(lidas.size(), limite));
+        long anterior = desde;
+        for (Alteracao a : lidas) {
+            if (entregues.size() == limite) {
+                break;
+            }
+            // buraco recente: o seq que falta pode ser de uma transação que ainda vai commitar
+            if (a.seq() != anterior + 1 && a.ocorridoEm().isAfter(corte)) {
+                break;
+            }
+            entregues.add(a);
+            anterior = a.seq();
+        }
+        boolean temMais = entregues.size() == limite && lidas.size() > limite;
+        return new LoteAlteracoes(entregues, anterior, temMais);
+    }
+
+    // responde assim que houver alteração depois de desde, ou no fim da espera com o que tiver
+    public DeferredResult<LoteAlteracoes> aguardar(long desde, int limite, Duration espera) {
+        DeferredResult<LoteAlteracoes> resultado = new DeferredResult<>(espera.toMillis());
+        Espera pendente = new Espera(desde, limite, resultado);
+        resultado.onTimeout(() -> {
+            esperas.remove(pendente);
+            resultado.setResult(ler(desde, limite));
+        });
+        resultado.onCompletion(() -> esperas.remove(pendente));
+
+        // registra antes de ler: um commit entre a leitura e o registro não se perde
+        esperas.add(pendente);
+        LoteAlteracoes lote = ler(desde, limite);
+        if (!lote.alteracoes().isEmpty()) {
+            esperas.remove(pendente);
+            resultado.setResult(lote);
+        }
+        return resultado;
+    }
+
+    // vários commits seguidos viram um atendimento só, fora da thread de quem escreveu
+    private void avisar() {
+        if (!esperas.isEmpty() && atendimentoAgendado.compareAndSet(false, true)) {
+            executor.execute(this::atender);
+        }
+    }
+
+    private void atender() {
+        atendimentoAgendado.set(false);
+
+        // consumidores acompanhando o fim do feed costumam estar no mesmo cursor: uma leitura serve todos
+        Map<Long, Map<Integer, LoteAlteracoes>> lidos = new HashMap<>();
+        for (Espera espera : esperas) {
+            LoteAlteracoes lote = lidos.computeIfAbsent(espera.desde(), d -> new HashMap<>())
+                    .computeIfAbsent(espera.limite(), l -> ler(espera.desde(), l));
+            if (!lote.alteracoes().isEmpty() && esperas.remove(espera)) {
+                espera.resultado().setResult(lote);
+            }
+        }
+    }
+
+    private record Espera(long desde, int limite, DeferredResult<LoteAlteracoes> resultado) {}
+}
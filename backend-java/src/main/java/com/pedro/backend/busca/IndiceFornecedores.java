@@ -0,0 +1,134 @@
+package com.pedro.backend.busca;
+
+import com.pedro.backend.dto.FornecedorIndexado;
+import com.pedro.backend.dto.ResultadoBusca;
+import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.repository.FornecedorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Índice de busca de fornecedores mantido junto com o banco.
+ *
+ * Na subida lê a tabela uma vez (em segundo plano por padrão); depois cada cadastro,
+ * alteração, import e exclusão atualiza o índice logo após o commit. Durante a carga
+ * as escritas já entram no índice e a carga não sobrescreve nem ressuscita esses ids.
+ *
+ * Se a carga falhar, em segundo plano ela é tentada de novo a cada
+ * {@code busca.carga-nova-tentativa}; com {@code busca.carga-em-segundo-plano=false} a subida falha.
+ */
+@Component
+public class IndiceFornecedores {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceFornecedores.class);
+
+    private final IndiceInvertido indice = new IndiceInvertido();
+    private final FornecedorRepository fornecedorRepository;
+    private final TransactionTemplate transacao;
+    private final boolean emSegundoPlano;
+    private final Duration novaTentativa;
+
+    // ids excluídos enquanto a carga ainda está lendo a tabela
+    private final Set<Long> excluidosNaCarga = ConcurrentHashMap.newKeySet();
+    private volatile boolean carregando = true;
+    private volatile boolean pronto;
+
+    public IndiceFornecedores(FornecedorRepository fornecedorRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${busca.carga-em-segundo-plano:true}") boolean emSegundoPlano,
+                              @Value("${busca.carga-nova-tentativa:30s}") Duration novaTentativa) {
+        this.fornecedorRepository = fornecedorRepository;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacao.setReadOnly(true);
+        this.emSegundoPlano = emSegundoPlano;
+        this.novaTentativa = novaTentativa;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarCarga() {
+        if (emSegundoPlano) {
+            Thread.ofPlatform().name("carga-indice-busca").daemon().start(this::carregarAteConseguir);
+        } else {
+            // a exceção sobe pelo ApplicationReadyEvent e derruba a subida
+            carregar();
+        }
+    }
+
+    private void carregarAteConseguir() {
+        while (true) {
+            try {
+                carregar();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Falha ao carregar o índice de busca de fornecedores, nova tentativa em {}", novaTentativa, e);
+            }
+            try {
+                Thread.sleep(novaTentativa);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    void carregar() {
+        long inicio = System.nanoTime();
+        carregando = true;
+        try {
+            transacao.executeWithoutResult(s -> {
+                try (Stream<FornecedorIndexado> todos = fornecedorRepository.streamIndexaveis()) {
+                    todos.forEach(f -> {
+                        if (!excluidosNaCarga.contains(f.id())) {
+                            indice.indexarSeAusente(f.id(), f.nome(), f.cpfCnpj(), f.email());
+                        }
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            // até a próxima tentativa as exclusões vão direto ao índice; a próxima carga relê a tabela
+            carregando = false;
+            excluidosNaCarga.clear();
+            throw e;
+        }
+        carregando = false;
+        excluidosNaCarga.clear();
+        pronto = true;
+        log.info("Índice de busca carregado: {} fornecedores em {} ms",
+                indice.tamanho(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public boolean pronto() {
+        return pronto;
+    }
+
+    public List<ResultadoBusca> buscar(String consulta, int limite) {
+        return indice.buscar(consulta, limite);
+    }
+
+    public void indexar(Fornecedor fornecedor) {
+        indice.indexar(fornecedor.getId(), fornecedor.getNome(), fornecedor.getCpfCnpj(), fornecedor.getEmail());
+    }
+
+    public void indexar(Collection<Fornecedor> fornecedores) {
+        fornecedores.forEach(this::indexar);
+    }
+
+    public void remover(Collection<Long> ids) {
+        if (carregando) {
+            excluidosNaCarga.addAll(ids);
+        }
+        ids.forEach(indice::remover);
+    }
+}
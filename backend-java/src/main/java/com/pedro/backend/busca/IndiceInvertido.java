@@ -0,0 +1,357 @@
+package com.pedro.backend.busca;
+
+import com.pedro.backend.dto.ResultadoBusca;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Índice invertido em memória sobre nome, e-mail e CPF/CNPJ dos fornecedores.
+ *
+ * Os termos ficam num mapa ordenado (prefixo = faixa do mapa) apontando para listas de ids.
+ * A busca parte do termo da consulta mais seletivo e só confere os demais nos candidatos dele.
+ * Os candidatos são lidos do melhor casamento para o pior e a leitura para assim que os
+ * resultados guardados não podem mais ser superados, então termos comuns ("maria", "silva")
+ * não obrigam a percorrer a lista inteira.
+ * Leituras são concorrentes; escritas (cadastro, alteração, exclusão) pegam a trava exclusiva.
+ */
+public class IndiceInvertido {
+
+    // qualidade do casamento de um termo da consulta com um termo do fornecedor
+    private static final int EXATO = 3;
+    private static final int PREFIXO = 2;
+    private static final int APROXIMADO = 1;
+
+    // pontos por termo casado (x qualidade) e bônus para nome que começa por um termo da consulta
+    private static final int PESO = 10;
+    private static final int BONUS_INICIO = 5;
+
+    // prefixo de uma letra só casa termos inteiros (senão "a" traria metade da base)
+    private static final int MINIMO_PREFIXO = 2;
+
+    // teto de candidatos conferidos por busca (consultas que nenhum fornecedor casa bem)
+    static final int MAXIMO_CANDIDATOS = 20_000;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postagens> termos = new TreeMap<>();
+    // só o primeiro termo do nome: candidatos ao bônus, lidos antes dos demais
+    private final NavigableMap<String, Postagens> iniciais = new TreeMap<>();
+    private final NavigableMap<String, Postagens> documentos = new TreeMap<>();
+    private final Map<Long, Entrada> entradas = new HashMap<>();
+
+    private record Entrada(String nome, String cpfCnpj, String email, String[] termos, String inicial,
+                           String documento) {}
+
+    private record Casamento(Postagens postagens, int qualidade) {}
+
+    // termo da consulta resolvido no dicionário; aproximados só quando não há exato nem prefixo
+    private record Termo(String texto, List<Casamento> casamentos, long total, int melhor, Set<String> aproximados) {}
+
+    private record Pontuado(long id, Entrada entrada, int pontuacao) {}
+
+    // inclui ou substitui o fornecedor
+    public void indexar(long id, String nome, String cpfCnpj, String email) {
+        trava.writeLock().lock();
+        try {
+            removerSemTrava(id);
+            adicionarSemTrava(id, nome, cpfCnpj, email);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // inclui só se o id ainda não estiver no índice (carga inicial concorrendo com cadastros)
+    boolean indexarSeAusente(long id, String nome, String cpfCnpj, String email) {
+        trava.writeLock().lock();
+        try {
+            if (entradas.containsKey(id)) {
+                return false;
+            }
+            adicionarSemTrava(id, nome, cpfCnpj, email);
+            return true;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public void remover(long id) {
+        trava.writeLock().lock();
+        try {
+            removerSemTrava(id);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        trava.readLock().lock();
+        try {
+            return entradas.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Todos os termos da consulta precisam casar (exato, prefixo ou com 1-2 letras trocadas).
+     * Ordena pela soma da qualidade dos casamentos, com bônus para nomes que começam por um
+     * dos termos; empates ficam com o menor id.
+     */
+    public List<ResultadoBusca> buscar(String consulta, int limite) {
+        List<String> pedidos = Normalizador.termos(consulta);
+        if (pedidos.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        trava.readLock().lock();
+        try {
+            List<Termo> termosConsulta = new ArrayList<>(pedidos.size());
+            Termo seletivo = null;
+            int maximoDosTermos = 0;
+            for (String pedido : new LinkedHashSet<>(pedidos)) {
+                Termo termo = casar(pedido);
+                if (termo.total() == 0) {
+                    return List.of();
+                }
+                termosConsulta.add(termo);
+                maximoDosTermos += termo.melhor() * PESO;
+                if (seletivo == null || termo.total() < seletivo.total()) {
+                    seletivo = termo;
+                }
+            }
+
+            Leitura leitura = new Leitura(termosConsulta, limite);
+
+            // 1. nomes que começam pelo termo seletivo: quase sempre já trazem os melhores resultados
+            int teto = maximoDosTermos + BONUS_INICIO;
+            if (!leitura.ler(expandir(iniciais, seletivo), c -> teto)) {
+                return leitura.resultado();
+            }
+
+            // 2. resto da lista do termo seletivo; bônus só se algum nome começa por outro termo
+            boolean bonusDeOutros = false;
+            for (Termo termo : termosConsulta) {
+                bonusDeOutros |= termo != seletivo && !expandir(iniciais, termo).isEmpty();
+            }
+            int outros = maximoDosTermos - seletivo.melhor() * PESO + (bonusDeOutros ? BONUS_INICIO : 0);
+            leitura.ler(seletivo.casamentos(), c -> c.qualidade() * PESO + outros);
+            return leitura.resultado();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // estado de uma busca: ids já conferidos e os melhores resultados até aqui
+    private final class Leitura {
+
+        private final List<Termo> termosConsulta;
+        private final int limite;
+        private final Set<Long> vistos = new HashSet<>();
+        private final PriorityQueue<Pontuado> melhores;
+
+        Leitura(List<Termo> termosConsulta, int limite) {
+            this.termosConsulta = termosConsulta;
+            this.limite = limite;
+            // o primeiro da fila é o pior guardado
+            this.melhores = new PriorityQueue<>(limite + 1, Comparator.comparingInt(Pontuado::pontuacao)
+                    .thenComparing((a, b) -> Long.compare(b.id(), a.id())));
+        }
+
+        // devolve false quando não vale mais a pena ler nada (resultados completos ou teto de candidatos)
+        boolean ler(List<Casamento> listas, ToIntFunction<Casamento> maximoPossivel) {
+            List<Casamento> ordenadas = new ArrayList<>(listas);
+            ordenadas.sort(Comparator.comparingInt(Casamento::qualidade).reversed());
+            for (Casamento lista : ordenadas) {
+                int maximo = maximoPossivel.applyAsInt(lista);
+                for (int i = 0; i < lista.postagens().tamanho(); i++) {
+                    if (melhores.size() == limite && melhores.peek().pontuacao() >= maximo) {
+                        // listas seguintes têm qualidade menor ou igual: nada mais entra
+                        return false;
+                    }
+                    long id = lista.postagens().id(i);
+                    if (!vistos.add(id)) {
+                        continue;
+                    }
+                    if (vistos.size() > MAXIMO_CANDIDATOS) {
+                        return false;
+                    }
+                    conferir(id);
+                }
+            }
+            return true;
+        }
+
+        private void conferir(long id) {
+            Entrada entrada = entradas.get(id);
+            int total = 0;
+            boolean bonus = false;
+            for (Termo termo : termosConsulta) {
+                int qualidade = qualidade(termo, entrada);
+                if (qualidade == 0) {
+                    return;
+                }
+                total += qualidade * PESO;
+                bonus |= entrada.inicial() != null && qualidade(termo, entrada.inicial()) > 0;
+            }
+            melhores.add(new Pontuado(id, entrada, bonus ? total + BONUS_INICIO : total));
+            if (melhores.size() > limite) {
+                melhores.poll();
+            }
+        }
+
+        List<ResultadoBusca> resultado() {
+            List<ResultadoBusca> resultado = new ArrayList<>(melhores.size());
+            while (!melhores.isEmpty()) {
+                Pontuado p = melhores.poll();
+                resultado.add(new ResultadoBusca(p.id(), p.entrada().nome(), p.entrada().cpfCnpj(),
+                        p.entrada().email(), p.pontuacao()));
+            }
+            return resultado.reversed();
+        }
+    }
+
+    private Termo casar(String pedido) {
+        List<Casamento> casamentos = new ArrayList<>();
+        if (Normalizador.numerico(pedido)) {
+            documentos.subMap(pedido, true, pedido + Character.MAX_VALUE, false).forEach((doc, p) ->
+                    casamentos.add(new Casamento(p, doc.equals(pedido) ? EXATO : PREFIXO)));
+        }
+        Termo exatoOuPrefixo = new Termo(pedido, casamentos, 0, 0, Set.of());
+        casamentos.addAll(expandir(termos, exatoOuPrefixo));
+
+        // aproximado: mesma primeira letra e até 1 (ou 2, em termos longos) letras de diferença
+        Set<String> aproximados = new HashSet<>();
+        int maximo = tolerancia(pedido);
+        if (casamentos.isEmpty() && maximo > 0) {
+            char inicial = pedido.charAt(0);
+            termos.subMap(String.valueOf(inicial), true, String.valueOf((char) (inicial + 1)), false)
+                    .forEach((termo, p) -> {
+                        if (Normalizador.distancia(pedido, termo, maximo) <= maximo) {
+                            casamentos.add(new Casamento(p, APROXIMADO));
+                            aproximados.add(termo);
+                        }
+                    });
+        }
+
+        long total = 0;
+        int melhor = 0;
+        for (Casamento c : casamentos) {
+            total += c.postagens().tamanho();
+            melhor = Math.max(melhor, c.qualidade());
+        }
+        return new Termo(pedido, casamentos, total, melhor, aproximados);
+    }
+
+    // listas de um mapa de termos que casam com o termo da consulta
+    private static List<Casamento> expandir(NavigableMap<String, Postagens> mapa, Termo termo) {
+        List<Casamento> casamentos = new ArrayList<>();
+        String pedido = termo.texto();
+        Postagens exato = mapa.get(pedido);
+        if (exato != null) {
+            casamentos.add(new Casamento(exato, EXATO));
+        }
+        if (pedido.length() >= MINIMO_PREFIXO) {
+            mapa.subMap(pedido, false, pedido + Character.MAX_VALUE, false).values()
+                    .forEach(p -> casamentos.add(new Casamento(p, PREFIXO)));
+        }
+        for (String aproximado : termo.aproximados()) {
+            Postagens p = mapa.get(aproximado);
+            if (p != null) {
+                casamentos.add(new Casamento(p, APROXIMADO));
+            }
+        }
+        return casamentos;
+    }
+
+    // mesmo critério do casar, aplicado só aos termos de um fornecedor
+    private static int qualidade(Termo termo, Entrada entrada) {
+        int melhor = 0;
+        String pedido = termo.texto();
+        if (Normalizador.numerico(pedido) && entrada.documento().startsWith(pedido)) {
+            melhor = entrada.documento().length() == pedido.length() ? EXATO : PREFIXO;
+        }
+        for (String t : entrada.termos()) {
+            melhor = Math.max(melhor, qualidade(termo, t));
+            if (melhor == EXATO) {
+                break;
+            }
+        }
+        return melhor;
+    }
+
+    private static int qualidade(Termo termo, String t) {
+        String pedido = termo.texto();
+        if (t.equals(pedido)) {
+            return EXATO;
+        }
+        if (pedido.length() >= MINIMO_PREFIXO && t.startsWith(pedido)) {
+            return PREFIXO;
+        }
+        return termo.aproximados().contains(t) ? APROXIMADO : 0;
+    }
+
+    private static int tolerancia(String pedido) {
+        if (Normalizador.numerico(pedido) || pedido.length() < 4) {
+            return 0;
+        }
+        return pedido.length() < 8 ? 1 : 2;
+    }
+
+    private void adicionarSemTrava(long id, String nome, String cpfCnpj, String email) {
+        List<String> termosNome = Normalizador.termos(nome);
+        Set<String> termosDoFornecedor = new LinkedHashSet<>(termosNome);
+        termosDoFornecedor.addAll(Normalizador.termos(email));
+        String inicial = termosNome.isEmpty() ? null : termosNome.getFirst();
+        String documento = Normalizador.documento(cpfCnpj);
+
+        Entrada entrada = new Entrada(nome, cpfCnpj, email, termosDoFornecedor.toArray(String[]::new),
+                inicial, documento);
+        entradas.put(id, entrada);
+        for (String termo : entrada.termos()) {
+            termos.computeIfAbsent(termo, t -> new Postagens()).adicionar(id);
+        }
+        if (inicial != null) {
+            iniciais.computeIfAbsent(inicial, t -> new Postagens()).adicionar(id);
+        }
+        if (!documento.isEmpty()) {
+            documentos.computeIfAbsent(documento, d -> new Postagens()).adicionar(id);
+        }
+    }
+
+    private void removerSemTrava(long id) {
+        Entrada entrada = entradas.remove(id);
+        if (entrada == null) {
+            return;
+        }
+        for (String termo : entrada.termos()) {
+            retirar(termos, termo, id);
+        }
+        if (entrada.inicial() != null) {
+            retirar(iniciais, entrada.inicial(), id);
+        }
+        if (!entrada.documento().isEmpty()) {
+            retirar(documentos, entrada.documento(), id);
+        }
+    }
+
+    private static void retirar(Map<String, Postagens> mapa, String chave, long id) {
+        Postagens postagens = mapa.get(chave);
+        if (postagens != null) {
+            postagens.remover(id);
+            if (postagens.tamanho() == 0) {
+                mapa.remove(chave);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.pedro.backend.busca;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Quebra textos em termos de busca: minúsculas, sem acentos (João -> joao, Conceição -> conceicao)
+ * e separados em qualquer caractere que não seja letra ou dígito.
+ */
+final class Normalizador {
+
+    // partículas dos nomes brasileiros e sufixos de e-mail que aparecem em quase todo registro
+    private static final Set<String> IGNORADAS = Set.of("de", "da", "do", "das", "dos", "e", "com", "br");
+
+    private Normalizador() {}
+
+    static String normalizar(String texto) {
+        String semAcento = Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return semAcento.toLowerCase(Locale.ROOT);
+    }
+
+    // termos do texto, na ordem, sem as palavras ignoradas
+    static List<String> termos(String texto) {
+        List<String> termos = new ArrayList<>();
+        if (texto == null) {
+            return termos;
+        }
+        for (String termo : normalizar(texto).split("[^a-z0-9]+")) {
+            if (!termo.isEmpty() && !IGNORADAS.contains(termo)) {
+                termos.add(termo);
+            }
+        }
+        return termos;
+    }
+
+    // CPF/CNPJ só com dígitos
+    static String documento(String cpfCnpj) {
+        return cpfCnpj == null ? "" : cpfCnpj.replaceAll("\\D", "");
+    }
+
+    static boolean numerico(String termo) {
+        for (int i = 0; i < termo.length(); i++) {
+            if (termo.charAt(i) < '0' || termo.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // distância de edição limitada: devolve maximo + 1 assim que passa do limite
+    static int distancia(String a, String b, int maximo) {
+        if (Math.abs(a.length() - b.length()) > maximo) {
+            return maximo + 1;
+        }
+        int[] anterior = new int[b.length() + 1];
+        int[] atual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            atual[0] = i;
+            int menorDaLinha = atual[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int custo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                atual[j] = Math.min(Math.min(atual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + custo);
+                menorDaLinha = Math.min(menorDaLinha, atual[j]);
+            }
+            if (menorDaLinha > maximo) {
+                return maximo + 1;
+            }
+            int[] troca = anterior;
+            anterior = atual;
+            atual = troca;
+        }
+        return anterior[b.length()];
+    }
+}
@@ -0,0 +1,41 @@
+package com.pedro.backend.busca;
+
+import java.util.Arrays;
+
+// ids de fornecedor de um termo, num long[] ordenado (sem boxing; ids novos costumam ir para o fim)
+final class Postagens {
+
+    private long[] ids = new long[2];
+    private int tamanho;
+
+    void adicionar(long id) {
+        int pos = Arrays.binarySearch(ids, 0, tamanho, id);
+        if (pos >= 0) {
+            return;
+        }
+        pos = -pos - 1;
+        if (tamanho == ids.length) {
+            ids = Arrays.copyOf(ids, tamanho + (tamanho >> 1) + 1);
+        }
+        System.arraycopy(ids, pos, ids, pos + 1, tamanho - pos);
+        ids[pos] = id;
+        tamanho++;
+    }
+
+    void remover(long id) {
+        int pos = Arrays.binarySearch(ids, 0, tamanho, id);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, tamanho - pos - 1);
+        tamanho--;
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    long id(int i) {
+        return ids[i];
+    }
+}
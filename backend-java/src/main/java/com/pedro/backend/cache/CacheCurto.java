@@ -0,0 +1,55 @@
+package com.pedro.backend.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache de poucos segundos para partes de resposta montadas por consulta. Cada entrada guarda a
+ * geração de escritas em que foi montada ({@code RegistroAlteracoes.geracao()}): qualquer escrita
+ * commitada nesta instância muda a geração e o cache inteiro deixa de valer. Escritas de outra
+ * instância, ou feitas direto no banco, aparecem quando a validade vence.
+ *
+ * A geração é lida antes de carregar: escrita que commita no meio da carga já invalida o que
+ * está sendo montado.
+ */
+public class CacheCurto<K, V> {
+
+    private record Entrada<V>(V valor, long geracao, long venceEm) {}
+
+    private final ConcurrentHashMap<K, Entrada<V>> entradas = new ConcurrentHashMap<>();
+    private final LongSupplier geracao;
+    private final long validadeNanos;
+    private final int maximo;
+    private volatile long geracaoVista;
+
+    public CacheCurto(LongSupplier geracao, Duration validade, int maximo) {
+        this.geracao = geracao;
+        this.validadeNanos = validade.toNanos();
+        this.maximo = maximo;
+    }
+
+    // em cache: resposta na hora, sem trocar de thread; senão carrega no executor
+    public CompletableFuture<V> obter(K chave, Supplier<V> carregar, Executor executor) {
+        long atual = geracao.getAsLong();
+        if (atual != geracaoVista) {
+            entradas.clear();
+            geracaoVista = atual;
+        }
+        long agora = System.nanoTime();
+        Entrada<V> entrada = entradas.get(chave);
+        if (entrada != null && entrada.geracao() == atual && agora - entrada.venceEm() < 0) {
+            return CompletableFuture.completedFuture(entrada.valor());
+        }
+        return CompletableFuture.supplyAsync(carregar, executor).thenApply(valor -> {
+            if (entradas.size() >= maximo) {
+                entradas.clear();
+            }
+            entradas.put(chave, new Entrada<>(valor, atual, agora + validadeNanos));
+            return valor;
+        });
+    }
+}
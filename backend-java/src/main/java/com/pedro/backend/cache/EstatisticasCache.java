@@ -0,0 +1,45 @@
+package com.pedro.backend.cache;
+
+import com.pedro.backend.dto.EstatisticaCache;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lê os contadores das regiões do cache de segundo nível.
+ * O Ehcache publica as estatísticas JCache como MBeans (enable-statistics no ehcache.xml);
+ * aqui elas só são coletadas e convertidas.
+ */
+@Component
+public class EstatisticasCache {
+
+    private static final String PADRAO = "javax.cache:type=CacheStatistics,CacheManager=*,Cache=*";
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public List<EstatisticaCache> listar() {
+        List<EstatisticaCache> estatisticas = new ArrayList<>();
+        try {
+            for (ObjectName nome : mBeanServer.queryNames(new ObjectName(PADRAO), null)) {
+                estatisticas.add(new EstatisticaCache(
+                        nome.getKeyProperty("Cache"),
+                        (Long) mBeanServer.getAttribute(nome, "CacheHits"),
+                        (Long) mBeanServer.getAttribute(nome, "CacheMisses"),
+                        (Float) mBeanServer.getAttribute(nome, "CacheHitPercentage"),
+                        (Long) mBeanServer.getAttribute(nome, "CachePuts"),
+                        (Long) mBeanServer.getAttribute(nome, "CacheRemovals"),
+                        (Long) mBeanServer.getAttribute(nome, "CacheEvictions")));
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Não foi possível ler as estatísticas do cache.", e);
+        }
+        estatisticas.sort(Comparator.comparing(EstatisticaCache::regiao));
+        return estatisticas;
+    }
+}
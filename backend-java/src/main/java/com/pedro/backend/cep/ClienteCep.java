@@ -0,0 +1,14 @@
+package com.pedro.backend.cep;
+
+import com.pedro.backend.dto.EnderecoCep;
+
+import java.util.Optional;
+
+/**
+ * Consulta de CEP numa API externa. Vazio = CEP não existe;
+ * exceção = API indisponível (quem chama cai para o índice local).
+ */
+public interface ClienteCep {
+
+    Optional<EnderecoCep> consultar(String cep);
+}
@@ -0,0 +1,93 @@
+package com.pedro.backend.cep;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice offline de faixas de CEP -> UF.
+ *
+ * As faixas ficam em três arrays primitivos paralelos (início, fim e índice da UF), ordenados
+ * pelo início, e a consulta é uma busca binária: nada de mapa com chaves boxed, e o índice
+ * inteiro ocupa poucos bytes por faixa mesmo com arquivos de faixas por localidade.
+ */
+public final class FaixasCep {
+
+    private final int[] inicios;
+    private final int[] fins;
+    private final byte[] ufPorFaixa;
+    private final String[] ufs;
+
+    private FaixasCep(int[] inicios, int[] fins, byte[] ufPorFaixa, String[] ufs) {
+        this.inicios = inicios;
+        this.fins = fins;
+        this.ufPorFaixa = ufPorFaixa;
+        this.ufs = ufs;
+    }
+
+    // formato: uma faixa por linha "inicio,fim,UF"; linhas vazias e começando com # são ignoradas
+    public static FaixasCep carregar(InputStream entrada) {
+        List<String> ufs = new ArrayList<>();
+        int[] inicios = new int[64];
+        int[] fins = new int[64];
+        byte[] ufPorFaixa = new byte[64];
+        int total = 0;
+
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                linha = linha.trim();
+                if (linha.isEmpty() || linha.startsWith("#")) {
+                    continue;
+                }
+                String[] partes = linha.split(",");
+                if (total == inicios.length) {
+                    inicios = Arrays.copyOf(inicios, total * 2);
+                    fins = Arrays.copyOf(fins, total * 2);
+                    ufPorFaixa = Arrays.copyOf(ufPorFaixa, total * 2);
+                }
+                String uf = partes[2].trim();
+                int indiceUf = ufs.indexOf(uf);
+                if (indiceUf < 0) {
+                    ufs.add(uf);
+                    indiceUf = ufs.size() - 1;
+                }
+                inicios[total] = Integer.parseInt(partes[0].trim());
+                fins[total] = Integer.parseInt(partes[1].trim());
+                ufPorFaixa[total] = (byte) indiceUf;
+                if (total > 0 && inicios[total] <= fins[total - 1]) {
+                    throw new IllegalStateException("Faixas de CEP fora de ordem ou sobrepostas: " + linha);
+                }
+                total++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new FaixasCep(Arrays.copyOf(inicios, total), Arrays.copyOf(fins, total),
+                Arrays.copyOf(ufPorFaixa, total), ufs.toArray(String[]::new));
+    }
+
+    // UF do CEP (8 dígitos já normalizados em int) ou null se não cai em nenhuma faixa
+    public String uf(int cep) {
+        int pos = Arrays.binarySearch(inicios, cep);
+        if (pos < 0) {
+            // ponto de inserção - 1 = última faixa que começa antes do CEP
+            pos = -pos - 2;
+        }
+        if (pos < 0 || cep > fins[pos]) {
+            return null;
+        }
+        return ufs[ufPorFaixa[pos]];
+    }
+
+    public int tamanho() {
+        return inicios.length;
+    }
+}
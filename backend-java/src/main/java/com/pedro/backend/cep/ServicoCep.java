@@ -0,0 +1,126 @@
+package com.pedro.backend.cep;
+
+import com.pedro.backend.dto.EnderecoCep;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolução e validação de CEP no backend.
+ *
+ * A validação (formato + UF) usa só o índice local de faixas: não faz I/O, leva microssegundos
+ * e funciona offline. A consulta completa (localidade/bairro) vai na API remota, com cache LRU
+ * de resultados; se a API cair, responde com a UF do índice local.
+ */
+@Component
+public class ServicoCep {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicoCep.class);
+
+    private final FaixasCep faixas;
+    private final ClienteCep remoto;
+    private final Map<String, Optional<EnderecoCep>> cache;
+
+    @Autowired
+    public ServicoCep(ObjectProvider<ClienteCep> remoto,
+                      @Value("${cep.faixas:cep/faixas-uf.csv}") String arquivoFaixas,
+                      @Value("${cep.cache.tamanho:10000}") int tamanhoCache) {
+        this(carregarFaixas(arquivoFaixas), remoto.getIfAvailable(), tamanhoCache);
+    }
+
+    public ServicoCep(FaixasCep faixas, ClienteCep remoto, int tamanhoCache) {
+        this.faixas = faixas;
+        this.remoto = remoto;
+        // LinkedHashMap em ordem de acesso = LRU; acesso sincronizado porque é pequeno e raro
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<EnderecoCep>> maisAntigo) {
+                return size() > tamanhoCache;
+            }
+        };
+    }
+
+    // tira pontos, traços e espaços; devolve null se não sobrar exatamente 8 dígitos
+    public static String normalizar(String cep) {
+        if (cep == null) {
+            return null;
+        }
+        StringBuilder digitos = new StringBuilder(8);
+        for (int i = 0; i < cep.length(); i++) {
+            char c = cep.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            } else if (c != '.' && c != '-' && c != ' ') {
+                return null;
+            }
+        }
+        return digitos.length() == 8 ? digitos.toString() : null;
+    }
+
+    // UF pelo índice local (sem I/O); vazio se o CEP é malformado ou não pertence a nenhuma faixa
+    public Optional<String> uf(String cep) {
+        String normalizado = normalizar(cep);
+        if (normalizado == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(faixas.uf(Integer.parseInt(normalizado)));
+    }
+
+    // consulta completa: cache LRU -> API remota -> índice local
+    public Optional<EnderecoCep> consultar(String cep) {
+        String normalizado = normalizar(cep);
+        if (normalizado == null) {
+            return Optional.empty();
+        }
+
+        synchronized (cache) {
+            Optional<EnderecoCep> emCache = cache.get(normalizado);
+            if (emCache != null) {
+                return emCache;
+            }
+        }
+
+        Optional<EnderecoCep> local = uf(normalizado)
+                .map(uf -> new EnderecoCep(normalizado, uf, null, null, "LOCAL"));
+        if (remoto == null || local.isEmpty()) {
+            return local;
+        }
+
+        Optional<EnderecoCep> resultado;
+        try {
+            resultado = remoto.consultar(normalizado);
+        } catch (RuntimeException e) {
+            // API fora do ar: não guarda no cache, só responde com o que o índice local sabe
+            log.warn("Consulta remota do CEP {} falhou: {}", normalizado, e.getMessage());
+            return local;
+        }
+
+        synchronized (cache) {
+            cache.put(normalizado, resultado);
+        }
+        return resultado;
+    }
+
+    private static FaixasCep carregarFaixas(String arquivo) {
+        try (InputStream entrada = ServicoCep.class.getClassLoader().getResourceAsStream(arquivo)) {
+            if (entrada == null) {
+                throw new IllegalStateException("Arquivo de faixas de CEP não encontrado: " + arquivo);
+            }
+            FaixasCep faixas = FaixasCep.carregar(entrada);
+            log.info("{} faixas de CEP carregadas de {}", faixas.tamanho(), arquivo);
+            return faixas;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
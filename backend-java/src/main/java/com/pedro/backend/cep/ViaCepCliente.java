@@ -0,0 +1,49 @@
+package com.pedro.backend.cep;
+
+import com.pedro.backend.dto.EnderecoCep;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cliente do ViaCEP. Desligado com cep.remoto.habilitado=false (testes / ambiente offline),
+ * e aí a validação usa só o índice local de faixas.
+ */
+@Component
+@ConditionalOnProperty(name = "cep.remoto.habilitado", havingValue = "true", matchIfMissing = true)
+public class ViaCepCliente implements ClienteCep {
+
+    private final RestClient restClient;
+
+    public ViaCepCliente(@Value("${cep.remoto.url:https://viacep.com.br/ws}") String url,
+                         @Value("${cep.remoto.timeout:2s}") Duration timeout) {
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = RestClient.builder()
+                .baseUrl(url)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    @Override
+    public Optional<EnderecoCep> consultar(String cep) {
+        Resposta resposta = restClient.get()
+                .uri("/{cep}/json/", cep)
+                .retrieve()
+                .body(Resposta.class);
+
+        if (resposta == null || Boolean.TRUE.equals(resposta.erro())) {
+            return Optional.empty();
+        }
+        return Optional.of(new EnderecoCep(cep, resposta.uf(), resposta.localidade(), resposta.bairro(), "REMOTO"));
+    }
+
+    private record Resposta(String uf, String localidade, String bairro, Boolean erro) {}
+}
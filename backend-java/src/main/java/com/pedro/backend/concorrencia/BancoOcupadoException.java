@@ -0,0 +1,15 @@
+package com.pedro.backend.concorrencia;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// todas as vagas do bulkhead ocupadas além da espera máxima: o cliente tenta de novo depois
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Banco de dados ocupado, tente novamente.")
+public class BancoOcupadoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BancoOcupadoException() {
+        super("Banco de dados ocupado, tente novamente.");
+    }
+}
@@ -0,0 +1,138 @@
+package com.pedro.backend.concorrencia;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bulkhead na frente do DataSource: no máximo N conexões em uso ao mesmo tempo, com N =
+ * tamanho do pool de conexões.
+ *
+ * Com threads virtuais o Tomcat não limita mais quantas requisições chegam ao JDBC; sem isso
+ * milhares delas ficariam presas dentro do Hikari disputando conexão. Aqui a espera é num
+ * semáforo justo (uma thread virtual parada custa quase nada) e, se passar do tempo limite,
+ * a requisição recebe 503 em vez de estourar o timeout do pool.
+ *
+ * A vaga é tomada onde a conexão é pedida e devolvida no close: vale para transação JPA,
+ * TransactionTemplate, JdbcTemplate e consulta avulsa de repositório, do começo ao fim de cada
+ * uma. Com réplicas ligadas o envolvido é o roteador, então leitura em réplica também ocupa vaga.
+ */
+@Component
+@ConditionalOnProperty(name = "banco.bulkhead.habilitado", havingValue = "true")
+public class BulkheadBanco implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkheadBanco.class);
+
+    // o DataSource que o JPA, o Flyway e o JdbcTemplate recebem (o do Spring Boot ou o roteador de réplicas)
+    private static final String DATA_SOURCE = "dataSource";
+
+    private final Semaphore vagas;
+    private final long esperaMaximaNanos;
+
+    public BulkheadBanco(@Value("${banco.bulkhead.vagas:${spring.datasource.hikari.maximum-pool-size:10}}") int vagas,
+                         @Value("${banco.bulkhead.espera:5s}") Duration esperaMaxima) {
+        this.vagas = new Semaphore(vagas, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        log.info("Bulkhead do banco ativo: {} conexões simultâneas, espera máxima de {}", vagas, esperaMaxima);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && DATA_SOURCE.equals(beanName)) {
+            return new ComBulkhead(dataSource);
+        }
+        return bean;
+    }
+
+    public int vagasLivres() {
+        return vagas.availablePermits();
+    }
+
+    public int aguardando() {
+        return vagas.getQueueLength();
+    }
+
+    private Connection comVaga(ConexaoNova abrir) throws SQLException {
+        try {
+            if (!vagas.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS)) {
+                throw new BancoOcupadoException();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BancoOcupadoException();
+        }
+        Connection conexao;
+        try {
+            conexao = abrir.abrir();
+        } catch (SQLException | RuntimeException e) {
+            vagas.release();
+            throw e;
+        }
+        return devolvendoNoClose(conexao);
+    }
+
+    // o close pode vir mais de uma vez (pool, Hibernate, Spring): a vaga volta só na primeira
+    private Connection devolvendoNoClose(Connection conexao) {
+        AtomicBoolean fechada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "equals" -> proxy == argumentos[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            conexao.close();
+                        } finally {
+                            if (fechada.compareAndSet(false, true)) {
+                                vagas.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> chamar(conexao, metodo, argumentos);
+                });
+    }
+
+    private static Object chamar(Connection conexao, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(conexao, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private interface ConexaoNova {
+        Connection abrir() throws SQLException;
+    }
+
+    private final class ComBulkhead extends DelegatingDataSource {
+
+        ComBulkhead(DataSource alvo) {
+            super(alvo);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return comVaga(() -> obtainTargetDataSource().getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String usuario, String senha) throws SQLException {
+            return comVaga(() -> obtainTargetDataSource().getConnection(usuario, senha));
+        }
+    }
+}
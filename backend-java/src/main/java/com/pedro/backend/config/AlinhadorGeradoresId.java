@@ -0,0 +1,70 @@
+package com.pedro.backend.config;
+
+import com.pedro.backend.model.GeradoresId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Garante, na subida, que cada gerador de id começa acima do maior id já gravado.
+ *
+ * Bancos criados quando as entidades usavam IDENTITY já têm linhas com ids do auto_increment;
+ * sem esse ajuste o primeiro bloco do gerador colidiria com elas. Roda antes do servidor
+ * web aceitar requisições e só sobe o valor (nunca desce), então é seguro em toda subida.
+ */
+@Component
+public class AlinhadorGeradoresId implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(AlinhadorGeradoresId.class);
+
+    // gerador -> tabela da entidade (tabelas fixas, nunca vindas de entrada externa)
+    private static final Map<String, String> TABELAS = Map.of(
+            "empresas", "empresas",
+            "fornecedores", "fornecedores",
+            "empresas_fornecedores", "empresas_fornecedores");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AlinhadorGeradoresId(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        TABELAS.forEach(this::alinhar);
+    }
+
+    private void alinhar(String gerador, String tabela) {
+        Long maiorId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabela, Long.class);
+
+        // com o otimizador pooled o valor guardado é o topo do próximo bloco:
+        // o bloco vai de (valor - ALOCACAO + 1) até valor
+        long minimo = maiorId + GeradoresId.ALOCACAO;
+
+        int atualizadas = jdbcTemplate.update(
+                "UPDATE " + GeradoresId.TABELA + " SET " + GeradoresId.COLUNA_VALOR + " = ?"
+                        + " WHERE " + GeradoresId.COLUNA_NOME + " = ? AND " + GeradoresId.COLUNA_VALOR + " < ?",
+                minimo, gerador, minimo);
+
+        if (atualizadas == 0) {
+            Integer existe = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + GeradoresId.TABELA + " WHERE " + GeradoresId.COLUNA_NOME + " = ?",
+                    Integer.class, gerador);
+            if (existe == null || existe == 0) {
+                jdbcTemplate.update(
+                        "INSERT INTO " + GeradoresId.TABELA
+                                + " (" + GeradoresId.COLUNA_NOME + ", " + GeradoresId.COLUNA_VALOR + ") VALUES (?, ?)",
+                        gerador, minimo);
+                atualizadas = 1;
+            }
+        }
+
+        if (atualizadas > 0) {
+            log.info("Gerador de id '{}' alinhado para começar depois do id {}", gerador, maiorId);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.pedro.backend.controller;
+
+import com.pedro.backend.alteracao.RegistroAlteracoes;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/alteracoes")
+public class AlteracaoController {
+
+    private static final int LIMITE_PADRAO = 500;
+    private static final int LIMITE_MAXIMO = 5000;
+
+    // espera longa em segundos (0 = responde na hora, mesmo vazio)
+    private static final int ESPERA_MAXIMA = 30;
+
+    private final RegistroAlteracoes alteracoes;
+
+    public AlteracaoController(RegistroAlteracoes alteracoes) {
+        this.alteracoes = alteracoes;
+    }
+
+    // FEED: alterações depois de desde, em ordem; com espera > 0 segura a resposta até chegar alguma
+    @GetMapping
+    public DeferredResult<?> listar(@RequestParam(defaultValue = "0") long desde,
+                                    @RequestParam(defaultValue = "" + LIMITE_PADRAO) int limite,
+                                    @RequestParam(defaultValue = "0") int espera) {
+        if (desde < 0) {
+            DeferredResult<ResponseEntity<?>> erro = new DeferredResult<>();
+            erro.setResult(ResponseEntity.badRequest().body("desde deve ser zero ou positivo."));
+            return erro;
+        }
+
+        int maximo = Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+        int segundos = Math.max(0, Math.min(espera, ESPERA_MAXIMA));
+        if (segundos == 0) {
+            DeferredResult<Object> agora = new DeferredResult<>();
+            agora.setResult(alteracoes.ler(desde, maximo));
+            return agora;
+        }
+        return alteracoes.aguardar(desde, maximo, Duration.ofSeconds(segundos));
+    }
+}
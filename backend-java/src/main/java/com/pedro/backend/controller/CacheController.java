@@ -0,0 +1,27 @@
+package com.pedro.backend.controller;
+
+import com.pedro.backend.cache.EstatisticasCache;
+import com.pedro.backend.dto.EstatisticaCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/cache")
+public class CacheController {
+
+    private final EstatisticasCache estatisticasCache;
+
+    public CacheController(EstatisticasCache estatisticasCache) {
+        this.estatisticasCache = estatisticasCache;
+    }
+
+    // hits/misses/evictions por região, para dimensionar o cache
+    @GetMapping("/estatisticas")
+    public ResponseEntity<List<EstatisticaCache>> estatisticas() {
+        return ResponseEntity.ok(estatisticasCache.listar());
+    }
+}
@@ -0,0 +1,31 @@
+package com.pedro.backend.controller;
+
+import com.pedro.backend.cep.ServicoCep;
+import com.pedro.backend.dto.EnderecoCep;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/ceps")
+public class CepController {
+
+    private final ServicoCep servicoCep;
+
+    public CepController(ServicoCep servicoCep) {
+        this.servicoCep = servicoCep;
+    }
+
+    // CONSULTAR CEP (usado pelo front para validar e preencher UF/cidade/bairro)
+    @GetMapping("/{cep}")
+    public ResponseEntity<?> consultar(@PathVariable String cep) {
+        if (ServicoCep.normalizar(cep) == null) {
+            return ResponseEntity.badRequest().body("CEP deve ter exatamente 8 dígitos.");
+        }
+        return servicoCep.consultar(cep)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
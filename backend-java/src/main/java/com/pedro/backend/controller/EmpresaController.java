@@ -1,13 +1,24 @@
 package com.pedro.backend.controller;
 
+import com.pedro.backend.alteracao.RegistroAlteracoes;
+import com.pedro.backend.cep.ServicoCep;
+import com.pedro.backend.dto.Alteracao;
+import com.pedro.backend.dto.Alteracao.Operacao;
+import com.pedro.backend.dto.EmpresaListada;
+import com.pedro.backend.estatistica.ContadoresCadastro;
+import com.pedro.backend.exclusao.ExclusaoEmCascata;
+import com.pedro.backend.export.ExportadorNdjson;
 import com.pedro.backend.model.Empresa;
-import com.pedro.backend.repository.EmpresaFornecedorRepository;
 import com.pedro.backend.repository.EmpresaRepository;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional; 
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
@@ -18,30 +29,60 @@ public class EmpresaController {
 
     // repos que conversam direto com o banco
     private final EmpresaRepository empresaRepository;
-    private final EmpresaFornecedorRepository empresaFornecedorRepository;
+    private final ExclusaoEmCascata exclusao;
+    private final ExportadorNdjson exportador;
+    private final ServicoCep servicoCep;
+    private final ContadoresCadastro contadores;
+    private final RegistroAlteracoes alteracoes;
 
     // injeção dos repositórios via construtor
     public EmpresaController(EmpresaRepository empresaRepository,
-                             EmpresaFornecedorRepository empresaFornecedorRepository) {
+                             ExclusaoEmCascata exclusao,
+                             ExportadorNdjson exportador,
+                             ServicoCep servicoCep,
+                             ContadoresCadastro contadores,
+                             RegistroAlteracoes alteracoes) {
         this.empresaRepository = empresaRepository;
-        this.empresaFornecedorRepository = empresaFornecedorRepository;
+        this.exclusao = exclusao;
+        this.exportador = exportador;
+        this.servicoCep = servicoCep;
+        this.contadores = contadores;
+        this.alteracoes = alteracoes;
     }
 
     // LISTAR TODAS
     @GetMapping
-    public ResponseEntity<List<Empresa>> listar() {
-        // busca tudo no banco e devolve 200 OK com a lista
-        List<Empresa> empresas = empresaRepository.findAll();
-        return ResponseEntity.ok(empresas);
+    public ResponseEntity<List<EmpresaListada>> listar(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // busca tudo no banco e devolve 200 OK com a lista (304 sem corpo se nada mudou)
+        List<EmpresaListada> empresas = empresaRepository.listarTodas();
+        String etag = Etags.daLista(empresas, EmpresaListada::id, EmpresaListada::versao);
+        if (Etags.confere(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(empresas);
+    }
+
+    // EXPORTAR TODAS (NDJSON em streaming, sem montar a lista em memória)
+    @GetMapping(value = "/export", produces = ExportadorNdjson.CONTENT_TYPE)
+    public void exportar(HttpServletResponse response) throws IOException {
+        exportador.exportar(empresaRepository::streamTodas, response);
     }
 
     // BUSCAR POR ID
     @GetMapping("/{id}")
-    public ResponseEntity<Empresa> buscar(@PathVariable Long id) {
-        // se achar devolve 200 com a empresa, se não 404
-        return empresaRepository.findById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Empresa> buscar(@PathVariable Long id,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // se achar devolve 200 com a empresa (304 se o cliente já tem essa versão), se não 404
+        Optional<Empresa> opt = empresaRepository.findById(id);
+        if (opt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = Etags.daVersao(opt.get().getVersao());
+        if (Etags.confere(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(opt.get());
     }
 
     // CRIAR
@@ -53,6 +94,12 @@ public class EmpresaController {
             empresa.setCnpj(empresa.getCnpj().trim());
         }
 
+        // CEP válido e da mesma UF do estado (se o estado não veio, vem do CEP)
+        String erroCep = aplicarCep(empresa);
+        if (erroCep != null) {
+            return ResponseEntity.badRequest().body(erroCep);
+        }
+
         // validação de unicidade de CNPJ antes de salvar
         if (empresa.getCnpj() != null && !empresa.getCnpj().isEmpty()) {
             if (empresaRepository.existsByCnpj(empresa.getCnpj())) {
@@ -62,11 +109,14 @@ public class EmpresaController {
         }
 
         try {
-            // salva no banco
-            Empresa salva = empresaRepository.save(empresa);
-            
+            // salva no banco junto com a linha do feed de alterações
+            Empresa salva = alteracoes.gravar(() -> empresaRepository.saveAndFlush(empresa),
+                    s -> Alteracao.empresa(Operacao.CRIADO, s.getId()));
+            contadores.empresaCriada(salva.getEstado());
+
             return ResponseEntity
                     .created(URI.create("/empresas/" + salva.getId()))
+                    .eTag(Etags.daVersao(salva.getVersao()))
                     .body(salva);
         } catch (DataIntegrityViolationException e) {
             // pega erro de constraint única no banco e devolve mensagem amigável
@@ -77,7 +127,8 @@ public class EmpresaController {
 
     // ATUALIZAR
     @PutMapping("/{id}")
-    public ResponseEntity<?> atualizar(@PathVariable Long id, @RequestBody Empresa dados) {
+    public ResponseEntity<?> atualizar(@PathVariable Long id, @RequestBody Empresa dados,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         // garante que a empresa existe antes de atualizar
         Optional<Empresa> opt = empresaRepository.findById(id);
@@ -86,6 +137,15 @@ public class EmpresaController {
         }
 
         Empresa existente = opt.get();
+        Long versaoAntes = existente.getVersao();
+
+        // If-Match com versão antiga: o cliente editou em cima de dados que já mudaram
+        if (Etags.desatualizado(ifMatch, existente.getVersao())) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .eTag(Etags.daVersao(existente.getVersao()))
+                    .body("A empresa foi alterada por outra pessoa. Recarregue antes de salvar.");
+        }
+        String estadoAntes = existente.getEstado();
 
         // tratativa específica pro CNPJ (trim + checagem de duplicidade)
         String novoCnpj = dados.getCnpj();
@@ -111,36 +171,41 @@ public class EmpresaController {
             existente.setEstado(dados.getEstado());
         }
 
+        // só revalida o CEP quando CEP ou estado mudam (cadastros antigos não travam outras edições)
+        if (dados.getCep() != null || dados.getEstado() != null) {
+            String erroCep = aplicarCep(existente);
+            if (erroCep != null) {
+                return ResponseEntity.badRequest().body(erroCep);
+            }
+        }
+
         try {
-            Empresa salva = empresaRepository.save(existente);
-            return ResponseEntity.ok(salva);
+            // PUT sem mudança não incrementa a versão nem vai para o feed
+            Empresa salva = alteracoes.gravar(() -> empresaRepository.saveAndFlush(existente),
+                    s -> s.getVersao().equals(versaoAntes) ? null : Alteracao.empresa(Operacao.ALTERADO, s.getId()));
+            contadores.empresaAlterada(estadoAntes, salva.getEstado());
+            return ResponseEntity.ok().eTag(Etags.daVersao(salva.getVersao())).body(salva);
+        } catch (OptimisticLockingFailureException e) {
+            // outra requisição gravou entre a leitura e o UPDATE (a versão no WHERE não bateu)
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("A empresa foi alterada por outra pessoa. Recarregue antes de salvar.");
         } catch (DataIntegrityViolationException e) {
             return ResponseEntity.badRequest()
                     .body("Não foi possível atualizar a empresa. Verifique os dados enviados.");
         }
     }
 
-    // DELETE
-    @Transactional 
+    // DELETE (vínculos e empresa saem com DELETEs em massa, sem carregar nada)
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deletar(@PathVariable Long id) {
 
         // checa se a empresa existe
-        Optional<Empresa> opt = empresaRepository.findById(id);
-        if (opt.isEmpty()) {
+        if (!empresaRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
 
-        Empresa empresa = opt.get();
-
         try {
-            // 1) remove todos os vínculos dessa empresa na tabela de junção
-            empresaFornecedorRepository.deleteAllByEmpresa(empresa);
-
-            // 2) exclui a empresa em si
-            empresaRepository.delete(empresa);
-
-        
+            exclusao.excluirEmpresas(List.of(id));
             return ResponseEntity.noContent().build();
 
         } catch (DataIntegrityViolationException e) {
@@ -154,4 +219,40 @@ public class EmpresaController {
         }
     }
 
+    // EXCLUIR EM LOTE: corpo com a lista de ids; ids inexistentes voltam em naoEncontrados
+    @PostMapping("/exclusao-em-lote")
+    public ResponseEntity<?> deletarEmLote(@RequestBody List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return ResponseEntity.badRequest().body("Informe ao menos uma empresa.");
+        }
+        if (ids.size() > ExclusaoEmCascata.MAXIMO_IDS) {
+            return ResponseEntity.badRequest()
+                    .body("Máximo de " + ExclusaoEmCascata.MAXIMO_IDS + " empresas por requisição.");
+        }
+
+        try {
+            return ResponseEntity.ok(exclusao.excluirEmpresas(ids));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.badRequest()
+                    .body("Não foi possível excluir as empresas. Verifique se não há registros dependentes.");
+        }
+    }
+
+    // normaliza o CEP e confere a UF pelo índice local; devolve a mensagem de erro ou null
+    private String aplicarCep(Empresa empresa) {
+        String cep = ServicoCep.normalizar(empresa.getCep());
+        Optional<String> uf = servicoCep.uf(cep);
+        if (uf.isEmpty()) {
+            return "CEP inválido.";
+        }
+        empresa.setCep(cep);
+
+        String estado = empresa.getEstado() == null ? "" : empresa.getEstado().trim();
+        if (!estado.isEmpty() && !estado.equalsIgnoreCase(uf.get())) {
+            return "O CEP " + cep + " é de " + uf.get() + ", mas o estado informado é " + estado.toUpperCase() + ".";
+        }
+        empresa.setEstado(uf.get());
+        return null;
+    }
+
 }
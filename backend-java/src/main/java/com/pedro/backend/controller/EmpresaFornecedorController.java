@@ -1,41 +1,126 @@
 package com.pedro.backend.controller;
 
+import com.pedro.backend.alteracao.RegistroAlteracoes;
+import com.pedro.backend.dto.Alteracao;
+import com.pedro.backend.dto.Alteracao.Operacao;
+import com.pedro.backend.dto.ConsistenciaVinculos;
+import com.pedro.backend.dto.ContagemVinculos;
+import com.pedro.backend.dto.FornecedorListado;
+import com.pedro.backend.dto.FornecedorVinculado;
+import com.pedro.backend.dto.IdsVinculados;
+import com.pedro.backend.dto.Pagina;
+import com.pedro.backend.dto.PaginaCursor;
+import com.pedro.backend.dto.ResultadoVinculoLote;
+import com.pedro.backend.dto.ResultadoVinculoLote.Item;
+import com.pedro.backend.dto.ResultadoVinculoLote.Status;
+import com.pedro.backend.export.ExportadorNdjson;
+import com.pedro.backend.grafo.GrafoVinculos;
+import com.pedro.backend.grafo.IndiceVinculos;
 import com.pedro.backend.model.Empresa;
 import com.pedro.backend.model.EmpresaFornecedor;
 import com.pedro.backend.model.Fornecedor;
-import com.pedro.backend.model.TipoPessoa;
+import com.pedro.backend.regra.RegraParana;
 import com.pedro.backend.repository.EmpresaFornecedorRepository;
 import com.pedro.backend.repository.EmpresaRepository;
 import com.pedro.backend.repository.FornecedorRepository;
+import com.pedro.backend.vinculo.FilaVinculos;
+import com.pedro.backend.vinculo.MontagemTelaVinculos;
+import com.pedro.backend.vinculo.VinculacaoEmLote;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.net.URI;
 import java.time.LocalDate;
-import java.time.Period;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/empresas")
 public class EmpresaFornecedorController {
 
+    // paginação da listagem de fornecedores da empresa
+    private static final int TAMANHO_PADRAO = 100;
+    private static final int TAMANHO_MAXIMO = 500;
+    private static final List<String> ORDENS_PERMITIDAS = List.of("nome", "cpfCnpj", "id");
+    private static final String ORDENACAO_INVALIDA = "Ordenação permitida: " + String.join(", ", ORDENS_PERMITIDAS) + ".";
+
+    // limite de ids por requisição em lote e tamanho de cada consulta IN
+    private static final int MAXIMO_LOTE = 50_000;
+    private static final int TAMANHO_IN = 1000;
+
     private final EmpresaRepository empresaRepository;
     private final FornecedorRepository fornecedorRepository;
     private final EmpresaFornecedorRepository empresaFornecedorRepository;
+    private final ExportadorNdjson exportador;
+    private final IndiceVinculos indiceVinculos;
+    private final RegistroAlteracoes alteracoes;
+    private final VinculacaoEmLote vinculacaoEmLote;
+    private final MontagemTelaVinculos telaVinculos;
+    // null quando vinculos.escrita-agrupada.habilitada=false
+    private final FilaVinculos filaVinculos;
 
     public EmpresaFornecedorController(EmpresaRepository empresaRepository,
                                        FornecedorRepository fornecedorRepository,
-                                       EmpresaFornecedorRepository empresaFornecedorRepository) {
+                                       EmpresaFornecedorRepository empresaFornecedorRepository,
+                                       ExportadorNdjson exportador,
+                                       IndiceVinculos indiceVinculos,
+                                       RegistroAlteracoes alteracoes,
+                                       VinculacaoEmLote vinculacaoEmLote,
+                                       MontagemTelaVinculos telaVinculos,
+                                       ObjectProvider<FilaVinculos> filaVinculos) {
         this.empresaRepository = empresaRepository;
         this.fornecedorRepository = fornecedorRepository;
         this.empresaFornecedorRepository = empresaFornecedorRepository;
+        this.exportador = exportador;
+        this.indiceVinculos = indiceVinculos;
+        this.alteracoes = alteracoes;
+        this.vinculacaoEmLote = vinculacaoEmLote;
+        this.telaVinculos = telaVinculos;
+        this.filaVinculos = filaVinculos.getIfAvailable();
     }
 
+    // VINCULAR: com a escrita agrupada ligada o pedido vai para a fila da empresa e a resposta
+    // sai quando o lote dele for gravado (a thread da requisição fica livre enquanto isso)
     @PostMapping("/{empresaId}/fornecedores/{fornecedorId}")
-    public ResponseEntity<?> vincular(@PathVariable Long empresaId,
-                                      @PathVariable Long fornecedorId) {
+    public CompletableFuture<ResponseEntity<?>> vincular(@PathVariable Long empresaId,
+                                                         @PathVariable Long fornecedorId) {
+        if (filaVinculos == null) {
+            return CompletableFuture.completedFuture(vincularAgora(empresaId, fornecedorId));
+        }
+
+        try {
+            return filaVinculos.vincular(empresaId, fornecedorId)
+                    .<ResponseEntity<?>>thenApply(status -> switch (status) {
+                        case VINCULADO -> ResponseEntity.created(uriVinculo(empresaId, fornecedorId))
+                                .body(new Item(fornecedorId, status));
+                        case JA_VINCULADO, DUPLICADO_NO_LOTE -> ResponseEntity.badRequest()
+                                .body("Esse fornecedor já está vinculado a essa empresa.");
+                        case MENOR_DE_IDADE_PR -> ResponseEntity.badRequest().body(RegraParana.MENSAGEM);
+                        case EMPRESA_NAO_ENCONTRADA, FORNECEDOR_NAO_ENCONTRADO -> ResponseEntity.notFound().build();
+                    })
+                    .exceptionally(e -> ResponseEntity.status(500)
+                            .body("Erro inesperado ao vincular o fornecedor."));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(503)
+                    .body("Muitos vínculos aguardando gravação, tente novamente."));
+        }
+    }
+
+    private ResponseEntity<?> vincularAgora(Long empresaId, Long fornecedorId) {
 
         // 1. Busca empresa
         Empresa empresa = empresaRepository.findById(empresaId).orElse(null);
@@ -51,50 +136,229 @@ public class EmpresaFornecedorController {
 
         // 3. Regra do Paraná:
         // Empresa do PR não pode ter fornecedor PF menor de 18 anos
-        if ("PR".equalsIgnoreCase(empresa.getEstado())
-                && fornecedor.getTipoPessoa() == TipoPessoa.PF
-                && fornecedor.getDataNascimento() != null) {
-
-            int idade = Period.between(
-                    fornecedor.getDataNascimento(),
-                    LocalDate.now()
-            ).getYears();
-
-            if (idade < 18) {
-                return ResponseEntity.badRequest()
-                        .body("Não é permitido vincular fornecedor pessoa física menor de idade a empresa do Paraná.");
-            }
+        if (RegraParana.bloqueia(empresa, fornecedor, LocalDate.now())) {
+            return ResponseEntity.badRequest().body(RegraParana.MENSAGEM);
         }
 
-        // 4. Impede vínculo duplicado
-        if (empresaFornecedorRepository.existsByEmpresaAndFornecedor(empresa, fornecedor)) {
+        // 4. Cria vínculo; duplicado é barrado pela chave única (empresa_id, fornecedor_id)
+        EmpresaFornecedor novo = new EmpresaFornecedor();
+        novo.setEmpresa(empresa);
+        novo.setFornecedor(fornecedor);
+        try {
+            alteracoes.gravar(() -> empresaFornecedorRepository.saveAndFlush(novo),
+                    v -> Alteracao.vinculo(Operacao.CRIADO, empresaId, fornecedorId));
+            indiceVinculos.vinculado(empresaId, fornecedorId);
+        } catch (DataIntegrityViolationException e) {
             return ResponseEntity.badRequest()
                     .body("Esse fornecedor já está vinculado a essa empresa.");
         }
 
-        // 5. Cria vínculo
-        EmpresaFornecedor vinculo = new EmpresaFornecedor();
-        vinculo.setEmpresa(empresa);
-        vinculo.setFornecedor(fornecedor);
-        vinculo = empresaFornecedorRepository.save(vinculo);
+        // mesmo corpo da escrita agrupada: o 201 não depende de vinculos.escrita-agrupada.habilitada
+        return ResponseEntity.created(uriVinculo(empresaId, fornecedorId))
+                .body(new Item(fornecedorId, Status.VINCULADO));
+    }
 
-        URI location = URI.create(
-                String.format("/empresas/%d/fornecedores/%d", empresaId, fornecedorId)
-        );
+    private static URI uriVinculo(Long empresaId, Long fornecedorId) {
+        return URI.create(String.format("/empresas/%d/fornecedores/%d", empresaId, fornecedorId));
+    }
+
+    // VINCULAR EM LOTE: valida tudo com poucas consultas e insere só os pares novos via batch JDBC
+    @Transactional
+    @PostMapping("/{empresaId}/fornecedores:batch")
+    public ResponseEntity<?> vincularEmLote(@PathVariable Long empresaId,
+                                            @RequestBody List<Long> fornecedorIds) {
 
-        return ResponseEntity.created(location).body(vinculo);
+        Empresa empresa = empresaRepository.findById(empresaId).orElse(null);
+        if (empresa == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (fornecedorIds == null || fornecedorIds.isEmpty()) {
+            return ResponseEntity.badRequest().body("Informe ao menos um fornecedor.");
+        }
+        if (fornecedorIds.size() > MAXIMO_LOTE) {
+            return ResponseEntity.badRequest()
+                    .body("Máximo de " + MAXIMO_LOTE + " fornecedores por requisição.");
+        }
+
+        List<Item> itens = vinculacaoEmLote.vincular(empresa, fornecedorIds);
+        return ResponseEntity.ok(ResultadoVinculoLote.de(itens));
+    }
+
+    // EXPORTAR TODOS OS VÍNCULOS (NDJSON em streaming, só ids)
+    @GetMapping(value = "/vinculos/export", produces = ExportadorNdjson.CONTENT_TYPE)
+    public void exportarVinculos(HttpServletResponse response) throws IOException {
+        exportador.exportar(empresaFornecedorRepository::streamVinculos, response);
+    }
+
+    // FORNECEDORES EM COMUM entre duas empresas (grafo em memória, só ids)
+    @GetMapping("/{empresaId}/fornecedores-em-comum/{outraEmpresaId}")
+    public ResponseEntity<?> fornecedoresEmComum(@PathVariable Long empresaId,
+                                                 @PathVariable Long outraEmpresaId) {
+        GrafoVinculos grafo = indiceVinculos.grafo();
+        // sem vínculos no grafo: só aí vale ir ao banco para diferenciar empresa inexistente
+        for (Long id : List.of(empresaId, outraEmpresaId)) {
+            if (grafo.grauEmpresa(id) == 0 && !empresaRepository.existsById(id)) {
+                return ResponseEntity.notFound().build();
+            }
+        }
+        return ResponseEntity.ok(IdsVinculados.de(grafo.fornecedoresEmComum(empresaId, outraEmpresaId)));
     }
 
+    // QUANTIDADE DE VÍNCULOS por empresa e/ou fornecedor (ids sem vínculo contam 0)
+    @GetMapping("/vinculos/contagem")
+    public ResponseEntity<?> contarVinculos(@RequestParam(required = false) List<Long> empresaIds,
+                                            @RequestParam(required = false) List<Long> fornecedorIds) {
+        int pedidos = (empresaIds == null ? 0 : empresaIds.size()) + (fornecedorIds == null ? 0 : fornecedorIds.size());
+        if (pedidos > TAMANHO_IN) {
+            return ResponseEntity.badRequest().body("Máximo de " + TAMANHO_IN + " ids por consulta.");
+        }
+
+        GrafoVinculos grafo = indiceVinculos.grafo();
+        Map<Long, Long> porEmpresa = new LinkedHashMap<>();
+        Map<Long, Long> porFornecedor = new LinkedHashMap<>();
+        if (empresaIds != null) {
+            empresaIds.stream().filter(id -> id != null).forEach(id -> porEmpresa.put(id, grafo.grauEmpresa(id)));
+        }
+        if (fornecedorIds != null) {
+            fornecedorIds.stream().filter(id -> id != null).forEach(id -> porFornecedor.put(id, grafo.grauFornecedor(id)));
+        }
+        return ResponseEntity.ok(new ContagemVinculos(grafo.vinculos(), porEmpresa, porFornecedor));
+    }
+
+    // CONFERE o grafo em memória contra a tabela, sem mexer no grafo
+    @GetMapping("/vinculos/consistencia")
+    public ResponseEntity<ConsistenciaVinculos> verificarVinculos() {
+        return ResponseEntity.ok(indiceVinculos.verificar(false));
+    }
+
+    // CORRIGE: mesma conferência, e se divergir o grafo passa a ser o relido da tabela
+    @PostMapping("/vinculos/consistencia/correcao")
+    public ResponseEntity<ConsistenciaVinculos> corrigirVinculos() {
+        return ResponseEntity.ok(indiceVinculos.verificar(true));
+    }
+
+    // LISTAR FORNECEDORES DA EMPRESA (projeção read-only, paginada e ordenável)
+    @Transactional(readOnly = true)
     @GetMapping("/{empresaId}/fornecedores")
-    public ResponseEntity<List<Fornecedor>> listarFornecedores(@PathVariable Long empresaId) {
+    public ResponseEntity<?> listarFornecedores(@PathVariable Long empresaId,
+                                                @RequestParam(defaultValue = "0") int pagina,
+                                                @RequestParam(defaultValue = "" + TAMANHO_PADRAO) int tamanho,
+                                                @RequestParam(defaultValue = "nome") String ordem,
+                                                @RequestParam(defaultValue = "asc") String direcao,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (!empresaRepository.existsById(empresaId)) {
             return ResponseEntity.notFound().build();
         }
 
-        List<Fornecedor> fornecedores =
-                empresaFornecedorRepository.findFornecedoresByEmpresaId(empresaId);
+        if (!ORDENS_PERMITIDAS.contains(ordem)) {
+            return ResponseEntity.badRequest().body(ORDENACAO_INVALIDA);
+        }
+        Sort.Direction sentido = Sort.Direction.fromOptionalString(direcao).orElse(null);
+        if (sentido == null) {
+            return ResponseEntity.badRequest().body("Direção deve ser asc ou desc.");
+        }
+
+        PageRequest pageRequest = paginaOrdenada(pagina, tamanho, ordem, sentido);
+        Pagina<FornecedorVinculado> resultado = Pagina.de(
+                empresaFornecedorRepository.findFornecedoresByEmpresaId(empresaId, pageRequest));
+
+        // vínculo novo/removido muda o total ou os itens; fornecedor alterado muda a versão
+        String etag = Etags.daLista(resultado.itens(), FornecedorVinculado::id, FornecedorVinculado::versao,
+                resultado.total());
+        if (Etags.confere(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(resultado);
+    }
+
+    // id como desempate para a paginação ser estável quando há nomes repetidos
+    private static PageRequest paginaOrdenada(int pagina, int tamanho, String ordem, Sort.Direction sentido) {
+        Sort sort = Sort.by(sentido, ordem);
+        if (!"id".equals(ordem)) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return PageRequest.of(Math.max(0, pagina), Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO)), sort);
+    }
+
+    // DADOS DA TELA DE VÍNCULOS numa chamada só: opções dos selects, vinculados da empresa
+    // selecionada (página ordenada) e totais, montados em paralelo e guardados por poucos segundos.
+    // buscaFornecedor filtra o select de fornecedores pelo nome (cortado em vinculos.tela.maximo-opcoes)
+    @GetMapping("/vinculos/tela")
+    public ResponseEntity<?> telaVinculos(@RequestParam(required = false) Long empresaId,
+                                          @RequestParam(defaultValue = "0") int pagina,
+                                          @RequestParam(defaultValue = "" + TAMANHO_PADRAO) int tamanho,
+                                          @RequestParam(defaultValue = "nome") String ordem,
+                                          @RequestParam(required = false) String buscaFornecedor) {
+        Empresa empresa = null;
+        if (empresaId != null) {
+            empresa = empresaRepository.findById(empresaId).orElse(null);
+            if (empresa == null) {
+                return ResponseEntity.notFound().build();
+            }
+        }
+        if (!ORDENS_PERMITIDAS.contains(ordem)) {
+            return ResponseEntity.badRequest().body(ORDENACAO_INVALIDA);
+        }
+        String busca = buscaFornecedor == null || buscaFornecedor.isBlank() ? null : buscaFornecedor.trim();
+        return ResponseEntity.ok(telaVinculos.montar(empresa,
+                paginaOrdenada(pagina, tamanho, ordem, Sort.Direction.ASC), busca));
+    }
+
+    // FORNECEDORES QUE A EMPRESA PODE RECEBER (sem vínculo com ela; no PR, sem PF menor de idade)
+    @GetMapping("/{empresaId}/fornecedores-elegiveis")
+    public ResponseEntity<?> fornecedoresElegiveis(@PathVariable Long empresaId,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "" + TAMANHO_PADRAO) int tamanho) {
+        Empresa empresa = empresaRepository.findById(empresaId).orElse(null);
+        if (empresa == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        long depoisDe;
+        try {
+            depoisDe = PaginaCursor.decodificar(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Cursor inválido.");
+        }
+
+        // uma linha a mais só para saber se existe próxima página
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO));
+        List<FornecedorListado> lidos = RegraParana.seAplica(empresa)
+                ? fornecedorRepository.buscarElegiveisSemMenores(empresaId, LocalDate.now(), depoisDe, Limit.of(limite + 1))
+                : fornecedorRepository.buscarElegiveis(empresaId, depoisDe, Limit.of(limite + 1));
+        return ResponseEntity.ok(PaginaCursor.de(lidos, limite, FornecedorListado::id));
+    }
+
+    // FORNECEDORES BARRADOS PELA REGRA DO PARANÁ (PF menores de idade; vazio fora do PR),
+    // na ordem do dia em que fazem 18 anos: o cursor guarda essa data e o id
+    @GetMapping("/{empresaId}/fornecedores-bloqueados")
+    public ResponseEntity<?> fornecedoresBloqueados(@PathVariable Long empresaId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "" + TAMANHO_PADRAO) int tamanho) {
+        Empresa empresa = empresaRepository.findById(empresaId).orElse(null);
+        if (empresa == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        PaginaCursor.DataEId depoisDe;
+        try {
+            depoisDe = PaginaCursor.decodificarDataEId(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Cursor inválido.");
+        }
+        if (!RegraParana.seAplica(empresa)) {
+            return ResponseEntity.ok(new PaginaCursor<FornecedorListado>(List.of(), null));
+        }
 
-        return ResponseEntity.ok(fornecedores);
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO));
+        LocalDate hoje = LocalDate.now();
+        List<FornecedorListado> lidos = depoisDe == null
+                ? fornecedorRepository.buscarMenores(hoje, Limit.of(limite + 1))
+                : fornecedorRepository.buscarMenoresDepoisDe(hoje, depoisDe.data(), depoisDe.id(), Limit.of(limite + 1));
+        // a data do cursor é a mesma que está gravada em data_maioridade
+        return ResponseEntity.ok(PaginaCursor.dePosicao(lidos, limite, f -> PaginaCursor.codificar(
+                Fornecedor.calcularMaioridade(f.tipoPessoa(), f.dataNascimento()), f.id())));
     }
 
     // 👉 NOVO: DESVINCULAR fornecedor de empresa
@@ -118,15 +382,16 @@ public class EmpresaFornecedorController {
                     .body("Vínculo entre essa empresa e fornecedor não existe.");
         }
 
+        // exclusão e linha do feed na mesma transação: qualquer outra falha sobe e desfaz as duas
         try {
             empresaFornecedorRepository.deleteByEmpresaAndFornecedor(empresa, fornecedor);
-            return ResponseEntity.noContent().build();
+            alteracoes.registrar(List.of(Alteracao.vinculo(Operacao.EXCLUIDO, empresaId, fornecedorId)));
         } catch (DataIntegrityViolationException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.badRequest()
                     .body("Não foi possível desvincular o fornecedor desta empresa.");
-        } catch (Exception e) {
-            return ResponseEntity.status(500)
-                    .body("Erro inesperado ao desvincular o fornecedor.");
         }
+        indiceVinculos.desvinculado(empresaId, fornecedorId);
+        return ResponseEntity.noContent().build();
     }
 }
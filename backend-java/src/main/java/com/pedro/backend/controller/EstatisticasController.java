@@ -0,0 +1,33 @@
+package com.pedro.backend.controller;
+
+import com.pedro.backend.dto.EstatisticasCadastro;
+import com.pedro.backend.estatistica.ContadoresCadastro;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/estatisticas")
+public class EstatisticasController {
+
+    private final ContadoresCadastro contadores;
+
+    public EstatisticasController(ContadoresCadastro contadores) {
+        this.contadores = contadores;
+    }
+
+    // números dos painéis, lidos dos contadores em memória (não consulta o banco)
+    @GetMapping
+    public ResponseEntity<EstatisticasCadastro> estatisticas() {
+        return ResponseEntity.ok(contadores.ler());
+    }
+
+    // recontagem no banco, para depois de cargas feitas direto por SQL
+    @PostMapping("/recontagem")
+    public ResponseEntity<EstatisticasCadastro> recontar() {
+        contadores.recontar();
+        return ResponseEntity.ok(contadores.ler());
+    }
+}
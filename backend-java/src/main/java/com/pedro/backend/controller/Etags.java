@@ -0,0 +1,78 @@
+package com.pedro.backend.controller;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * ETags das leituras e pré-condições das escritas.
+ * Registro único: a própria versão (@Version). Listagem: hash de (id, versão) dos itens da página
+ * mais o que muda a forma da resposta (cursor, total) — calculado sem serializar nada.
+ * O ETag de listagem é fraco (W/): o mesmo conteúdo sai em gzip ou sem compressão, com bytes
+ * diferentes, e o Tomcat não comprime resposta com ETag forte.
+ */
+final class Etags {
+
+    private Etags() {}
+
+    static String daVersao(Long versao) {
+        return "\"" + versao + "\"";
+    }
+
+    static <T> String daLista(List<T> itens, ToLongFunction<T> id, ToLongFunction<T> versao, long... extras) {
+        long hash = 0xcbf29ce484222325L;
+        for (T item : itens) {
+            hash = misturar(hash, id.applyAsLong(item));
+            hash = misturar(hash, versao.applyAsLong(item));
+        }
+        hash = misturar(hash, itens.size());
+        for (long extra : extras) {
+            hash = misturar(hash, extra);
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    // If-None-Match: lista separada por vírgula, "*" casa com qualquer um, comparação fraca (W/ é ignorado)
+    static boolean confere(String cabecalho, String etag) {
+        return casa(cabecalho, etag, true);
+    }
+
+    // If-Match presente que não bate com a versão atual: alguém gravou depois da leitura do cliente.
+    // Comparação forte: ETag fraca não garante a mesma versão, então nunca passa
+    static boolean desatualizado(String ifMatch, Long versao) {
+        return ifMatch != null && !casa(ifMatch, daVersao(versao), false);
+    }
+
+    private static boolean casa(String cabecalho, String etag, boolean fraca) {
+        if (cabecalho == null) {
+            return false;
+        }
+        String esperado = fraca ? semFraco(etag) : etag;
+        for (String candidato : cabecalho.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*")) {
+                return true;
+            }
+            if (fraca) {
+                valor = semFraco(valor);
+            } else if (valor.startsWith("W/")) {
+                continue;
+            }
+            if (valor.equals(esperado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String semFraco(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    // multiplica e espalha os bits (mesmos passos do finalizador do SplitMix64)
+    private static long misturar(long hash, long valor) {
+        long z = (hash ^ valor) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,14 +1,34 @@
 package com.pedro.backend.controller;
 
+import com.pedro.backend.alteracao.RegistroAlteracoes;
+import com.pedro.backend.busca.IndiceFornecedores;
+import com.pedro.backend.cep.ServicoCep;
+import com.pedro.backend.dto.Alteracao;
+import com.pedro.backend.dto.Alteracao.Operacao;
+import com.pedro.backend.dto.FornecedorListado;
+import com.pedro.backend.dto.IdsVinculados;
+import com.pedro.backend.dto.PaginaCursor;
+import com.pedro.backend.dto.PerfilFornecedor;
+import com.pedro.backend.estatistica.ContadoresCadastro;
+import com.pedro.backend.exclusao.ExclusaoEmCascata;
+import com.pedro.backend.export.ExportadorNdjson;
+import com.pedro.backend.grafo.IndiceVinculos;
+import com.pedro.backend.importacao.ImportadorFornecedores;
 import com.pedro.backend.model.Fornecedor;
 import com.pedro.backend.model.TipoPessoa;
-import com.pedro.backend.repository.EmpresaFornecedorRepository;
+import com.pedro.backend.regra.RegraPessoaFisica;
 import com.pedro.backend.repository.FornecedorRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
@@ -18,28 +38,136 @@ import java.util.Optional;
 @RequestMapping("/fornecedores")
 public class FornecedorController {
 
+    // tamanho de página padrão e máximo da listagem
+    private static final int TAMANHO_PADRAO = 50;
+    private static final int TAMANHO_MAXIMO = 500;
+
+    // resultados da busca textual
+    private static final int LIMITE_BUSCA_PADRAO = 20;
+    private static final int LIMITE_BUSCA_MAXIMO = 100;
+
     private final FornecedorRepository fornecedorRepository;
-    private final EmpresaFornecedorRepository empresaFornecedorRepository;
+    private final ExclusaoEmCascata exclusao;
+    private final ExportadorNdjson exportador;
+    private final ImportadorFornecedores importador;
+    private final ServicoCep servicoCep;
+    private final IndiceFornecedores indiceFornecedores;
+    private final IndiceVinculos indiceVinculos;
+    private final ContadoresCadastro contadores;
+    private final RegistroAlteracoes alteracoes;
 
     public FornecedorController(FornecedorRepository fornecedorRepository,
-                                EmpresaFornecedorRepository empresaFornecedorRepository) {
+                                ExclusaoEmCascata exclusao,
+                                ExportadorNdjson exportador,
+                                ImportadorFornecedores importador,
+                                ServicoCep servicoCep,
+                                IndiceFornecedores indiceFornecedores,
+                                IndiceVinculos indiceVinculos,
+                                ContadoresCadastro contadores,
+                                RegistroAlteracoes alteracoes) {
         this.fornecedorRepository = fornecedorRepository;
-        this.empresaFornecedorRepository = empresaFornecedorRepository;
+        this.exclusao = exclusao;
+        this.exportador = exportador;
+        this.importador = importador;
+        this.servicoCep = servicoCep;
+        this.indiceFornecedores = indiceFornecedores;
+        this.indiceVinculos = indiceVinculos;
+        this.contadores = contadores;
+        this.alteracoes = alteracoes;
     }
 
-    // LISTAR TODOS
+    // LISTAR (paginado por cursor, filtros aplicados no banco)
     @GetMapping
-    public ResponseEntity<List<Fornecedor>> listar() {
-        List<Fornecedor> fornecedores = fornecedorRepository.findAll();
-        return ResponseEntity.ok(fornecedores);
+    public ResponseEntity<?> listar(@RequestParam(required = false) String cursor,
+                                    @RequestParam(defaultValue = "" + TAMANHO_PADRAO) int tamanho,
+                                    @RequestParam(required = false) String nome,
+                                    @RequestParam(defaultValue = "false") boolean nomePorPrefixo,
+                                    @RequestParam(required = false) String cpfCnpj,
+                                    @RequestParam(required = false) TipoPessoa tipoPessoa,
+                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        long depoisDe;
+        try {
+            depoisDe = PaginaCursor.decodificar(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Cursor inválido.");
+        }
+
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO));
+
+        // pede uma linha a mais só para saber se existe próxima página
+        // nome: trecho em qualquer posição, ou só o começo (usa o índice de nome); CPF/CNPJ: começo
+        String padraoNome = FornecedorRepository.padraoLike(semBrancos(nome), !nomePorPrefixo);
+        List<FornecedorListado> lidos = fornecedorRepository.buscarPagina(
+                depoisDe, padraoNome, FornecedorRepository.padraoLike(semBrancos(cpfCnpj), false), tipoPessoa, Limit.of(limite + 1));
+
+        PaginaCursor<FornecedorListado> pagina = PaginaCursor.de(lidos, limite, FornecedorListado::id);
+        String etag = Etags.daLista(pagina.itens(), FornecedorListado::id, FornecedorListado::versao,
+                pagina.proximoCursor() == null ? 0 : 1);
+        if (Etags.confere(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(pagina);
+    }
+
+    // BUSCA TEXTUAL (nome, e-mail e CPF/CNPJ; sem acento, por prefixo e tolerante a erro de digitação)
+    @GetMapping("/busca")
+    public ResponseEntity<?> buscarTexto(@RequestParam String q,
+                                         @RequestParam(defaultValue = "" + LIMITE_BUSCA_PADRAO) int limite) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body("Informe o texto da busca.");
+        }
+        if (!indiceFornecedores.pronto()) {
+            return ResponseEntity.status(503).body("Índice de busca ainda carregando, tente novamente.");
+        }
+        int maximo = Math.max(1, Math.min(limite, LIMITE_BUSCA_MAXIMO));
+        return ResponseEntity.ok(indiceFornecedores.buscar(q, maximo));
+    }
+
+    // EXPORTAR TODOS (NDJSON em streaming)
+    @GetMapping(value = "/export", produces = ExportadorNdjson.CONTENT_TYPE)
+    public void exportar(HttpServletResponse response) throws IOException {
+        exportador.exportar(fornecedorRepository::streamTodos, response);
+    }
+
+    // IMPORTAR EM MASSA (CSV ou NDJSON lido em streaming, gravado em lotes)
+    @PostMapping(value = "/import", consumes = {"text/csv", ExportadorNdjson.CONTENT_TYPE})
+    public ResponseEntity<?> importar(@RequestParam(required = false) Integer lote,
+                                      HttpServletRequest request) throws IOException {
+        ImportadorFornecedores.Formato formato = request.getContentType().startsWith("text/csv")
+                ? ImportadorFornecedores.Formato.CSV
+                : ImportadorFornecedores.Formato.NDJSON;
+        try {
+            return ResponseEntity.ok(importador.importar(request.getInputStream(), formato, lote));
+        } catch (IllegalArgumentException e) {
+            // cabeçalho CSV ausente
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // BUSCAR POR ID
     @GetMapping("/{id}")
-    public ResponseEntity<Fornecedor> buscar(@PathVariable Long id) {
-        return fornecedorRepository.findById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Fornecedor> buscar(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<Fornecedor> opt = fornecedorRepository.findById(id);
+        if (opt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = Etags.daVersao(opt.get().getVersao());
+        if (Etags.confere(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(opt.get());
+    }
+
+    // EMPRESAS DO FORNECEDOR (grafo de vínculos em memória, só ids)
+    @GetMapping("/{id}/empresas")
+    public ResponseEntity<?> empresas(@PathVariable Long id) {
+        long[] empresas = indiceVinculos.grafo().empresasDe(id);
+        if (empresas.length == 0 && !fornecedorRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(IdsVinculados.de(empresas));
     }
 
     // CRIAR
@@ -47,18 +175,21 @@ public class FornecedorController {
     public ResponseEntity<?> criar(@RequestBody Fornecedor fornecedor) {
 
         // regra: se PF precisa RG e dataNascimento
-        if (fornecedor.getTipoPessoa() == TipoPessoa.PF) {
-            if (fornecedor.getRg() == null || fornecedor.getRg().isBlank()
-                    || fornecedor.getDataNascimento() == null) {
-                return ResponseEntity.badRequest()
-                        .body("Para pessoa física é obrigatório informar RG e data de nascimento.");
-            }
+        if (RegraPessoaFisica.faltaDocumento(fornecedor.getTipoPessoa(),
+                fornecedor.getRg(), fornecedor.getDataNascimento())) {
+            return ResponseEntity.badRequest().body(RegraPessoaFisica.MENSAGEM);
         }
 
         if (fornecedor.getCpfCnpj() != null) {
             fornecedor.setCpfCnpj(fornecedor.getCpfCnpj().trim());
         }
 
+        // CEP precisa existir em alguma faixa (índice local, sem I/O)
+        if (servicoCep.uf(fornecedor.getCep()).isEmpty()) {
+            return ResponseEntity.badRequest().body("CEP inválido.");
+        }
+        fornecedor.setCep(ServicoCep.normalizar(fornecedor.getCep()));
+
         // CPF/CNPJ duplicado
         if (fornecedor.getCpfCnpj() != null && !fornecedor.getCpfCnpj().isEmpty()) {
             if (fornecedorRepository.existsByCpfCnpj(fornecedor.getCpfCnpj())) {
@@ -68,9 +199,13 @@ public class FornecedorController {
         }
 
         try {
-            Fornecedor salvo = fornecedorRepository.save(fornecedor);
+            Fornecedor salvo = alteracoes.gravar(() -> fornecedorRepository.saveAndFlush(fornecedor),
+                    s -> Alteracao.fornecedor(Operacao.CRIADO, s.getId()));
+            indiceFornecedores.indexar(salvo);
+            contadores.fornecedorCriado(PerfilFornecedor.de(salvo));
             return ResponseEntity
                     .created(URI.create("/fornecedores/" + salvo.getId()))
+                    .eTag(Etags.daVersao(salvo.getVersao()))
                     .body(salvo);
         } catch (DataIntegrityViolationException e) {
             return ResponseEntity.badRequest()
@@ -81,7 +216,8 @@ public class FornecedorController {
     // ATUALIZAR
     @PutMapping("/{id}")
     public ResponseEntity<?> atualizar(@PathVariable Long id,
-                                       @RequestBody Fornecedor dados) {
+                                       @RequestBody Fornecedor dados,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         Optional<Fornecedor> opt = fornecedorRepository.findById(id);
         if (opt.isEmpty()) {
@@ -89,16 +225,22 @@ public class FornecedorController {
         }
 
         Fornecedor existente = opt.get();
+        Long versaoAntes = existente.getVersao();
+
+        // If-Match com versão antiga: o cliente editou em cima de dados que já mudaram
+        if (Etags.desatualizado(ifMatch, existente.getVersao())) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .eTag(Etags.daVersao(existente.getVersao()))
+                    .body("O fornecedor foi alterado por outra pessoa. Recarregue antes de salvar.");
+        }
+        PerfilFornecedor perfilAntes = PerfilFornecedor.de(existente);
 
         // regra PF: se for PF depois da alteração, RG e data nascimento obrigatórios
         TipoPessoa novoTipo = dados.getTipoPessoa() != null ? dados.getTipoPessoa() : existente.getTipoPessoa();
-        if (novoTipo == TipoPessoa.PF) {
-            String rg = dados.getRg() != null ? dados.getRg() : existente.getRg();
-            LocalDate nasc = dados.getDataNascimento() != null ? dados.getDataNascimento() : existente.getDataNascimento();
-            if (rg == null || rg.isBlank() || nasc == null) {
-                return ResponseEntity.badRequest()
-                        .body("Para pessoa física é obrigatório informar RG e data de nascimento.");
-            }
+        String rg = dados.getRg() != null ? dados.getRg() : existente.getRg();
+        LocalDate nasc = dados.getDataNascimento() != null ? dados.getDataNascimento() : existente.getDataNascimento();
+        if (RegraPessoaFisica.faltaDocumento(novoTipo, rg, nasc)) {
+            return ResponseEntity.badRequest().body(RegraPessoaFisica.MENSAGEM);
         }
 
         // CPF/CNPJ
@@ -126,40 +268,42 @@ public class FornecedorController {
             existente.setDataNascimento(dados.getDataNascimento());
         }
         if (dados.getCep() != null) {
-            existente.setCep(dados.getCep());
+            if (servicoCep.uf(dados.getCep()).isEmpty()) {
+                return ResponseEntity.badRequest().body("CEP inválido.");
+            }
+            existente.setCep(ServicoCep.normalizar(dados.getCep()));
         }
         if (dados.getTipoPessoa() != null) {
             existente.setTipoPessoa(dados.getTipoPessoa());
         }
 
         try {
-            Fornecedor salvo = fornecedorRepository.save(existente);
-            return ResponseEntity.ok(salvo);
+            // PUT sem mudança não incrementa a versão nem vai para o feed
+            Fornecedor salvo = alteracoes.gravar(() -> fornecedorRepository.saveAndFlush(existente),
+                    s -> s.getVersao().equals(versaoAntes) ? null : Alteracao.fornecedor(Operacao.ALTERADO, s.getId()));
+            indiceFornecedores.indexar(salvo);
+            contadores.fornecedorAlterado(perfilAntes, PerfilFornecedor.de(salvo));
+            return ResponseEntity.ok().eTag(Etags.daVersao(salvo.getVersao())).body(salvo);
+        } catch (OptimisticLockingFailureException e) {
+            // outra requisição gravou entre a leitura e o UPDATE (a versão no WHERE não bateu)
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("O fornecedor foi alterado por outra pessoa. Recarregue antes de salvar.");
         } catch (DataIntegrityViolationException e) {
             return ResponseEntity.badRequest()
                     .body("Não foi possível atualizar o fornecedor. Verifique os dados enviados.");
         }
     }
 
-    // EXCLUIR (desvinculando antes)
-    @Transactional
+    // EXCLUIR (vínculos e fornecedor saem com DELETEs em massa, sem carregar nada)
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deletar(@PathVariable Long id) {
 
-        Optional<Fornecedor> opt = fornecedorRepository.findById(id);
-        if (opt.isEmpty()) {
+        if (!fornecedorRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
 
-        Fornecedor fornecedor = opt.get();
-
         try {
-            // remove todos os vínculos desse fornecedor
-            empresaFornecedorRepository.deleteAllByFornecedor(fornecedor);
-
-            // agora exclui o fornecedor
-            fornecedorRepository.delete(fornecedor);
-
+            exclusao.excluirFornecedores(List.of(id));
             return ResponseEntity.noContent().build();
 
         } catch (DataIntegrityViolationException e) {
@@ -170,4 +314,28 @@ public class FornecedorController {
                     .body("Erro inesperado ao excluir o fornecedor.");
         }
     }
+
+    // EXCLUIR EM LOTE: corpo com a lista de ids; ids inexistentes voltam em naoEncontrados
+    @PostMapping("/exclusao-em-lote")
+    public ResponseEntity<?> deletarEmLote(@RequestBody List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return ResponseEntity.badRequest().body("Informe ao menos um fornecedor.");
+        }
+        if (ids.size() > ExclusaoEmCascata.MAXIMO_IDS) {
+            return ResponseEntity.badRequest()
+                    .body("Máximo de " + ExclusaoEmCascata.MAXIMO_IDS + " fornecedores por requisição.");
+        }
+
+        try {
+            return ResponseEntity.ok(exclusao.excluirFornecedores(ids));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.badRequest()
+                    .body("Não foi possível excluir os fornecedores. Verifique se não há registros dependentes.");
+        }
+    }
+
+    // filtro vazio na query string conta como "sem filtro"
+    private static String semBrancos(String valor) {
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
 }
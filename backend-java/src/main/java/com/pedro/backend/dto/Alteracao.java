@@ -0,0 +1,37 @@
+package com.pedro.backend.dto;
+
+import java.time.Instant;
+
+/**
+ * Uma linha do feed de alterações.
+ * Em VINCULO o {@code id} é a empresa e o {@code relacionadoId} o fornecedor; nos demais vem nulo.
+ * Excluir empresa/fornecedor também remove os vínculos dele, sem um evento por vínculo.
+ */
+public record Alteracao(long seq, Entidade entidade, Operacao operacao, long id, Long relacionadoId,
+                        Instant ocorridoEm) {
+
+    public enum Entidade {
+        EMPRESA,
+        FORNECEDOR,
+        VINCULO
+    }
+
+    public enum Operacao {
+        CRIADO,
+        ALTERADO,
+        EXCLUIDO
+    }
+
+    // ainda não gravada: seq e horário saem do registro
+    public static Alteracao empresa(Operacao operacao, long id) {
+        return new Alteracao(0, Entidade.EMPRESA, operacao, id, null, null);
+    }
+
+    public static Alteracao fornecedor(Operacao operacao, long id) {
+        return new Alteracao(0, Entidade.FORNECEDOR, operacao, id, null, null);
+    }
+
+    public static Alteracao vinculo(Operacao operacao, long empresaId, long fornecedorId) {
+        return new Alteracao(0, Entidade.VINCULO, operacao, empresaId, fornecedorId, null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.pedro.backend.dto;
+
+import java.util.List;
+
+/**
+ * Resultado da conferência do grafo de vínculos em memória contra a tabela empresas_fornecedores.
+ * empresasDivergentes traz no máximo algumas dezenas de ids, só para investigação.
+ */
+public record ConsistenciaVinculos(boolean consistente,
+                                   long vinculosBanco,
+                                   long vinculosGrafo,
+                                   long faltandoNoGrafo,
+                                   long sobrandoNoGrafo,
+                                   List<Long> empresasDivergentes) {
+}
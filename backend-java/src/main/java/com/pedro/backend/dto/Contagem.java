@@ -0,0 +1,7 @@
+package com.pedro.backend.dto;
+
+/**
+ * Linha de um GROUP BY: valor agrupado (estado, tipo, CEP, data...) e quantos registros têm esse valor.
+ */
+public record Contagem(Object chave, Long quantidade) {
+}
@@ -0,0 +1,9 @@
+package com.pedro.backend.dto;
+
+import java.util.Map;
+
+/**
+ * Quantidade de vínculos por empresa e por fornecedor pedidos, mais o total geral.
+ */
+public record ContagemVinculos(long totalVinculos, Map<Long, Long> porEmpresa, Map<Long, Long> porFornecedor) {
+}
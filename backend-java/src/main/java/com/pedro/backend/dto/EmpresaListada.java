@@ -0,0 +1,38 @@
+package com.pedro.backend.dto;
+
+import com.pedro.backend.json.CamposJson;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Empresa como sai na listagem e no export: as mesmas colunas do JSON da entidade, lidas por
+ * projeção e escritas campo a campo pelo {@link Escritor}.
+ */
+@JsonSerialize(using = EmpresaListada.Escritor.class)
+public record EmpresaListada(Long id, String cnpj, String nomeFantasia, String cep, String estado, Long versao) {
+
+    public static final class Escritor extends ValueSerializer<EmpresaListada> {
+
+        private static final SerializableString ID = CamposJson.nome("id");
+        private static final SerializableString CNPJ = CamposJson.nome("cnpj");
+        private static final SerializableString NOME_FANTASIA = CamposJson.nome("nomeFantasia");
+        private static final SerializableString CEP = CamposJson.nome("cep");
+        private static final SerializableString ESTADO = CamposJson.nome("estado");
+        private static final SerializableString VERSAO = CamposJson.nome("versao");
+
+        @Override
+        public void serialize(EmpresaListada e, JsonGenerator gen, SerializationContext ctxt) {
+            gen.writeStartObject(e, 6);
+            CamposJson.numero(gen, ID, e.id());
+            CamposJson.texto(gen, CNPJ, e.cnpj());
+            CamposJson.texto(gen, NOME_FANTASIA, e.nomeFantasia());
+            CamposJson.texto(gen, CEP, e.cep());
+            CamposJson.texto(gen, ESTADO, e.estado());
+            CamposJson.numero(gen, VERSAO, e.versao());
+            gen.writeEndObject();
+        }
+    }
+}
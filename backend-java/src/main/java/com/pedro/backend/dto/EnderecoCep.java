@@ -0,0 +1,8 @@
+package com.pedro.backend.dto;
+
+/**
+ * Resultado da consulta de um CEP. {@code fonte} indica de onde veio:
+ * REMOTO (API externa, com localidade e bairro) ou LOCAL (só a UF, pelo índice de faixas).
+ */
+public record EnderecoCep(String cep, String uf, String localidade, String bairro, String fonte) {
+}
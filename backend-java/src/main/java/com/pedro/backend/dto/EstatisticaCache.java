@@ -0,0 +1,13 @@
+package com.pedro.backend.dto;
+
+/**
+ * Contadores de uma região do cache de segundo nível, desde a subida da aplicação.
+ */
+public record EstatisticaCache(String regiao,
+                               long hits,
+                               long misses,
+                               float percentualHits,
+                               long puts,
+                               long remocoes,
+                               long evictions) {
+}
@@ -0,0 +1,22 @@
+package com.pedro.backend.dto;
+
+import com.pedro.backend.model.TipoPessoa;
+
+import java.util.Map;
+
+/**
+ * Números do cadastro para os painéis, mantidos em contadores (nenhuma leitura varre as tabelas).
+ * empresasPorFaixaDeFornecedores conta só empresas com ao menos um fornecedor; as demais
+ * estão em empresasSemFornecedor.
+ */
+public record EstatisticasCadastro(long empresas,
+                                   long fornecedores,
+                                   long vinculos,
+                                   double mediaFornecedoresPorEmpresa,
+                                   long empresasSemFornecedor,
+                                   Map<String, Long> empresasPorFaixaDeFornecedores,
+                                   Map<String, Long> empresasPorUf,
+                                   Map<TipoPessoa, Long> fornecedoresPorTipo,
+                                   Map<String, Long> fornecedoresPorUf,
+                                   long fornecedoresMenoresDeIdade) {
+}
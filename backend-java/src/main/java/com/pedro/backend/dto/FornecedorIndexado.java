@@ -0,0 +1,7 @@
+package com.pedro.backend.dto;
+
+/**
+ * Colunas de um fornecedor que entram no índice de busca (carga inicial, sem entidade gerenciada).
+ */
+public record FornecedorIndexado(Long id, String nome, String cpfCnpj, String email) {
+}
@@ -0,0 +1,49 @@
+package com.pedro.backend.dto;
+
+import com.pedro.backend.json.CamposJson;
+import com.pedro.backend.model.TipoPessoa;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDate;
+
+/**
+ * Fornecedor como sai na listagem e no export: as mesmas colunas do JSON da entidade, lidas por
+ * projeção (sem entidade gerenciada, sem passar pelo cache de segundo nível) e escritas campo a
+ * campo pelo {@link Escritor}.
+ */
+@JsonSerialize(using = FornecedorListado.Escritor.class)
+public record FornecedorListado(Long id, String nome, String cpfCnpj, String email, String rg,
+                                LocalDate dataNascimento, String cep, TipoPessoa tipoPessoa, Long versao) {
+
+    public static final class Escritor extends ValueSerializer<FornecedorListado> {
+
+        private static final SerializableString ID = CamposJson.nome("id");
+        private static final SerializableString NOME = CamposJson.nome("nome");
+        private static final SerializableString CPF_CNPJ = CamposJson.nome("cpfCnpj");
+        private static final SerializableString EMAIL = CamposJson.nome("email");
+        private static final SerializableString RG = CamposJson.nome("rg");
+        private static final SerializableString DATA_NASCIMENTO = CamposJson.nome("dataNascimento");
+        private static final SerializableString CEP = CamposJson.nome("cep");
+        private static final SerializableString TIPO_PESSOA = CamposJson.nome("tipoPessoa");
+        private static final SerializableString VERSAO = CamposJson.nome("versao");
+
+        @Override
+        public void serialize(FornecedorListado f, JsonGenerator gen, SerializationContext ctxt) {
+            gen.writeStartObject(f, 9);
+            CamposJson.numero(gen, ID, f.id());
+            CamposJson.texto(gen, NOME, f.nome());
+            CamposJson.texto(gen, CPF_CNPJ, f.cpfCnpj());
+            CamposJson.texto(gen, EMAIL, f.email());
+            CamposJson.texto(gen, RG, f.rg());
+            CamposJson.data(gen, DATA_NASCIMENTO, f.dataNascimento());
+            CamposJson.texto(gen, CEP, f.cep());
+            CamposJson.tipoPessoa(gen, TIPO_PESSOA, f.tipoPessoa());
+            CamposJson.numero(gen, VERSAO, f.versao());
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.pedro.backend.dto;
+
+import com.pedro.backend.json.CamposJson;
+import com.pedro.backend.model.TipoPessoa;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Fornecedor como aparece na tela de vínculos: só as colunas exibidas, sem entidade gerenciada.
+ * A versão entra para o ETag da página mudar quando um fornecedor listado for alterado.
+ */
+@JsonSerialize(using = FornecedorVinculado.Escritor.class)
+public record FornecedorVinculado(Long id, String nome, String cpfCnpj, String email, TipoPessoa tipoPessoa,
+                                 Long versao) {
+
+    public static final class Escritor extends ValueSerializer<FornecedorVinculado> {
+
+        private static final SerializableString ID = CamposJson.nome("id");
+        private static final SerializableString NOME = CamposJson.nome("nome");
+        private static final SerializableString CPF_CNPJ = CamposJson.nome("cpfCnpj");
+        private static final SerializableString EMAIL = CamposJson.nome("email");
+        private static final SerializableString TIPO_PESSOA = CamposJson.nome("tipoPessoa");
+        private static final SerializableString VERSAO = CamposJson.nome("versao");
+
+        @Override
+        public void serialize(FornecedorVinculado f, JsonGenerator gen, SerializationContext ctxt) {
+            gen.writeStartObject(f, 6);
+            CamposJson.numero(gen, ID, f.id());
+            CamposJson.texto(gen, NOME, f.nome());
+            CamposJson.texto(gen, CPF_CNPJ, f.cpfCnpj());
+            CamposJson.texto(gen, EMAIL, f.email());
+            CamposJson.tipoPessoa(gen, TIPO_PESSOA, f.tipoPessoa());
+            CamposJson.numero(gen, VERSAO, f.versao());
+            gen.writeEndObject();
+        }
+    }
+}
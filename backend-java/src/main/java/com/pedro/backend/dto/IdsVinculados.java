@@ -0,0 +1,11 @@
+package com.pedro.backend.dto;
+
+/**
+ * Ids do outro lado do vínculo (empresas de um fornecedor, fornecedores em comum...), em ordem crescente.
+ */
+public record IdsVinculados(int total, long[] ids) {
+
+    public static IdsVinculados de(long[] ids) {
+        return new IdsVinculados(ids.length, ids);
+    }
+}
@@ -0,0 +1,10 @@
+package com.pedro.backend.dto;
+
+import java.util.List;
+
+/**
+ * Resposta do feed: alterações em ordem de seq. O cliente manda {@code proximo} como
+ * {@code desde} na chamada seguinte; {@code temMais} indica que já existe outro lote pronto.
+ */
+public record LoteAlteracoes(List<Alteracao> alteracoes, long proximo, boolean temMais) {
+}
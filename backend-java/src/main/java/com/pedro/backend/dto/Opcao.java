@@ -0,0 +1,29 @@
+package com.pedro.backend.dto;
+
+import com.pedro.backend.json.CamposJson;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Item de um select: id e o texto exibido (nome fantasia da empresa, nome do fornecedor).
+ */
+@JsonSerialize(using = Opcao.Escritor.class)
+public record Opcao(Long id, String rotulo) {
+
+    public static final class Escritor extends ValueSerializer<Opcao> {
+
+        private static final SerializableString ID = CamposJson.nome("id");
+        private static final SerializableString ROTULO = CamposJson.nome("rotulo");
+
+        @Override
+        public void serialize(Opcao o, JsonGenerator gen, SerializationContext ctxt) {
+            gen.writeStartObject(o, 2);
+            CamposJson.numero(gen, ID, o.id());
+            CamposJson.texto(gen, ROTULO, o.rotulo());
+            gen.writeEndObject();
+        }
+    }
+}
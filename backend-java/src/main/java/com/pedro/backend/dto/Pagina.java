@@ -0,0 +1,15 @@
+package com.pedro.backend.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem paginada por número de página (quando a ordenação não é pelo id).
+ */
+public record Pagina<T>(List<T> itens, int pagina, int tamanho, long total) {
+
+    public static <T> Pagina<T> de(Page<T> page) {
+        return new Pagina<>(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements());
+    }
+}
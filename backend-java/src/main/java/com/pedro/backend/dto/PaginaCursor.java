@@ -0,0 +1,75 @@
+package com.pedro.backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Página de uma listagem paginada por cursor (keyset no id, ou em data + id quando a ordem é
+ * por uma coluna de data).
+ * O cliente devolve o {@code proximoCursor} na próxima chamada; quando vem nulo, acabou.
+ */
+public record PaginaCursor<T>(List<T> itens, String proximoCursor) {
+
+    /** posição de um cursor ordenado por (data, id) */
+    public record DataEId(LocalDate data, long id) {}
+
+    // a consulta sempre pede tamanho + 1 linhas: se vier a linha extra, existe próxima página
+    public static <T> PaginaCursor<T> de(List<T> lidos, int tamanho, ToLongFunction<T> id) {
+        return dePosicao(lidos, tamanho, item -> codificar(id.applyAsLong(item)));
+    }
+
+    // cursor: codificado a partir da última linha da página
+    public static <T> PaginaCursor<T> dePosicao(List<T> lidos, int tamanho, Function<T, String> cursor) {
+        if (lidos.size() <= tamanho) {
+            return new PaginaCursor<>(lidos, null);
+        }
+        List<T> itens = lidos.subList(0, tamanho);
+        return new PaginaCursor<>(itens, cursor.apply(itens.get(tamanho - 1)));
+    }
+
+    public static String codificar(long ultimoId) {
+        return base64(Long.toString(ultimoId));
+    }
+
+    public static String codificar(LocalDate data, long id) {
+        return base64(data + "," + id);
+    }
+
+    // cursor ausente = começa do início; cursor malformado = IllegalArgumentException
+    public static long decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        String id = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.US_ASCII);
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido.", e);
+        }
+    }
+
+    // cursor ausente = null (primeira página); malformado = IllegalArgumentException
+    public static DataEId decodificarDataEId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] partes = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.US_ASCII).split(",");
+        if (partes.length != 2) {
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+        try {
+            return new DataEId(LocalDate.parse(partes[0]), Long.parseLong(partes[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido.", e);
+        }
+    }
+
+    private static String base64(String texto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.US_ASCII));
+    }
+}
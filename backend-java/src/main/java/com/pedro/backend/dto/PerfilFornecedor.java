@@ -0,0 +1,17 @@
+package com.pedro.backend.dto;
+
+import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.model.TipoPessoa;
+
+import java.time.LocalDate;
+
+/**
+ * Campos de um fornecedor que entram nas estatísticas (tipo, CEP para a UF e o dia em que faz 18 anos,
+ * o mesmo gravado em data_maioridade e usado pela regra do Paraná).
+ */
+public record PerfilFornecedor(TipoPessoa tipoPessoa, String cep, LocalDate dataMaioridade) {
+
+    public static PerfilFornecedor de(Fornecedor fornecedor) {
+        return new PerfilFornecedor(fornecedor.getTipoPessoa(), fornecedor.getCep(), fornecedor.getDataMaioridade());
+    }
+}
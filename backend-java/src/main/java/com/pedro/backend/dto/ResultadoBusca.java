@@ -0,0 +1,7 @@
+package com.pedro.backend.dto;
+
+/**
+ * Fornecedor encontrado pela busca textual; maior pontuação = casamento melhor.
+ */
+public record ResultadoBusca(long id, String nome, String cpfCnpj, String email, int pontuacao) {
+}
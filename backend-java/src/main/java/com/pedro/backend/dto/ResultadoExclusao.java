@@ -0,0 +1,7 @@
+package com.pedro.backend.dto;
+
+import java.util.List;
+
+// resposta da exclusão em lote: quantos saíram e quais ids não existiam
+public record ResultadoExclusao(int excluidos, List<Long> naoEncontrados) {
+}
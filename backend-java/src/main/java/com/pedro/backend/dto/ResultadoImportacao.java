@@ -0,0 +1,18 @@
+package com.pedro.backend.dto;
+
+import java.util.List;
+
+/**
+ * Relatório do import de fornecedores. {@code erros} traz no máximo os primeiros
+ * erros encontrados; {@code rejeitadas} conta todos.
+ */
+public record ResultadoImportacao(long linhas,
+                                  long importadas,
+                                  long rejeitadas,
+                                  long duracaoMs,
+                                  long linhasPorSegundo,
+                                  List<ErroLinha> erros,
+                                  boolean errosTruncados) {
+
+    public record ErroLinha(long linha, String mensagem) {}
+}
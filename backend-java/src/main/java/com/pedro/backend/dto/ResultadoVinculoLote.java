@@ -0,0 +1,26 @@
+package com.pedro.backend.dto;
+
+import java.util.List;
+
+/**
+ * Resposta do vínculo em lote: um item por fornecedor pedido, na ordem recebida.
+ */
+public record ResultadoVinculoLote(int vinculados, int recusados, List<Item> itens) {
+
+    public enum Status {
+        VINCULADO,
+        JA_VINCULADO,
+        DUPLICADO_NO_LOTE,
+        FORNECEDOR_NAO_ENCONTRADO,
+        MENOR_DE_IDADE_PR,
+        // só na fila de vínculos, onde a empresa é conferida junto com o resto do lote
+        EMPRESA_NAO_ENCONTRADA
+    }
+
+    public record Item(Long fornecedorId, Status status) {}
+
+    public static ResultadoVinculoLote de(List<Item> itens) {
+        int vinculados = (int) itens.stream().filter(i -> i.status() == Status.VINCULADO).count();
+        return new ResultadoVinculoLote(vinculados, itens.size() - vinculados, itens);
+    }
+}
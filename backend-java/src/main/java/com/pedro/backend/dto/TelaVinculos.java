@@ -0,0 +1,29 @@
+package com.pedro.backend.dto;
+
+import java.util.List;
+
+/**
+ * Tudo o que a tela de vínculos mostra, numa resposta só: opções dos dois selects (com empresa
+ * selecionada, o de fornecedores só traz os que ela ainda pode receber), a página de fornecedores
+ * já vinculados a ela (null sem empresa) e os totais. Os selects vêm cortados em
+ * {@code vinculos.tela.maximo-opcoes}: totalEmpresas/totalFornecedores contam as opções da
+ * resposta e maisEmpresas/maisFornecedores dizem se ficou alguma de fora (aí a busca pelo nome
+ * do fornecedor refina o select).
+ */
+public record TelaVinculos(List<Opcao> empresas,
+                           List<Opcao> fornecedores,
+                           Pagina<FornecedorVinculado> vinculados,
+                           long totalEmpresas,
+                           long totalFornecedores,
+                           long totalVinculados,
+                           boolean maisEmpresas,
+                           boolean maisFornecedores) {
+
+    public static TelaVinculos de(List<Opcao> empresas, boolean maisEmpresas,
+                                  List<Opcao> fornecedores, boolean maisFornecedores,
+                                  Pagina<FornecedorVinculado> vinculados) {
+        return new TelaVinculos(empresas, fornecedores, vinculados,
+                empresas.size(), fornecedores.size(), vinculados == null ? 0 : vinculados.total(),
+                maisEmpresas, maisFornecedores);
+    }
+}
@@ -0,0 +1,7 @@
+package com.pedro.backend.dto;
+
+/**
+ * Linha do export de vínculos: só os ids, sem carregar empresa nem fornecedor.
+ */
+public record VinculoExportado(Long id, Long empresaId, Long fornecedorId) {
+}
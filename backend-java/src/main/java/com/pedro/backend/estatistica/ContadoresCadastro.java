@@ -0,0 +1,245 @@
+package com.pedro.backend.estatistica;
+
+import com.pedro.backend.cep.ServicoCep;
+import com.pedro.backend.dto.Contagem;
+import com.pedro.backend.dto.EstatisticasCadastro;
+import com.pedro.backend.dto.PerfilFornecedor;
+import com.pedro.backend.grafo.GrafoVinculos;
+import com.pedro.backend.grafo.IndiceVinculos;
+import com.pedro.backend.model.TipoPessoa;
+import com.pedro.backend.repository.EmpresaRepository;
+import com.pedro.backend.repository.FornecedorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contadores das estatísticas do cadastro.
+ *
+ * Contados uma vez na subida (GROUP BY) e depois só incrementados/decrementados pelos
+ * controllers, import e exclusão em cascata, logo após cada commit. São LongAdder, então
+ * escritas concorrentes não disputam a mesma variável, e a leitura só soma contadores.
+ * Vínculos e fornecedores por empresa vêm do grafo de vínculos, que já é mantido do mesmo jeito.
+ */
+@Component
+public class ContadoresCadastro implements SmartInitializingSingleton {
+
+    // UF de CEP fora das faixas ou empresa sem estado
+    static final String SEM_UF = "indefinida";
+
+    private static final Logger log = LoggerFactory.getLogger(ContadoresCadastro.class);
+
+    private final EmpresaRepository empresaRepository;
+    private final FornecedorRepository fornecedorRepository;
+    private final ServicoCep servicoCep;
+    private final IndiceVinculos indiceVinculos;
+
+    private volatile Contagens atual = new Contagens();
+
+    public ContadoresCadastro(EmpresaRepository empresaRepository,
+                              FornecedorRepository fornecedorRepository,
+                              ServicoCep servicoCep,
+                              IndiceVinculos indiceVinculos) {
+        this.empresaRepository = empresaRepository;
+        this.fornecedorRepository = fornecedorRepository;
+        this.servicoCep = servicoCep;
+        this.indiceVinculos = indiceVinculos;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        recontar();
+    }
+
+    // recontagem completa no banco; escritas que acontecerem durante ela podem ficar de fora
+    public void recontar() {
+        recontar(LocalDate.now());
+    }
+
+    // hoje fixo: testes de aniversário
+    void recontar(LocalDate hoje) {
+        long inicio = System.nanoTime();
+        Contagens nova = new Contagens();
+        for (Contagem c : empresaRepository.contarPorEstado()) {
+            nova.empresas.add(c.quantidade());
+            nova.empresasPorUf.computeIfAbsent(uf((String) c.chave()), k -> new LongAdder()).add(c.quantidade());
+        }
+        for (Contagem c : fornecedorRepository.contarPorTipo()) {
+            nova.fornecedores.add(c.quantidade());
+            if (c.chave() instanceof TipoPessoa tipo) {
+                nova.fornecedoresPorTipo.get(tipo).add(c.quantidade());
+            }
+        }
+        for (Contagem c : fornecedorRepository.contarPorCep()) {
+            nova.fornecedoresPorUf.computeIfAbsent(ufDoCep((String) c.chave()), k -> new LongAdder()).add(c.quantidade());
+        }
+        for (Contagem c : fornecedorRepository.contarMenoresPorMaioridade(hoje)) {
+            nova.menores.somar((LocalDate) c.chave(), c.quantidade(), hoje);
+        }
+        atual = nova;
+        log.info("Estatísticas do cadastro contadas em {} ms", (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public EstatisticasCadastro ler() {
+        Contagens c = atual;
+        GrafoVinculos grafo = indiceVinculos.grafo();
+        long empresas = c.empresas.sum();
+        long vinculos = grafo.vinculos();
+
+        Map<TipoPessoa, Long> porTipo = new EnumMap<>(TipoPessoa.class);
+        c.fornecedoresPorTipo.forEach((tipo, contador) -> porTipo.put(tipo, contador.sum()));
+
+        return new EstatisticasCadastro(
+                empresas,
+                c.fornecedores.sum(),
+                vinculos,
+                empresas == 0 ? 0 : (double) vinculos / empresas,
+                Math.max(0, empresas - grafo.empresasComFornecedor()),
+                grafo.empresasPorFaixaDeFornecedores(),
+                somar(c.empresasPorUf),
+                porTipo,
+                somar(c.fornecedoresPorUf),
+                c.menores.quantidade(LocalDate.now()));
+    }
+
+    long menoresDeIdade(LocalDate hoje) {
+        return atual.menores.quantidade(hoje);
+    }
+
+    public void empresaCriada(String estado) {
+        Contagens c = atual;
+        c.empresas.increment();
+        c.empresasPorUf.computeIfAbsent(uf(estado), k -> new LongAdder()).increment();
+    }
+
+    public void empresaAlterada(String estadoAntes, String estadoDepois) {
+        if (!uf(estadoAntes).equals(uf(estadoDepois))) {
+            Contagens c = atual;
+            c.empresasPorUf.computeIfAbsent(uf(estadoAntes), k -> new LongAdder()).decrement();
+            c.empresasPorUf.computeIfAbsent(uf(estadoDepois), k -> new LongAdder()).increment();
+        }
+    }
+
+    public void empresasExcluidas(Collection<String> estados) {
+        Contagens c = atual;
+        for (String estado : estados) {
+            c.empresas.decrement();
+            c.empresasPorUf.computeIfAbsent(uf(estado), k -> new LongAdder()).decrement();
+        }
+    }
+
+    public void fornecedorCriado(PerfilFornecedor perfil) {
+        aplicar(atual, perfil, 1);
+    }
+
+    public void fornecedorAlterado(PerfilFornecedor antes, PerfilFornecedor depois) {
+        if (!antes.equals(depois)) {
+            Contagens c = atual;
+            aplicar(c, antes, -1);
+            aplicar(c, depois, 1);
+        }
+    }
+
+    public void fornecedoresExcluidos(Collection<PerfilFornecedor> perfis) {
+        Contagens c = atual;
+        perfis.forEach(perfil -> aplicar(c, perfil, -1));
+    }
+
+    private void aplicar(Contagens c, PerfilFornecedor perfil, int sinal) {
+        c.fornecedores.add(sinal);
+        if (perfil.tipoPessoa() != null) {
+            c.fornecedoresPorTipo.get(perfil.tipoPessoa()).add(sinal);
+        }
+        c.fornecedoresPorUf.computeIfAbsent(ufDoCep(perfil.cep()), k -> new LongAdder()).add(sinal);
+        if (perfil.dataMaioridade() != null) {
+            c.menores.somar(perfil.dataMaioridade(), sinal, LocalDate.now());
+        }
+    }
+
+    private String ufDoCep(String cep) {
+        return cep == null ? SEM_UF : servicoCep.uf(cep).orElse(SEM_UF);
+    }
+
+    private static String uf(String estado) {
+        return estado == null || estado.isBlank() ? SEM_UF : estado.trim().toUpperCase(Locale.ROOT);
+    }
+
+    // UFs em ordem alfabética, sem as que zeraram
+    private static Map<String, Long> somar(Map<String, LongAdder> contadores) {
+        Map<String, Long> somados = new TreeMap<>();
+        contadores.forEach((uf, contador) -> {
+            long total = contador.sum();
+            if (total != 0) {
+                somados.put(uf, total);
+            }
+        });
+        return somados;
+    }
+
+    // um conjunto completo de contadores; a recontagem monta outro e troca de uma vez
+    private static final class Contagens {
+        final LongAdder empresas = new LongAdder();
+        final LongAdder fornecedores = new LongAdder();
+        final Map<TipoPessoa, LongAdder> fornecedoresPorTipo = new EnumMap<>(TipoPessoa.class);
+        final Map<String, LongAdder> empresasPorUf = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> fornecedoresPorUf = new ConcurrentHashMap<>();
+        final Menores menores = new Menores();
+
+        Contagens() {
+            for (TipoPessoa tipo : TipoPessoa.values()) {
+                fornecedoresPorTipo.put(tipo, new LongAdder());
+            }
+        }
+    }
+
+    /**
+     * Fornecedores PF menores de idade, agrupados pela data em que fazem 18 anos.
+     * Quem já fez aniversário sai da contagem na próxima leitura ou escrita, então cada
+     * data é descontada uma única vez (custo amortizado constante, sem varrer nada).
+     */
+    private static final class Menores {
+        private final ReentrantLock trava = new ReentrantLock();
+        private final TreeMap<LocalDate, Long> porMaioridade = new TreeMap<>();
+        private long total;
+
+        void somar(LocalDate maioridade, long quantidade, LocalDate hoje) {
+            trava.lock();
+            try {
+                expirar(hoje);
+                if (maioridade.isAfter(hoje)) {
+                    porMaioridade.merge(maioridade, quantidade, (a, b) -> a + b == 0 ? null : a + b);
+                    total += quantidade;
+                }
+            } finally {
+                trava.unlock();
+            }
+        }
+
+        long quantidade(LocalDate hoje) {
+            trava.lock();
+            try {
+                expirar(hoje);
+                return total;
+            } finally {
+                trava.unlock();
+            }
+        }
+
+        private void expirar(LocalDate hoje) {
+            while (!porMaioridade.isEmpty() && !porMaioridade.firstKey().isAfter(hoje)) {
+                total -= porMaioridade.pollFirstEntry().getValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.pedro.backend.exclusao;
+
+import com.pedro.backend.alteracao.RegistroAlteracoes;
+import com.pedro.backend.busca.IndiceFornecedores;
+import com.pedro.backend.dto.Alteracao;
+import com.pedro.backend.dto.Alteracao.Operacao;
+import com.pedro.backend.dto.PerfilFornecedor;
+import com.pedro.backend.dto.ResultadoExclusao;
+import com.pedro.backend.estatistica.ContadoresCadastro;
+import com.pedro.backend.grafo.IndiceVinculos;
+import com.pedro.backend.repository.EmpresaFornecedorRepository;
+import com.pedro.backend.repository.EmpresaRepository;
+import com.pedro.backend.repository.FornecedorRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Exclusão de empresas/fornecedores junto com seus vínculos, só com DELETEs em massa.
+ *
+ * Os vínculos saem em fatias de {@link #FATIA_VINCULOS} linhas, cada fatia na sua transação,
+ * para que um fornecedor com dezenas de milhares de empresas não segure um lock longo.
+ * A última transação apaga o que sobrou de vínculos e os registros em si, então um vínculo
+ * criado no meio do caminho não deixa a exclusão pela metade.
+ */
+@Component
+public class ExclusaoEmCascata {
+
+    public static final int MAXIMO_IDS = 50_000;
+
+    static final int FATIA_VINCULOS = 10_000;
+
+    // ids por cláusula IN
+    static final int TAMANHO_IN = 1000;
+
+    private final EmpresaRepository empresaRepository;
+    private final FornecedorRepository fornecedorRepository;
+    private final EmpresaFornecedorRepository empresaFornecedorRepository;
+    private final IndiceFornecedores indiceFornecedores;
+    private final IndiceVinculos indiceVinculos;
+    private final ContadoresCadastro contadores;
+    private final RegistroAlteracoes alteracoes;
+    private final TransactionTemplate transacao;
+
+    public ExclusaoEmCascata(EmpresaRepository empresaRepository,
+                             FornecedorRepository fornecedorRepository,
+                             EmpresaFornecedorRepository empresaFornecedorRepository,
+                             IndiceFornecedores indiceFornecedores,
+                             IndiceVinculos indiceVinculos,
+                             ContadoresCadastro contadores,
+                             RegistroAlteracoes alteracoes,
+                             PlatformTransactionManager transactionManager) {
+        this.empresaRepository = empresaRepository;
+        this.fornecedorRepository = fornecedorRepository;
+        this.empresaFornecedorRepository = empresaFornecedorRepository;
+        this.indiceFornecedores = indiceFornecedores;
+        this.indiceVinculos = indiceVinculos;
+        this.contadores = contadores;
+        this.alteracoes = alteracoes;
+        this.transacao = new TransactionTemplate(transactionManager);
+    }
+
+    public ResultadoExclusao excluirEmpresas(Collection<Long> ids) {
+        return excluir(ids, empresaRepository::findIdsExistentes,
+                empresaFornecedorRepository::excluirFatiaPorEmpresas,
+                empresaRepository::findEstados, empresaRepository::excluirPorIds,
+                id -> Alteracao.empresa(Operacao.EXCLUIDO, id),
+                (excluidas, estados) -> {
+                    indiceVinculos.empresasExcluidas(excluidas);
+                    contadores.empresasExcluidas(estados);
+                });
+    }
+
+    public ResultadoExclusao excluirFornecedores(Collection<Long> ids) {
+        return excluir(ids, fornecedorRepository::findIdsExistentes,
+                empresaFornecedorRepository::excluirFatiaPorFornecedores,
+                fornecedorRepository::findPerfis, fornecedorRepository::excluirPorIds,
+                id -> Alteracao.fornecedor(Operacao.EXCLUIDO, id),
+                (excluidos, perfis) -> {
+                    indiceFornecedores.remover(excluidos);
+                    indiceVinculos.fornecedoresExcluidos(excluidos);
+                    contadores.fornecedoresExcluidos(perfis);
+                });
+    }
+
+    // dadosAntes: o que os contadores precisam dos registros, lido na mesma transação do DELETE
+    // alteracao: linha do feed de cada registro excluído (os vínculos dele saem implícitos)
+    private <D> ResultadoExclusao excluir(Collection<Long> ids,
+                                          Function<Collection<Long>, List<Long>> existentes,
+                                          BiFunction<Collection<Long>, Integer, Integer> excluirFatiaVinculos,
+                                          Function<Collection<Long>, List<D>> dadosAntes,
+                                          Function<Collection<Long>, Integer> excluirRegistros,
+                                          Function<Long, Alteracao> alteracao,
+                                          BiConsumer<Collection<Long>, List<D>> aposCommit) {
+        List<Long> distintos = new ArrayList<>(new LinkedHashSet<>(ids));
+        distintos.removeIf(Objects::isNull);
+
+        int excluidos = 0;
+        Set<Long> encontrados = new HashSet<>();
+        for (int i = 0; i < distintos.size(); i += TAMANHO_IN) {
+            List<Long> bloco = List.copyOf(distintos.subList(i, Math.min(i + TAMANHO_IN, distintos.size())));
+            List<Long> presentes = existentes.apply(bloco);
+            if (presentes.isEmpty()) {
+                continue;
+            }
+            encontrados.addAll(presentes);
+
+            Integer apagados;
+            do {
+                apagados = transacao.execute(s -> excluirFatiaVinculos.apply(presentes, FATIA_VINCULOS));
+            } while (apagados != null && apagados == FATIA_VINCULOS);
+
+            List<D> dados = new ArrayList<>();
+            Integer registros = transacao.execute(s -> {
+                excluirFatiaVinculos.apply(presentes, Integer.MAX_VALUE);
+                dados.addAll(dadosAntes.apply(presentes));
+                Integer removidos = excluirRegistros.apply(presentes);
+                alteracoes.registrar(presentes.stream().map(alteracao).toList());
+                return removidos;
+            });
+            excluidos += registros == null ? 0 : registros;
+            aposCommit.accept(presentes, dados);
+        }
+
+        List<Long> naoEncontrados = distintos.stream().filter(id -> !encontrados.contains(id)).toList();
+        return new ResultadoExclusao(excluidos, naoEncontrados);
+    }
+}
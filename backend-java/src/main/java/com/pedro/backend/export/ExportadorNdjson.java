@@ -0,0 +1,68 @@
+package com.pedro.backend.export;
+
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Escreve uma consulta inteira como NDJSON (um objeto JSON por linha) direto na resposta.
+ * As linhas vêm de um {@link Stream} do repositório, então nada é acumulado em memória:
+ * a cada lote o contexto de persistência é limpo e a saída é enviada ao cliente.
+ */
+@Component
+public class ExportadorNdjson {
+
+    public static final String CONTENT_TYPE = "application/x-ndjson";
+
+    // mesmo valor do fetch size das consultas de export
+    static final int LOTE = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    public ExportadorNdjson(ObjectMapper objectMapper, EntityManager entityManager) {
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    // a transação precisa ficar aberta enquanto o Stream é consumido
+    @Transactional(readOnly = true)
+    public <T> long exportar(Supplier<Stream<T>> consulta, HttpServletResponse response) throws IOException {
+        response.setContentType(CONTENT_TYPE);
+        response.setCharacterEncoding("UTF-8");
+
+        OutputStream out = response.getOutputStream();
+        long linhas = 0;
+
+        try (Stream<T> stream = consulta.get();
+             SequenceWriter sequencia = objectMapper.writer()
+                     .withRootValueSeparator("\n")
+                     .writeValues(out)) {
+
+            for (T item : (Iterable<T>) stream::iterator) {
+                sequencia.write(item);
+                linhas++;
+
+                if (linhas % LOTE == 0) {
+                    // solta as entidades já escritas e manda o lote pro cliente
+                    entityManager.clear();
+                    sequencia.flush();
+                }
+            }
+
+            sequencia.flush();
+            if (linhas > 0) {
+                out.write('\n');
+            }
+        }
+        return linhas;
+    }
+}
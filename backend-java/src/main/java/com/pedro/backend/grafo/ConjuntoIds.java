@@ -0,0 +1,249 @@
+package com.pedro.backend.grafo;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de ids compactado no estilo roaring: os ids são agrupados pelos 48 bits altos
+ * e cada grupo guarda os 16 bits baixos num char[] ordenado (até 4096 ids) ou num mapa
+ * de bits de 8 KB (acima disso). Um fornecedor com 3 empresas ocupa alguns bytes;
+ * uma empresa com 100 mil fornecedores de ids próximos ocupa pouco mais de 100 mil bits.
+ */
+final class ConjuntoIds {
+
+    // acima disso o mapa de bits (65536 bits = 8 KB) fica menor que o char[]
+    private static final int LIMITE_LISTA = 4096;
+    private static final int PALAVRAS_BITS = 1024;
+
+    private long[] chaves = new long[1];
+    // char[] (lista ordenada) ou long[] (mapa de bits), na mesma posição da chave
+    private Object[] blocos = new Object[1];
+    private int[] contagens = new int[1];
+    private int quantidadeBlocos;
+    private long tamanho;
+
+    long tamanho() {
+        return tamanho;
+    }
+
+    boolean vazio() {
+        return tamanho == 0;
+    }
+
+    boolean contem(long id) {
+        int b = Arrays.binarySearch(chaves, 0, quantidadeBlocos, id >>> 16);
+        if (b < 0) {
+            return false;
+        }
+        char baixo = (char) id;
+        if (blocos[b] instanceof char[] lista) {
+            return Arrays.binarySearch(lista, 0, contagens[b], baixo) >= 0;
+        }
+        long[] bits = (long[]) blocos[b];
+        return (bits[baixo >>> 6] & (1L << baixo)) != 0;
+    }
+
+    boolean adicionar(long id) {
+        long chave = id >>> 16;
+        char baixo = (char) id;
+        int b = Arrays.binarySearch(chaves, 0, quantidadeBlocos, chave);
+        if (b < 0) {
+            b = -b - 1;
+            inserirBloco(b, chave);
+        }
+
+        if (blocos[b] instanceof char[] lista) {
+            int n = contagens[b];
+            int pos = Arrays.binarySearch(lista, 0, n, baixo);
+            if (pos >= 0) {
+                return false;
+            }
+            if (n == LIMITE_LISTA) {
+                blocos[b] = paraBits(lista, n);
+                return adicionarBit(b, baixo);
+            }
+            pos = -pos - 1;
+            if (n == lista.length) {
+                lista = Arrays.copyOf(lista, Math.min(LIMITE_LISTA, n + (n >> 1) + 1));
+                blocos[b] = lista;
+            }
+            System.arraycopy(lista, pos, lista, pos + 1, n - pos);
+            lista[pos] = baixo;
+            contagens[b]++;
+            tamanho++;
+            return true;
+        }
+        return adicionarBit(b, baixo);
+    }
+
+    boolean remover(long id) {
+        int b = Arrays.binarySearch(chaves, 0, quantidadeBlocos, id >>> 16);
+        if (b < 0) {
+            return false;
+        }
+        char baixo = (char) id;
+        if (blocos[b] instanceof char[] lista) {
+            int n = contagens[b];
+            int pos = Arrays.binarySearch(lista, 0, n, baixo);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(lista, pos + 1, lista, pos, n - pos - 1);
+        } else {
+            long[] bits = (long[]) blocos[b];
+            long mascara = 1L << baixo;
+            if ((bits[baixo >>> 6] & mascara) == 0) {
+                return false;
+            }
+            bits[baixo >>> 6] &= ~mascara;
+            if (contagens[b] - 1 == LIMITE_LISTA) {
+                blocos[b] = paraLista(bits, LIMITE_LISTA);
+            }
+        }
+        tamanho--;
+        if (--contagens[b] == 0) {
+            removerBloco(b);
+        }
+        return true;
+    }
+
+    long[] paraArray() {
+        long[] ids = new long[(int) tamanho];
+        int i = 0;
+        for (int b = 0; b < quantidadeBlocos; b++) {
+            long alto = chaves[b] << 16;
+            if (blocos[b] instanceof char[] lista) {
+                for (int k = 0; k < contagens[b]; k++) {
+                    ids[i++] = alto | lista[k];
+                }
+            } else {
+                long[] bits = (long[]) blocos[b];
+                for (int w = 0; w < PALAVRAS_BITS; w++) {
+                    long palavra = bits[w];
+                    while (palavra != 0) {
+                        ids[i++] = alto | ((long) w << 6) | Long.numberOfTrailingZeros(palavra);
+                        palavra &= palavra - 1;
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    // ids presentes nos dois conjuntos, em ordem crescente
+    static long[] intersecao(ConjuntoIds a, ConjuntoIds b) {
+        long[] resultado = new long[(int) Math.min(a.tamanho, b.tamanho)];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.quantidadeBlocos && j < b.quantidadeBlocos) {
+            if (a.chaves[i] < b.chaves[j]) {
+                i++;
+            } else if (a.chaves[i] > b.chaves[j]) {
+                j++;
+            } else {
+                n = intersecaoBloco(a.chaves[i] << 16, a.blocos[i], a.contagens[i],
+                        b.blocos[j], b.contagens[j], resultado, n);
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    private static int intersecaoBloco(long alto, Object x, int nx, Object y, int ny, long[] saida, int n) {
+        if (x instanceof long[] bitsX && y instanceof long[] bitsY) {
+            for (int w = 0; w < PALAVRAS_BITS; w++) {
+                long palavra = bitsX[w] & bitsY[w];
+                while (palavra != 0) {
+                    saida[n++] = alto | ((long) w << 6) | Long.numberOfTrailingZeros(palavra);
+                    palavra &= palavra - 1;
+                }
+            }
+            return n;
+        }
+        if (x instanceof char[] listaX && y instanceof char[] listaY) {
+            int i = 0;
+            int j = 0;
+            while (i < nx && j < ny) {
+                if (listaX[i] < listaY[j]) {
+                    i++;
+                } else if (listaX[i] > listaY[j]) {
+                    j++;
+                } else {
+                    saida[n++] = alto | listaX[i];
+                    i++;
+                    j++;
+                }
+            }
+            return n;
+        }
+        // lista contra mapa de bits: consulta cada item da lista
+        char[] lista = x instanceof char[] c ? c : (char[]) y;
+        int tamanhoLista = x instanceof char[] ? nx : ny;
+        long[] bits = x instanceof long[] l ? l : (long[]) y;
+        for (int k = 0; k < tamanhoLista; k++) {
+            char baixo = lista[k];
+            if ((bits[baixo >>> 6] & (1L << baixo)) != 0) {
+                saida[n++] = alto | baixo;
+            }
+        }
+        return n;
+    }
+
+    private boolean adicionarBit(int b, char baixo) {
+        long[] bits = (long[]) blocos[b];
+        long mascara = 1L << baixo;
+        if ((bits[baixo >>> 6] & mascara) != 0) {
+            return false;
+        }
+        bits[baixo >>> 6] |= mascara;
+        contagens[b]++;
+        tamanho++;
+        return true;
+    }
+
+    private static long[] paraBits(char[] lista, int n) {
+        long[] bits = new long[PALAVRAS_BITS];
+        for (int k = 0; k < n; k++) {
+            bits[lista[k] >>> 6] |= 1L << lista[k];
+        }
+        return bits;
+    }
+
+    private static char[] paraLista(long[] bits, int n) {
+        char[] lista = new char[n];
+        int i = 0;
+        for (int w = 0; w < PALAVRAS_BITS; w++) {
+            long palavra = bits[w];
+            while (palavra != 0) {
+                lista[i++] = (char) ((w << 6) | Long.numberOfTrailingZeros(palavra));
+                palavra &= palavra - 1;
+            }
+        }
+        return lista;
+    }
+
+    private void inserirBloco(int b, long chave) {
+        if (quantidadeBlocos == chaves.length) {
+            int capacidade = quantidadeBlocos * 2;
+            chaves = Arrays.copyOf(chaves, capacidade);
+            blocos = Arrays.copyOf(blocos, capacidade);
+            contagens = Arrays.copyOf(contagens, capacidade);
+        }
+        System.arraycopy(chaves, b, chaves, b + 1, quantidadeBlocos - b);
+        System.arraycopy(blocos, b, blocos, b + 1, quantidadeBlocos - b);
+        System.arraycopy(contagens, b, contagens, b + 1, quantidadeBlocos - b);
+        chaves[b] = chave;
+        blocos[b] = new char[1];
+        contagens[b] = 0;
+        quantidadeBlocos++;
+    }
+
+    private void removerBloco(int b) {
+        System.arraycopy(chaves, b + 1, chaves, b, quantidadeBlocos - b - 1);
+        System.arraycopy(blocos, b + 1, blocos, b, quantidadeBlocos - b - 1);
+        System.arraycopy(contagens, b + 1, contagens, b, quantidadeBlocos - b - 1);
+        quantidadeBlocos--;
+        blocos[quantidadeBlocos] = null;
+    }
+}
@@ -0,0 +1,258 @@
+package com.pedro.backend.grafo;
+
+import com.pedro.backend.dto.ConsistenciaVinculos;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grafo bipartido empresa ↔ fornecedor em memória: para cada lado, id -> conjunto de ids
+ * do outro lado. Responde fornecedores de uma empresa, empresas de um fornecedor,
+ * fornecedores em comum e contagens sem ida ao banco. Só guarda ids; quem precisa dos
+ * dados cadastrais busca no repositório (ou no cache de segundo nível).
+ */
+public class GrafoVinculos {
+
+    // quantos ids de empresas divergentes a verificação devolve
+    static final int MAXIMO_DIVERGENTES = 50;
+
+    private static final long[] NENHUM = new long[0];
+
+    // faixas da quantidade de fornecedores por empresa (limite superior de cada faixa)
+    private static final long[] LIMITES_FAIXAS = {1, 10, 100, 1000, Long.MAX_VALUE};
+    private static final String[] NOMES_FAIXAS = {"1", "2-10", "11-100", "101-1000", "mais de 1000"};
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private final MapaIds<ConjuntoIds> fornecedoresPorEmpresa = new MapaIds<>();
+    private final MapaIds<ConjuntoIds> empresasPorFornecedor = new MapaIds<>();
+    private long vinculos;
+    // quantas empresas em cada faixa, atualizado a cada mudança de grau
+    private final long[] empresasPorFaixa = new long[LIMITES_FAIXAS.length];
+
+    public boolean vincular(long empresaId, long fornecedorId) {
+        trava.writeLock().lock();
+        try {
+            ConjuntoIds fornecedores = fornecedoresPorEmpresa.obterOuCriar(empresaId, id -> new ConjuntoIds());
+            if (!fornecedores.adicionar(fornecedorId)) {
+                return false;
+            }
+            mudarGrau(fornecedores.tamanho() - 1, fornecedores.tamanho());
+            empresasPorFornecedor.obterOuCriar(fornecedorId, id -> new ConjuntoIds()).adicionar(empresaId);
+            vinculos++;
+            return true;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public boolean desvincular(long empresaId, long fornecedorId) {
+        trava.writeLock().lock();
+        try {
+            if (!retirarDaEmpresa(empresaId, fornecedorId)) {
+                return false;
+            }
+            retirar(empresasPorFornecedor, fornecedorId, empresaId);
+            vinculos--;
+            return true;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public void removerEmpresas(Collection<Long> empresaIds) {
+        trava.writeLock().lock();
+        try {
+            for (Long empresaId : empresaIds) {
+                ConjuntoIds fornecedores = fornecedoresPorEmpresa.remover(empresaId);
+                if (fornecedores != null) {
+                    for (long fornecedorId : fornecedores.paraArray()) {
+                        retirar(empresasPorFornecedor, fornecedorId, empresaId);
+                    }
+                    mudarGrau(fornecedores.tamanho(), 0);
+                    vinculos -= fornecedores.tamanho();
+                }
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public void removerFornecedores(Collection<Long> fornecedorIds) {
+        trava.writeLock().lock();
+        try {
+            for (Long fornecedorId : fornecedorIds) {
+                ConjuntoIds empresas = empresasPorFornecedor.remover(fornecedorId);
+                if (empresas != null) {
+                    for (long empresaId : empresas.paraArray()) {
+                        retirarDaEmpresa(empresaId, fornecedorId);
+                    }
+                    vinculos -= empresas.tamanho();
+                }
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public long[] fornecedoresDe(long empresaId) {
+        return vizinhos(fornecedoresPorEmpresa, empresaId);
+    }
+
+    public long[] empresasDe(long fornecedorId) {
+        return vizinhos(empresasPorFornecedor, fornecedorId);
+    }
+
+    // fornecedores vinculados às duas empresas, em ordem de id
+    public long[] fornecedoresEmComum(long empresaId, long outraEmpresaId) {
+        trava.readLock().lock();
+        try {
+            ConjuntoIds a = fornecedoresPorEmpresa.obter(empresaId);
+            ConjuntoIds b = fornecedoresPorEmpresa.obter(outraEmpresaId);
+            return a == null || b == null ? NENHUM : ConjuntoIds.intersecao(a, b);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public long grauEmpresa(long empresaId) {
+        return grau(fornecedoresPorEmpresa, empresaId);
+    }
+
+    public long grauFornecedor(long fornecedorId) {
+        return grau(empresasPorFornecedor, fornecedorId);
+    }
+
+    public long empresasComFornecedor() {
+        trava.readLock().lock();
+        try {
+            return fornecedoresPorEmpresa.tamanho();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // empresas por quantidade de fornecedores ("1", "2-10"...); empresas sem vínculo ficam de fora
+    public Map<String, Long> empresasPorFaixaDeFornecedores() {
+        trava.readLock().lock();
+        try {
+            Map<String, Long> faixas = new LinkedHashMap<>();
+            for (int i = 0; i < NOMES_FAIXAS.length; i++) {
+                faixas.put(NOMES_FAIXAS[i], empresasPorFaixa[i]);
+            }
+            return faixas;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public long vinculos() {
+        trava.readLock().lock();
+        try {
+            return vinculos;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compara com um grafo de referência (lido do banco) empresa a empresa.
+     * Faltando = vínculos do banco que não estão aqui; sobrando = daqui que não estão no banco.
+     */
+    public ConsistenciaVinculos comparar(GrafoVinculos referencia) {
+        trava.readLock().lock();
+        referencia.trava.readLock().lock();
+        try {
+            long[] faltando = {0};
+            long[] sobrando = {0};
+            List<Long> divergentes = new ArrayList<>();
+            referencia.fornecedoresPorEmpresa.paraCada((empresaId, esperados) -> {
+                ConjuntoIds atuais = fornecedoresPorEmpresa.obter(empresaId);
+                long comuns = atuais == null ? 0 : ConjuntoIds.intersecao(esperados, atuais).length;
+                long tamanhoAtual = atuais == null ? 0 : atuais.tamanho();
+                if (comuns != esperados.tamanho() || comuns != tamanhoAtual) {
+                    faltando[0] += esperados.tamanho() - comuns;
+                    sobrando[0] += tamanhoAtual - comuns;
+                    anotar(divergentes, empresaId);
+                }
+            });
+            fornecedoresPorEmpresa.paraCada((empresaId, atuais) -> {
+                if (referencia.fornecedoresPorEmpresa.obter(empresaId) == null) {
+                    sobrando[0] += atuais.tamanho();
+                    anotar(divergentes, empresaId);
+                }
+            });
+            return new ConsistenciaVinculos(faltando[0] == 0 && sobrando[0] == 0,
+                    referencia.vinculos, vinculos, faltando[0], sobrando[0], divergentes);
+        } finally {
+            referencia.trava.readLock().unlock();
+            trava.readLock().unlock();
+        }
+    }
+
+    private static void anotar(List<Long> divergentes, long empresaId) {
+        if (divergentes.size() < MAXIMO_DIVERGENTES) {
+            divergentes.add(empresaId);
+        }
+    }
+
+    private long[] vizinhos(MapaIds<ConjuntoIds> lado, long id) {
+        trava.readLock().lock();
+        try {
+            ConjuntoIds conjunto = lado.obter(id);
+            return conjunto == null ? NENHUM : conjunto.paraArray();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    private long grau(MapaIds<ConjuntoIds> lado, long id) {
+        trava.readLock().lock();
+        try {
+            ConjuntoIds conjunto = lado.obter(id);
+            return conjunto == null ? 0 : conjunto.tamanho();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    private boolean retirarDaEmpresa(long empresaId, long fornecedorId) {
+        ConjuntoIds fornecedores = fornecedoresPorEmpresa.obter(empresaId);
+        if (fornecedores == null || !retirar(fornecedoresPorEmpresa, empresaId, fornecedorId)) {
+            return false;
+        }
+        mudarGrau(fornecedores.tamanho() + 1, fornecedores.tamanho());
+        return true;
+    }
+
+    private void mudarGrau(long antes, long depois) {
+        if (antes > 0) {
+            empresasPorFaixa[faixa(antes)]--;
+        }
+        if (depois > 0) {
+            empresasPorFaixa[faixa(depois)]++;
+        }
+    }
+
+    private static int faixa(long grau) {
+        int i = 0;
+        while (grau > LIMITES_FAIXAS[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean retirar(MapaIds<ConjuntoIds> lado, long id, long vizinho) {
+        ConjuntoIds conjunto = lado.obter(id);
+        if (conjunto == null || !conjunto.remover(vizinho)) {
+            return false;
+        }
+        if (conjunto.vazio()) {
+            lado.remover(id);
+        }
+        return true;
+    }
+}
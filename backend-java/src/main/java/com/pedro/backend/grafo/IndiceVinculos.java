@@ -0,0 +1,163 @@
+package com.pedro.backend.grafo;
+
+import com.pedro.backend.dto.ConsistenciaVinculos;
+import com.pedro.backend.dto.VinculoExportado;
+import com.pedro.backend.repository.EmpresaFornecedorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Mantém o {@link GrafoVinculos} igual à tabela empresas_fornecedores.
+ *
+ * O grafo é montado na subida, antes do servidor aceitar requisições. Depois cada vínculo,
+ * desvínculo e exclusão em cascata é aplicado logo após o commit (dentro de uma transação,
+ * via afterCommit; fora dela, na hora), então um rollback nunca chega ao grafo.
+ * A verificação relê a tabela e, se pedido, troca o grafo pelo relido; o que foi gravado
+ * durante a releitura é reaplicado no grafo novo.
+ */
+@Component
+public class IndiceVinculos implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceVinculos.class);
+
+    private final EmpresaFornecedorRepository empresaFornecedorRepository;
+    private final TransactionTemplate transacao;
+
+    private volatile GrafoVinculos grafo = new GrafoVinculos();
+
+    // ordena as escritas no grafo com a troca pelo grafo relido (ReentrantLock: não prende thread virtual)
+    private final ReentrantLock escritas = new ReentrantLock();
+    // escritas aplicadas enquanto a tabela é relida; null fora da releitura
+    private List<Consumer<GrafoVinculos>> duranteReleitura;
+
+    public IndiceVinculos(EmpresaFornecedorRepository empresaFornecedorRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.empresaFornecedorRepository = empresaFornecedorRepository;
+        // sem readOnly de propósito: a verificação roda num GET e uma transação somente leitura ali
+        // iria para a réplica, comparando o grafo com uma tabela atrasada (e "corrigindo" para ela)
+        this.transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long inicio = System.nanoTime();
+        grafo = lerDoBanco();
+        log.info("Grafo de vínculos carregado: {} vínculos em {} ms",
+                grafo.vinculos(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public GrafoVinculos grafo() {
+        return grafo;
+    }
+
+    public void vinculado(long empresaId, long fornecedorId) {
+        aposCommit(g -> g.vincular(empresaId, fornecedorId));
+    }
+
+    public void vinculados(long empresaId, Collection<Long> fornecedorIds) {
+        List<Long> copia = List.copyOf(fornecedorIds);
+        aposCommit(g -> copia.forEach(fornecedorId -> g.vincular(empresaId, fornecedorId)));
+    }
+
+    public void desvinculado(long empresaId, long fornecedorId) {
+        aposCommit(g -> g.desvincular(empresaId, fornecedorId));
+    }
+
+    public void empresasExcluidas(Collection<Long> empresaIds) {
+        List<Long> copia = List.copyOf(empresaIds);
+        aposCommit(g -> g.removerEmpresas(copia));
+    }
+
+    public void fornecedoresExcluidos(Collection<Long> fornecedorIds) {
+        List<Long> copia = List.copyOf(fornecedorIds);
+        aposCommit(g -> g.removerFornecedores(copia));
+    }
+
+    // relê a tabela e compara; com corrigir, passa a usar o grafo relido quando há divergência
+    public ConsistenciaVinculos verificar(boolean corrigir) {
+        escritas.lock();
+        try {
+            duranteReleitura = new ArrayList<>();
+        } finally {
+            escritas.unlock();
+        }
+        GrafoVinculos doBanco;
+        try {
+            doBanco = lerDoBanco();
+        } catch (RuntimeException e) {
+            escritas.lock();
+            try {
+                duranteReleitura = null;
+            } finally {
+                escritas.unlock();
+            }
+            throw e;
+        }
+
+        escritas.lock();
+        try {
+            // compara depois de reaplicar as escritas do meio da leitura, para não acusar corrida como erro
+            duranteReleitura.forEach(escrita -> escrita.accept(doBanco));
+            duranteReleitura = null;
+            ConsistenciaVinculos resultado = grafo.comparar(doBanco);
+            if (!resultado.consistente()) {
+                log.warn("Grafo de vínculos divergente do banco: {} faltando, {} sobrando (empresas {})",
+                        resultado.faltandoNoGrafo(), resultado.sobrandoNoGrafo(), resultado.empresasDivergentes());
+                if (corrigir) {
+                    grafo = doBanco;
+                }
+            }
+            return resultado;
+        } finally {
+            escritas.unlock();
+        }
+    }
+
+    private GrafoVinculos lerDoBanco() {
+        GrafoVinculos novo = new GrafoVinculos();
+        transacao.executeWithoutResult(s -> {
+            try (Stream<VinculoExportado> vinculos = empresaFornecedorRepository.streamVinculos()) {
+                vinculos.forEach(v -> novo.vincular(v.empresaId(), v.fornecedorId()));
+            }
+        });
+        return novo;
+    }
+
+    private void aposCommit(Consumer<GrafoVinculos> escrita) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(escrita);
+                }
+            });
+        } else {
+            aplicar(escrita);
+        }
+    }
+
+    private void aplicar(Consumer<GrafoVinculos> escrita) {
+        escritas.lock();
+        try {
+            escrita.accept(grafo);
+            if (duranteReleitura != null) {
+                duranteReleitura.add(escrita);
+            }
+        } finally {
+            escritas.unlock();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.pedro.backend.grafo;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * Mapa id -> valor com chaves long primitivas (endereçamento aberto, sondagem linear).
+ * Sem o Long e o nó de entrada do HashMap: com milhões de empresas/fornecedores no grafo
+ * isso é boa parte da memória.
+ */
+final class MapaIds<V> {
+
+    // ids vêm de gerador e são sempre positivos
+    private static final long VAZIO = Long.MIN_VALUE;
+
+    interface Visitante<V> {
+        void visitar(long id, V valor);
+    }
+
+    private long[] chaves;
+    private Object[] valores;
+    private int tamanho;
+
+    MapaIds() {
+        alocar(16);
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    @SuppressWarnings("unchecked")
+    V obter(long id) {
+        int mascara = chaves.length - 1;
+        for (int i = posicao(id, mascara); chaves[i] != VAZIO; i = (i + 1) & mascara) {
+            if (chaves[i] == id) {
+                return (V) valores[i];
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V obterOuCriar(long id, LongFunction<V> criar) {
+        int mascara = chaves.length - 1;
+        int i = posicao(id, mascara);
+        for (; chaves[i] != VAZIO; i = (i + 1) & mascara) {
+            if (chaves[i] == id) {
+                return (V) valores[i];
+            }
+        }
+        V valor = criar.apply(id);
+        chaves[i] = id;
+        valores[i] = valor;
+        // carga máxima de 1/2: sondagens curtas mesmo com ids sequenciais
+        if (++tamanho * 2 > chaves.length) {
+            redimensionar(chaves.length * 2);
+        }
+        return valor;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remover(long id) {
+        int mascara = chaves.length - 1;
+        int i = posicao(id, mascara);
+        while (chaves[i] != id) {
+            if (chaves[i] == VAZIO) {
+                return null;
+            }
+            i = (i + 1) & mascara;
+        }
+        V removido = (V) valores[i];
+
+        // desloca para trás quem estava depois do buraco e poderia ficar inalcançável
+        int vago = i;
+        for (int j = (i + 1) & mascara; chaves[j] != VAZIO; j = (j + 1) & mascara) {
+            int ideal = posicao(chaves[j], mascara);
+            if (((j - ideal) & mascara) >= ((j - vago) & mascara)) {
+                chaves[vago] = chaves[j];
+                valores[vago] = valores[j];
+                vago = j;
+            }
+        }
+        chaves[vago] = VAZIO;
+        valores[vago] = null;
+        tamanho--;
+        return removido;
+    }
+
+    @SuppressWarnings("unchecked")
+    void paraCada(Visitante<V> visitante) {
+        for (int i = 0; i < chaves.length; i++) {
+            if (chaves[i] != VAZIO) {
+                visitante.visitar(chaves[i], (V) valores[i]);
+            }
+        }
+    }
+
+    private static int posicao(long id, int mascara) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        Arrays.fill(chaves, VAZIO);
+        valores = new Object[capacidade];
+    }
+
+    private void redimensionar(int capacidade) {
+        long[] antigasChaves = chaves;
+        Object[] antigosValores = valores;
+        alocar(capacidade);
+        int mascara = capacidade - 1;
+        for (int k = 0; k < antigasChaves.length; k++) {
+            if (antigasChaves[k] != VAZIO) {
+                int i = posicao(antigasChaves[k], mascara);
+                while (chaves[i] != VAZIO) {
+                    i = (i + 1) & mascara;
+                }
+                chaves[i] = antigasChaves[k];
+                valores[i] = antigosValores[k];
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.pedro.backend.importacao;
+
+import com.pedro.backend.alteracao.RegistroAlteracoes;
+import com.pedro.backend.busca.IndiceFornecedores;
+import com.pedro.backend.cep.ServicoCep;
+import com.pedro.backend.dto.Alteracao;
+import com.pedro.backend.dto.Alteracao.Operacao;
+import com.pedro.backend.dto.PerfilFornecedor;
+import com.pedro.backend.dto.ResultadoImportacao;
+import com.pedro.backend.dto.ResultadoImportacao.ErroLinha;
+import com.pedro.backend.estatistica.ContadoresCadastro;
+import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.regra.RegraPessoaFisica;
+import com.pedro.backend.repository.FornecedorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Import em massa de fornecedores (CSV ou NDJSON).
+ * O corpo é lido linha a linha; as linhas válidas são agrupadas em lotes e cada lote
+ * é deduplicado com uma única consulta IN e gravado via batch JDBC na sua própria transação.
+ * Assim a memória fica limitada ao tamanho do lote, seja qual for o tamanho do arquivo.
+ */
+@Component
+public class ImportadorFornecedores {
+
+    public enum Formato { CSV, NDJSON }
+
+    // quantos erros detalhados voltam na resposta (o total é sempre contado)
+    static final int MAXIMO_ERROS = 1000;
+    static final int LOTE_MAXIMO = 10_000;
+
+    private static final Logger log = LoggerFactory.getLogger(ImportadorFornecedores.class);
+
+    private final FornecedorRepository fornecedorRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transacao;
+    private final ServicoCep servicoCep;
+    private final IndiceFornecedores indiceFornecedores;
+    private final ContadoresCadastro contadores;
+    private final RegistroAlteracoes alteracoes;
+    private final int lotePadrao;
+
+    public ImportadorFornecedores(FornecedorRepository fornecedorRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  ServicoCep servicoCep,
+                                  IndiceFornecedores indiceFornecedores,
+                                  ContadoresCadastro contadores,
+                                  RegistroAlteracoes alteracoes,
+                                  @Value("${importacao.tamanho-lote:1000}") int lotePadrao) {
+        this.fornecedorRepository = fornecedorRepository;
+        this.objectMapper = objectMapper;
+        this.servicoCep = servicoCep;
+        this.indiceFornecedores = indiceFornecedores;
+        this.contadores = contadores;
+        this.alteracoes = alteracoes;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.lotePadrao = lotePadrao;
+    }
+
+    // tamanho nulo usa o padrão de importacao.tamanho-lote
+    public ResultadoImportacao importar(InputStream corpo, Formato formato, Integer tamanho) throws IOException {
+        long inicio = System.nanoTime();
+        int tamanhoLote = Math.max(1, Math.min(tamanho != null ? tamanho : lotePadrao, LOTE_MAXIMO));
+        Relatorio relatorio = new Relatorio();
+        List<Pendente> lote = new ArrayList<>(tamanhoLote);
+
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8));
+        long numero = 0;
+        LeitorCsv csv = null;
+        if (formato == Formato.CSV) {
+            csv = LeitorCsv.doCabecalho(leitor.readLine());
+            numero++;
+        }
+
+        String texto;
+        while ((texto = leitor.readLine()) != null) {
+            numero++;
+            if (texto.isBlank()) {
+                continue;
+            }
+            relatorio.linhas++;
+
+            Fornecedor fornecedor;
+            try {
+                fornecedor = csv != null ? csv.ler(texto) : objectMapper.readValue(texto, Fornecedor.class);
+            } catch (JacksonException | DateTimeParseException | IllegalArgumentException e) {
+                relatorio.erro(numero, "Linha inválida: " + e.getMessage());
+                continue;
+            }
+            // o export traz o id de cada linha; o import sempre cadastra, então o id do arquivo não vale
+            fornecedor.setId(null);
+
+            String erro = validar(fornecedor);
+            if (erro != null) {
+                relatorio.erro(numero, erro);
+                continue;
+            }
+
+            lote.add(new Pendente(numero, fornecedor));
+            if (lote.size() >= tamanhoLote) {
+                gravar(lote, relatorio);
+                lote.clear();
+            }
+        }
+        gravar(lote, relatorio);
+
+        long duracaoMs = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+        long porSegundo = relatorio.linhas * 1000 / duracaoMs;
+        log.info("Import de fornecedores: {} linhas, {} importadas, {} rejeitadas em {} ms ({} linhas/s)",
+                relatorio.linhas, relatorio.importadas, relatorio.rejeitadas, duracaoMs, porSegundo);
+
+        return new ResultadoImportacao(relatorio.linhas, relatorio.importadas, relatorio.rejeitadas,
+                duracaoMs, porSegundo, relatorio.erros, relatorio.rejeitadas > relatorio.erros.size());
+    }
+
+    // mesmas regras do cadastro unitário + limites das colunas, para um erro não derrubar o lote
+    private String validar(Fornecedor f) {
+        if (f.getCpfCnpj() != null) {
+            f.setCpfCnpj(f.getCpfCnpj().trim());
+        }
+        if (vazio(f.getNome()) || vazio(f.getCpfCnpj()) || vazio(f.getEmail())
+                || vazio(f.getCep()) || f.getTipoPessoa() == null) {
+            return "Campos obrigatórios: nome, cpfCnpj, email, cep e tipoPessoa.";
+        }
+        if (RegraPessoaFisica.faltaDocumento(f.getTipoPessoa(), f.getRg(), f.getDataNascimento())) {
+            return RegraPessoaFisica.MENSAGEM;
+        }
+        if (servicoCep.uf(f.getCep()).isEmpty()) {
+            return "CEP inválido.";
+        }
+        f.setCep(ServicoCep.normalizar(f.getCep()));
+        if (f.getCpfCnpj().length() > 14 || f.getNome().length() > 150
+                || f.getEmail().length() > 150 || (f.getRg() != null && f.getRg().length() > 20)) {
+            return "Campo maior que o permitido.";
+        }
+        return null;
+    }
+
+    private void gravar(List<Pendente> lote, Relatorio relatorio) {
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        // duplicados dentro do próprio lote: vale a primeira ocorrência
+        Map<String, Pendente> porDocumento = new LinkedHashMap<>();
+        for (Pendente p : lote) {
+            Pendente anterior = porDocumento.putIfAbsent(p.fornecedor().getCpfCnpj(), p);
+            if (anterior != null) {
+                relatorio.erro(p.linha(), "CPF/CNPJ repetido no arquivo (linha " + anterior.linha() + ").");
+            }
+        }
+
+        List<Pendente> jaCadastrados = new ArrayList<>();
+        List<Fornecedor> novos = new ArrayList<>(porDocumento.size());
+        int inseridas;
+        try {
+            inseridas = transacao.execute(status -> {
+                // lotes anteriores já foram commitados, então essa consulta também pega repetidos entre lotes
+                Set<String> existentes = new HashSet<>(
+                        fornecedorRepository.findCpfCnpjExistentes(porDocumento.keySet()));
+
+                for (Pendente p : porDocumento.values()) {
+                    if (existentes.contains(p.fornecedor().getCpfCnpj())) {
+                        jaCadastrados.add(p);
+                    } else {
+                        novos.add(p.fornecedor());
+                    }
+                }
+                int gravados = fornecedorRepository.inserirEmLote(novos);
+                alteracoes.registrar(novos.stream()
+                        .map(f -> Alteracao.fornecedor(Operacao.CRIADO, f.getId()))
+                        .toList());
+                return gravados;
+            });
+        } catch (DataAccessException e) {
+            // lote revertido inteiro (ex.: CPF/CNPJ gravado por outra requisição no meio do caminho)
+            log.warn("Lote do import revertido: {}", e.getMessage());
+            for (Pendente p : porDocumento.values()) {
+                relatorio.erro(p.linha(), "Não foi possível salvar o lote desta linha. Reenvie o trecho.");
+            }
+            return;
+        }
+
+        // só depois do commit: um lote revertido não aparece na busca nem nas estatísticas
+        indiceFornecedores.indexar(novos);
+        novos.forEach(f -> contadores.fornecedorCriado(PerfilFornecedor.de(f)));
+        relatorio.importadas += inseridas;
+        for (Pendente p : jaCadastrados) {
+            relatorio.erro(p.linha(), "Já existe fornecedor cadastrado com esse CPF/CNPJ.");
+        }
+    }
+
+    private static boolean vazio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+
+    private record Pendente(long linha, Fornecedor fornecedor) {}
+
+    private static final class Relatorio {
+        long linhas;
+        long importadas;
+        long rejeitadas;
+        final List<ErroLinha> erros = new ArrayList<>();
+
+        void erro(long linha, String mensagem) {
+            rejeitadas++;
+            if (erros.size() < MAXIMO_ERROS) {
+                erros.add(new ErroLinha(linha, mensagem));
+            }
+        }
+    }
+}
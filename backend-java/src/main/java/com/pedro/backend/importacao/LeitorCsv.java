@@ -0,0 +1,102 @@
+package com.pedro.backend.importacao;
+
+import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.model.TipoPessoa;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Converte linhas CSV em {@link Fornecedor}. A primeira linha é o cabeçalho com os nomes
+ * dos campos (nome, cpfCnpj, email, rg, dataNascimento, cep, tipoPessoa) em qualquer ordem.
+ * Aceita vírgula ou ponto e vírgula como separador e campos entre aspas.
+ */
+class LeitorCsv {
+
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final char separador;
+    private final String[] colunas;
+
+    private LeitorCsv(char separador, String[] colunas) {
+        this.separador = separador;
+        this.colunas = colunas;
+    }
+
+    static LeitorCsv doCabecalho(String cabecalho) {
+        if (cabecalho == null || cabecalho.isBlank()) {
+            throw new IllegalArgumentException("Arquivo CSV sem cabeçalho.");
+        }
+        char separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+        // arquivos salvos pelo Excel costumam começar com BOM
+        List<String> nomes = dividir(cabecalho.replace("\uFEFF", ""), separador);
+        String[] colunas = new String[nomes.size()];
+        for (int i = 0; i < colunas.length; i++) {
+            colunas[i] = nomes.get(i).trim().toLowerCase(Locale.ROOT);
+        }
+        return new LeitorCsv(separador, colunas);
+    }
+
+    Fornecedor ler(String linha) {
+        List<String> valores = dividir(linha, separador);
+        if (valores.size() != colunas.length) {
+            throw new IllegalArgumentException("Esperadas " + colunas.length
+                    + " colunas, encontradas " + valores.size() + ".");
+        }
+
+        Fornecedor f = new Fornecedor();
+        for (int i = 0; i < colunas.length; i++) {
+            String valor = valores.get(i).trim();
+            if (valor.isEmpty()) {
+                continue;
+            }
+            switch (colunas[i]) {
+                case "nome" -> f.setNome(valor);
+                case "cpfcnpj", "cpf_cnpj" -> f.setCpfCnpj(valor);
+                case "email" -> f.setEmail(valor);
+                case "rg" -> f.setRg(valor);
+                case "datanascimento", "data_nascimento" -> f.setDataNascimento(data(valor));
+                case "cep" -> f.setCep(valor);
+                case "tipopessoa", "tipo_pessoa" -> f.setTipoPessoa(TipoPessoa.valueOf(valor.toUpperCase(Locale.ROOT)));
+                default -> { } // coluna desconhecida é ignorada
+            }
+        }
+        return f;
+    }
+
+    private static LocalDate data(String valor) {
+        return valor.indexOf('/') >= 0 ? LocalDate.parse(valor, DATA_BR) : LocalDate.parse(valor);
+    }
+
+    // divide uma linha respeitando aspas ("a;b" vira um campo só, "" vira uma aspa)
+    private static List<String> dividir(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+}
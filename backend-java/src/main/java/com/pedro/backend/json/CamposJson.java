@@ -0,0 +1,60 @@
+package com.pedro.backend.json;
+
+import com.pedro.backend.model.TipoPessoa;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+
+import java.time.LocalDate;
+
+/**
+ * Peças dos escritores JSON das listagens. Os nomes dos campos e os valores de enum são
+ * {@link SerializedString} criados uma vez só: o gerador copia os bytes já escapados, sem
+ * reflexão, sem introspecção do tipo e sem montar árvore intermediária por linha.
+ * Campo nulo sai como null, igual ao Jackson padrão.
+ */
+public final class CamposJson {
+
+    private static final SerializableString[] TIPOS_PESSOA = new SerializableString[TipoPessoa.values().length];
+
+    static {
+        for (TipoPessoa tipo : TipoPessoa.values()) {
+            TIPOS_PESSOA[tipo.ordinal()] = new SerializedString(tipo.name());
+        }
+    }
+
+    private CamposJson() {}
+
+    public static SerializableString nome(String campo) {
+        return new SerializedString(campo);
+    }
+
+    public static void numero(JsonGenerator gen, SerializableString campo, Long valor) {
+        gen.writeName(campo);
+        if (valor == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(valor.longValue());
+        }
+    }
+
+    public static void texto(JsonGenerator gen, SerializableString campo, String valor) {
+        gen.writeName(campo);
+        gen.writeString(valor);
+    }
+
+    // ISO yyyy-MM-dd, o mesmo formato do módulo java.time com datas como texto
+    public static void data(JsonGenerator gen, SerializableString campo, LocalDate valor) {
+        gen.writeName(campo);
+        gen.writeString(valor == null ? null : valor.toString());
+    }
+
+    public static void tipoPessoa(JsonGenerator gen, SerializableString campo, TipoPessoa valor) {
+        gen.writeName(campo);
+        if (valor == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(TIPOS_PESSOA[valor.ordinal()]);
+        }
+    }
+}
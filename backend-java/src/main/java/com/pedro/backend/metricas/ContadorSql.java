@@ -0,0 +1,77 @@
+package com.pedro.backend.metricas;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Conta os comandos SQL que o Hibernate prepara na thread atual, entre {@link #iniciar()} e
+ * {@link #encerrar()}. Fica registrado como StatementInspector da fábrica de sessões; fora de uma
+ * contagem aberta só devolve o SQL como veio. SQL via JdbcTemplate (feed de alterações) não passa aqui.
+ * <p>
+ * A contagem não acompanha a requisição para outras threads: o que roda no consumidor da
+ * {@code FilaVinculos} ou nas consultas paralelas da {@code MontagemTelaVinculos} fica de fora.
+ * Não propagamos de propósito: a montagem da tela é compartilhada entre requisições pelo
+ * {@code CacheCurto} e a fila grava depois que a requisição já respondeu, então o SQL não seria
+ * de uma requisição só.
+ */
+@Component
+public class ContadorSql implements StatementInspector, HibernatePropertiesCustomizer {
+
+    // StatementInspector é Serializable; o estado fica no ThreadLocal, não na instância
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<Contagem> ATUAL = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> propriedades) {
+        propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Contagem contagem = ATUAL.get();
+        if (contagem != null) {
+            contagem.registrar(sql);
+        }
+        return sql;
+    }
+
+    public Contagem iniciar() {
+        Contagem contagem = new Contagem();
+        ATUAL.set(contagem);
+        return contagem;
+    }
+
+    public void encerrar() {
+        ATUAL.remove();
+    }
+
+    // só a thread da requisição mexe aqui, sem sincronização
+    public static final class Contagem {
+
+        private int total;
+        private final Map<String, Integer> porComando = new HashMap<>();
+
+        private void registrar(String sql) {
+            total++;
+            porComando.merge(sql, 1, Integer::sum);
+        }
+
+        public int total() {
+            return total;
+        }
+
+        // o comando que mais se repetiu: num N+1 é o SELECT de dentro do laço
+        public Map.Entry<String, Integer> maisRepetido() {
+            return porComando.entrySet().stream()
+                    .max(Comparator.comparingInt(Map.Entry::getValue))
+                    .orElse(null);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.pedro.backend.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Mede quantos comandos SQL cada requisição executou (http.server.requests.statements, por
+ * método e rota) e avisa no log quando passa de {@code metricas.sql-por-requisicao.alerta}:
+ * listagem que dispara um SELECT por item aparece aqui antes de aparecer no tempo de resposta.
+ * Só conta o SQL da thread da requisição (ver {@link ContadorSql}): nas rotas que delegam a
+ * outra thread, como a tela de vínculos e o vincular com fila, o número sai menor que o real.
+ */
+@Component
+public class DetectorNMaisUm extends OncePerRequestFilter {
+
+    static final String METRICA = "http.server.requests.statements";
+
+    private static final Logger log = LoggerFactory.getLogger(DetectorNMaisUm.class);
+
+    private final ContadorSql contador;
+    private final MeterRegistry registry;
+    private final int alerta;
+
+    public DetectorNMaisUm(ContadorSql contador,
+                           MeterRegistry registry,
+                           @Value("${metricas.sql-por-requisicao.alerta:25}") int alerta) {
+        this.contador = contador;
+        this.registry = registry;
+        this.alerta = alerta;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        ContadorSql.Contagem contagem = contador.iniciar();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            contador.encerrar();
+            registrar(request, contagem);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, ContadorSql.Contagem contagem) {
+        // rota com {variaveis}, não a URL: mantém a quantidade de séries sob controle
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String rota = padrao != null ? padrao.toString() : "UNKNOWN";
+
+        DistributionSummary.builder(METRICA)
+                .description("Comandos SQL executados pelo Hibernate por requisição")
+                .tag("method", request.getMethod())
+                .tag("uri", rota)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(contagem.total());
+
+        if (contagem.total() > alerta) {
+            Map.Entry<String, Integer> repetido = contagem.maisRepetido();
+            log.warn("{} {} executou {} comandos SQL (alerta acima de {}); o mais repetido ({}x): {}",
+                    request.getMethod(), rota, contagem.total(), alerta, repetido.getValue(), repetido.getKey());
+        }
+    }
+}
@@ -2,17 +2,33 @@ package com.pedro.backend.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "empresas")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "empresas")
+@NaturalIdCache(region = "empresas-cnpj")
 public class Empresa {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "empresas_id")
+    @TableGenerator(name = "empresas_id",
+            table = GeradoresId.TABELA,
+            pkColumnName = GeradoresId.COLUNA_NOME,
+            valueColumnName = GeradoresId.COLUNA_VALOR,
+            pkColumnValue = "empresas",
+            allocationSize = GeradoresId.ALOCACAO)
     private Long id;
 
+    // natural id: existsByCnpj resolve pelo cache antes de ir ao banco
+    @NaturalId(mutable = true)
     @Column(nullable = false, length = 14, unique = true)
     private String cnpj;
 
@@ -25,6 +41,12 @@ public class Empresa {
     @Column(nullable = false, length = 2)
     private String estado;
 
+    // concorrência otimista: incrementada a cada UPDATE, vira o ETag; o cliente não escreve nela
+    @Version
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long versao;
+
     @OneToMany(mappedBy = "empresa")
     @JsonIgnore   // 🔥 impede loop infinito
     private List<EmpresaFornecedor> fornecedores = new ArrayList<>();
@@ -46,6 +68,9 @@ public class Empresa {
     public String getEstado() { return estado; }
     public void setEstado(String estado) { this.estado = estado; }
 
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+
     public List<EmpresaFornecedor> getFornecedores() { return fornecedores; }
     public void setFornecedores(List<EmpresaFornecedor> fornecedores) { this.fornecedores = fornecedores; }
 }
@@ -3,11 +3,21 @@ package com.pedro.backend.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "empresas_fornecedores")
+// par único e índice inverso criados pela migração V2
+@Table(name = "empresas_fornecedores",
+        uniqueConstraints = @UniqueConstraint(name = "uk_empresas_fornecedores_par",
+                columnNames = {"empresa_id", "fornecedor_id"}),
+        indexes = @Index(name = "idx_empresas_fornecedores_fornecedor", columnList = "fornecedor_id, empresa_id"))
 public class EmpresaFornecedor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "empresas_fornecedores_id")
+    @TableGenerator(name = "empresas_fornecedores_id",
+            table = GeradoresId.TABELA,
+            pkColumnName = GeradoresId.COLUNA_NOME,
+            valueColumnName = GeradoresId.COLUNA_VALOR,
+            pkColumnValue = "empresas_fornecedores",
+            allocationSize = GeradoresId.ALOCACAO)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -2,22 +2,41 @@ package com.pedro.backend.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "fornecedores")
+@Table(name = "fornecedores", indexes = {
+        @Index(name = "idx_fornecedores_nome", columnList = "nome, id"),
+        @Index(name = "idx_fornecedores_maioridade", columnList = "data_maioridade, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "fornecedores")
+@NaturalIdCache(region = "fornecedores-cpf-cnpj")
 public class Fornecedor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "fornecedores_id")
+    @TableGenerator(name = "fornecedores_id",
+            table = GeradoresId.TABELA,
+            pkColumnName = GeradoresId.COLUNA_NOME,
+            valueColumnName = GeradoresId.COLUNA_VALOR,
+            pkColumnValue = "fornecedores",
+            allocationSize = GeradoresId.ALOCACAO)
     private Long id;
 
     @Column(nullable = false, length = 150)
     private String nome;
 
+    // natural id: existsByCpfCnpj resolve pelo cache antes de ir ao banco
+    @NaturalId(mutable = true)
     @Column(name = "cpf_cnpj", nullable = false, length = 14, unique = true)
     private String cpfCnpj;
 
@@ -37,6 +56,18 @@ public class Fornecedor {
     @Column(name = "tipo_pessoa", nullable = false)
     private TipoPessoa tipoPessoa;
 
+    // dia em que o PF faz 18 anos (null para PJ ou sem data de nascimento), recalculado pelos setters
+    // de tipoPessoa e dataNascimento: a regra do Paraná vira comparação com hoje e usa o índice
+    @Column(name = "data_maioridade")
+    @JsonIgnore
+    private LocalDate dataMaioridade;
+
+    // concorrência otimista: incrementada a cada UPDATE, vira o ETag; o cliente não escreve nela
+    @Version
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long versao;
+
     @OneToMany(mappedBy = "fornecedor")
     @JsonIgnore
     private List<EmpresaFornecedor> empresas = new ArrayList<>();
@@ -89,6 +120,7 @@ public class Fornecedor {
 
     public void setDataNascimento(LocalDate dataNascimento) {
         this.dataNascimento = dataNascimento;
+        this.dataMaioridade = calcularMaioridade(tipoPessoa, dataNascimento);
     }
 
     public String getCep() {
@@ -105,6 +137,28 @@ public class Fornecedor {
 
     public void setTipoPessoa(TipoPessoa tipoPessoa) {
         this.tipoPessoa = tipoPessoa;
+        this.dataMaioridade = calcularMaioridade(tipoPessoa, dataNascimento);
+    }
+
+    public LocalDate getDataMaioridade() {
+        return dataMaioridade;
+    }
+
+    // quem nasceu em 29/02 faz 18 anos em 01/03 (o ano dos 18 nunca é bissexto), como no Period.between
+    public static LocalDate calcularMaioridade(TipoPessoa tipoPessoa, LocalDate dataNascimento) {
+        if (tipoPessoa != TipoPessoa.PF || dataNascimento == null) {
+            return null;
+        }
+        LocalDate maioridade = dataNascimento.plusYears(18);
+        return maioridade.getDayOfMonth() == dataNascimento.getDayOfMonth() ? maioridade : maioridade.plusDays(1);
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
     }
 
     public List<EmpresaFornecedor> getEmpresas() {
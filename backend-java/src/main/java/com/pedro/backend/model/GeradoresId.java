@@ -0,0 +1,21 @@
+package com.pedro.backend.model;
+
+/**
+ * Configuração comum dos geradores de id das entidades.
+ *
+ * Os ids saem de uma tabela ({@code id_geradores}, uma linha por entidade) com otimizador
+ * pooled: cada ida ao banco reserva um bloco de {@link #ALOCACAO} ids, então o Hibernate
+ * não precisa mais inserir na hora do save() e consegue agrupar os INSERTs em batch.
+ * Funciona igual no MySQL e no H2 dos testes, que não dependem de sequence nativa.
+ */
+public final class GeradoresId {
+
+    public static final String TABELA = "id_geradores";
+    public static final String COLUNA_NOME = "gerador";
+    public static final String COLUNA_VALOR = "proximo_valor";
+
+    // tamanho do bloco reservado por ida ao banco
+    public static final int ALOCACAO = 100;
+
+    private GeradoresId() {}
+}
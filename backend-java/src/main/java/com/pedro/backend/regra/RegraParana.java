@@ -0,0 +1,31 @@
+package com.pedro.backend.regra;
+
+import com.pedro.backend.model.Empresa;
+import com.pedro.backend.model.Fornecedor;
+
+import java.time.LocalDate;
+
+/**
+ * Regra do Paraná: empresa do PR não pode ter fornecedor PF menor de 18 anos.
+ * A idade não é calculada aqui: o fornecedor guarda o dia em que faz 18 anos
+ * ({@link Fornecedor#getDataMaioridade()}), a mesma coluna que as consultas filtram no banco.
+ */
+public final class RegraParana {
+
+    public static final String MENSAGEM =
+            "Não é permitido vincular fornecedor pessoa física menor de idade a empresa do Paraná.";
+
+    private RegraParana() {}
+
+    public static boolean bloqueia(Empresa empresa, Fornecedor fornecedor, LocalDate hoje) {
+        return seAplica(empresa) && menor(fornecedor.getDataMaioridade(), hoje);
+    }
+
+    public static boolean seAplica(Empresa empresa) {
+        return "PR".equalsIgnoreCase(empresa.getEstado());
+    }
+
+    static boolean menor(LocalDate dataMaioridade, LocalDate hoje) {
+        return dataMaioridade != null && hoje.isBefore(dataMaioridade);
+    }
+}
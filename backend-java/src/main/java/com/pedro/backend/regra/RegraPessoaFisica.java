@@ -0,0 +1,20 @@
+package com.pedro.backend.regra;
+
+import com.pedro.backend.model.TipoPessoa;
+
+import java.time.LocalDate;
+
+/**
+ * Regra de cadastro: fornecedor PF precisa de RG e data de nascimento.
+ */
+public final class RegraPessoaFisica {
+
+    public static final String MENSAGEM =
+            "Para pessoa física é obrigatório informar RG e data de nascimento.";
+
+    private RegraPessoaFisica() {}
+
+    public static boolean faltaDocumento(TipoPessoa tipo, String rg, LocalDate dataNascimento) {
+        return tipo == TipoPessoa.PF && (rg == null || rg.isBlank() || dataNascimento == null);
+    }
+}
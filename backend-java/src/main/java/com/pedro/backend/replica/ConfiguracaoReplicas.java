@@ -0,0 +1,74 @@
+package com.pedro.backend.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leituras em réplicas ({@code banco.replicas.habilitado=true}). O primário continua vindo de
+ * {@code spring.datasource.*}; as réplicas de {@code banco.replicas.urls}, um pool Hikari para
+ * cada uma. O DataSource que o JPA, o Flyway e o JdbcTemplate recebem é o roteador: com um
+ * DataSource próprio no contexto, o Spring Boot não cria o dele.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "banco.replicas.habilitado", havingValue = "true")
+public class ConfiguracaoReplicas {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primario(DataSourceProperties propriedades) {
+        return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    ReplicasLeitura replicasLeitura(HikariDataSource primario,
+                                    MeterRegistry registry,
+                                    @Value("${banco.replicas.urls}") List<String> urls,
+                                    @Value("${banco.replicas.usuario:${spring.datasource.username:}}") String usuario,
+                                    @Value("${banco.replicas.senha:${spring.datasource.password:}}") String senha,
+                                    @Value("${banco.replicas.tamanho-pool:${spring.datasource.hikari.maximum-pool-size:10}}") int tamanhoPool,
+                                    @Value("${banco.replicas.espera-conexao:1s}") Duration esperaConexao,
+                                    @Value("${banco.replicas.selecao:rodizio}") ReplicasLeitura.Selecao selecao,
+                                    @Value("${banco.replicas.verificacao:5s}") Duration verificacao) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .username(usuario)
+                    .password(senha)
+                    .build();
+            pool.setPoolName("replica-" + (pools.size() + 1));
+            pool.setMaximumPoolSize(tamanhoPool);
+            pool.setReadOnly(true);
+            // réplica fora do ar não pode segurar a requisição nem impedir a subida
+            pool.setConnectionTimeout(esperaConexao.toMillis());
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            pools.add(pool);
+        }
+        return new ReplicasLeitura(pools, primario, selecao, verificacao);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(HikariDataSource primario, ReplicasLeitura replicas) {
+        RoteadorLeitura roteador = new RoteadorLeitura(primario, replicas);
+        roteador.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(roteador);
+    }
+}
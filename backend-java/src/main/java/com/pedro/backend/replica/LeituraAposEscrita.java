@@ -0,0 +1,92 @@
+package com.pedro.backend.replica;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Decide por requisição se as leituras podem ir para réplica: só GET/HEAD. Requisição que pode
+ * escrever (POST, PUT, DELETE...) fica inteira no primário, inclusive as consultas de "já existe?"
+ * antes do INSERT, e devolve um cookie com o instante até quando aquele cliente lê do primário
+ * ({@code banco.replicas.leitura-apos-escrita}): o GET logo depois do cadastro enxerga o que acabou
+ * de ser gravado mesmo com a réplica atrasada.
+ */
+@Component
+@ConditionalOnProperty(name = "banco.replicas.habilitado", havingValue = "true")
+public class LeituraAposEscrita extends OncePerRequestFilter {
+
+    static final String COOKIE = "leitura-primario-ate";
+
+    private final Duration janela;
+
+    public LeituraAposEscrita(@Value("${banco.replicas.leitura-apos-escrita:2s}") Duration janela) {
+        this.janela = janela;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        if (!leitura(request)) {
+            marcarEscrita(response);
+            chain.doFilter(request, response);
+            return;
+        }
+        if (dentroDaJanela(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        RoteadorLeitura.permitirReplica();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RoteadorLeitura.encerrar();
+        }
+    }
+
+    private static boolean leitura(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+
+    // cabeçalhos ainda não saíram: o cookie vai junto com qualquer resposta, mesmo de erro
+    private void marcarEscrita(HttpServletResponse response) {
+        if (janela.isZero()) {
+            return;
+        }
+        long ate = System.currentTimeMillis() + janela.toMillis();
+        ResponseCookie cookie = ResponseCookie.from(COOKIE, Long.toString(ate))
+                .path("/")
+                .maxAge(janela.toSeconds() + 1)
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private static boolean dentroDaJanela(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,138 @@
+package com.pedro.backend.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Os pools das réplicas de leitura vistos como um DataSource só. Cada conexão sai da próxima
+ * réplica do rodízio ou da que tem menos conexões em uso e threads esperando
+ * ({@link Selecao#MENOS_OCUPADA}). Réplica que falha ao entregar conexão sai da escolha na hora;
+ * uma verificação periódica confere todas e devolve as que voltaram. Sem nenhuma saudável,
+ * a leitura vai para o primário.
+ */
+public class ReplicasLeitura extends AbstractDataSource implements AutoCloseable {
+
+    public enum Selecao { RODIZIO, MENOS_OCUPADA }
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicasLeitura.class);
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final DataSource primario;
+    private final Selecao selecao;
+    private final AtomicInteger proxima = new AtomicInteger();
+    private final ScheduledExecutorService verificacao;
+
+    ReplicasLeitura(List<HikariDataSource> pools, DataSource primario, Selecao selecao, Duration intervalo) {
+        for (HikariDataSource pool : pools) {
+            replicas.add(new Replica(pool));
+        }
+        this.primario = primario;
+        this.selecao = selecao;
+        this.verificacao = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("replicas-verificacao").daemon().factory());
+        verificacao.scheduleWithFixedDelay(this::verificar, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Leituras em {} réplica(s), seleção {}, verificação a cada {}", pools.size(), selecao, intervalo);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        for (Replica replica : candidatas()) {
+            try {
+                return replica.pool.getConnection();
+            } catch (SQLException e) {
+                replica.marcar(false, e);
+            }
+        }
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("réplicas usam o usuário configurado em banco.replicas");
+    }
+
+    // réplicas saudáveis na ordem em que devem ser tentadas
+    private List<Replica> candidatas() {
+        List<Replica> saudaveis = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.saudavel) {
+                saudaveis.add(replica);
+            }
+        }
+        if (saudaveis.size() > 1) {
+            if (selecao == Selecao.MENOS_OCUPADA) {
+                saudaveis.sort(Comparator.comparingInt(Replica::ocupacao));
+            } else {
+                // o ponto de partida anda uma casa a cada conexão; as seguintes ficam de reserva
+                Collections.rotate(saudaveis, -Math.floorMod(proxima.getAndIncrement(), saudaveis.size()));
+            }
+        }
+        return saudaveis;
+    }
+
+    void verificar() {
+        for (Replica replica : replicas) {
+            try (Connection conexao = replica.pool.getConnection()) {
+                replica.marcar(conexao.isValid(2), null);
+            } catch (SQLException e) {
+                replica.marcar(false, e);
+            }
+        }
+    }
+
+    int saudaveis() {
+        return (int) replicas.stream().filter(r -> r.saudavel).count();
+    }
+
+    @Override
+    public void close() {
+        verificacao.shutdownNow();
+        replicas.forEach(r -> r.pool.close());
+    }
+
+    private static final class Replica {
+
+        final HikariDataSource pool;
+        volatile boolean saudavel = true;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        // conexões em uso mais threads na fila do pool; pool ainda não iniciado conta como vazio
+        int ocupacao() {
+            HikariPoolMXBean mx = pool.getHikariPoolMXBean();
+            return mx == null ? 0 : mx.getActiveConnections() + mx.getThreadsAwaitingConnection();
+        }
+
+        void marcar(boolean ok, SQLException erro) {
+            if (ok == saudavel) {
+                return;
+            }
+            saudavel = ok;
+            if (ok) {
+                log.info("Réplica {} voltou para as leituras", pool.getPoolName());
+            } else {
+                log.warn("Réplica {} fora das leituras: {}", pool.getPoolName(),
+                        erro != null ? erro.getMessage() : "conexão inválida");
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.pedro.backend.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Escolhe, a cada conexão, entre o primário e as réplicas. Vai para réplica só transação
+ * {@code readOnly} aberta numa requisição de leitura liberada pelo {@link LeituraAposEscrita};
+ * todo o resto (escritas, checagens de duplicidade antes do INSERT, threads de fundo, carga
+ * dos índices na subida) fica no primário.
+ *
+ * Fica atrás de um {@code LazyConnectionDataSourceProxy}: o gerenciador de transação pede a
+ * conexão antes de marcar a transação como somente leitura, e o proxy só busca a conexão de
+ * verdade no primeiro comando, quando a marca já está lá.
+ */
+class RoteadorLeitura extends AbstractRoutingDataSource {
+
+    static final String PRIMARIO = "primario";
+    static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> REPLICA_PERMITIDA = new ThreadLocal<>();
+
+    RoteadorLeitura(DataSource primario, DataSource replicas) {
+        setTargetDataSources(Map.of(PRIMARIO, primario, REPLICA, replicas));
+        setDefaultTargetDataSource(primario);
+    }
+
+    static void permitirReplica() {
+        REPLICA_PERMITIDA.set(Boolean.TRUE);
+    }
+
+    static void encerrar() {
+        REPLICA_PERMITIDA.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (REPLICA_PERMITIDA.get() != null && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return REPLICA;
+        }
+        return PRIMARIO;
+    }
+}
@@ -1,29 +1,58 @@
 package com.pedro.backend.repository;
 
+import com.pedro.backend.dto.FornecedorVinculado;
 import com.pedro.backend.model.Empresa;
 import com.pedro.backend.model.EmpresaFornecedor;
 import com.pedro.backend.model.Fornecedor;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface EmpresaFornecedorRepository extends JpaRepository<EmpresaFornecedor, Long> {
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+public interface EmpresaFornecedorRepository extends JpaRepository<EmpresaFornecedor, Long>,
+        EmpresaFornecedorRepositoryCustom {
 
     // verifica se já existe um vínculo específico empresa ↔ fornecedor
     boolean existsByEmpresaAndFornecedor(Empresa empresa, Fornecedor fornecedor);
 
-    // lista todos os fornecedores de uma empresa
-    @Query("SELECT ef.fornecedor FROM EmpresaFornecedor ef WHERE ef.empresa.id = :empresaId")
-    List<Fornecedor> findFornecedoresByEmpresaId(@Param("empresaId") Long empresaId);
+    // dentre os ids informados, quais já estão vinculados à empresa (usado no vínculo em lote)
+    @Query("SELECT ef.fornecedor.id FROM EmpresaFornecedor ef "
+            + "WHERE ef.empresa.id = :empresaId AND ef.fornecedor.id IN :fornecedorIds")
+    List<Long> findFornecedorIdsVinculados(@Param("empresaId") Long empresaId,
+                                           @Param("fornecedorIds") Collection<Long> fornecedorIds);
+
+    // fornecedores de uma empresa, paginados: projeção só com as colunas da tela de vínculos
+    @Query(value = "SELECT new com.pedro.backend.dto.FornecedorVinculado("
+            + "f.id, f.nome, f.cpfCnpj, f.email, f.tipoPessoa, f.versao) "
+            + "FROM Fornecedor f JOIN f.empresas ef WHERE ef.empresa.id = :empresaId",
+            countQuery = "SELECT COUNT(ef) FROM EmpresaFornecedor ef WHERE ef.empresa.id = :empresaId")
+    Page<FornecedorVinculado> findFornecedoresByEmpresaId(@Param("empresaId") Long empresaId, Pageable pageable);
 
-    // usados na hora de excluir em cascata (empresa ou fornecedor)
     boolean existsByEmpresa(Empresa empresa);
     boolean existsByFornecedor(Fornecedor fornecedor);
 
-    void deleteAllByEmpresa(Empresa empresa);
-    void deleteAllByFornecedor(Fornecedor fornecedor);
+    // exclusão em cascata: DELETE direto na tabela de junção, sem carregar os vínculos.
+    // O LIMIT apaga em fatias para cada transação segurar os locks por pouco tempo.
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "empresas_fornecedores"))
+    @Query(value = "DELETE FROM empresas_fornecedores WHERE empresa_id IN :empresaIds LIMIT :limite",
+            nativeQuery = true)
+    int excluirFatiaPorEmpresas(@Param("empresaIds") Collection<Long> empresaIds, @Param("limite") int limite);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "empresas_fornecedores"))
+    @Query(value = "DELETE FROM empresas_fornecedores WHERE fornecedor_id IN :fornecedorIds LIMIT :limite",
+            nativeQuery = true)
+    int excluirFatiaPorFornecedores(@Param("fornecedorIds") Collection<Long> fornecedorIds, @Param("limite") int limite);
 
     
     void deleteByEmpresaAndFornecedor(Empresa empresa, Fornecedor fornecedor);
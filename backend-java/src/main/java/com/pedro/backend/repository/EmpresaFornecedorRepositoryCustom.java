@@ -0,0 +1,16 @@
+package com.pedro.backend.repository;
+
+import com.pedro.backend.dto.VinculoExportado;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+// operações em lote do vínculo e leitura em streaming
+public interface EmpresaFornecedorRepositoryCustom {
+
+    // insere os pares (empresa, fornecedor) com batch JDBC; devolve quantas linhas entraram
+    int inserirEmLote(Long empresaId, Collection<Long> fornecedorIds);
+
+    // export e carga do grafo: só os ids do vínculo, sem hidratar empresa/fornecedor
+    Stream<VinculoExportado> streamVinculos();
+}
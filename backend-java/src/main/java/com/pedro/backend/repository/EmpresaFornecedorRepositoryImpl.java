@@ -0,0 +1,61 @@
+package com.pedro.backend.repository;
+
+import com.pedro.backend.dto.VinculoExportado;
+import com.pedro.backend.model.Empresa;
+import com.pedro.backend.model.EmpresaFornecedor;
+import com.pedro.backend.model.Fornecedor;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+class EmpresaFornecedorRepositoryImpl implements EmpresaFornecedorRepositoryCustom {
+
+    // a cada quantos vínculos o contexto é descarregado (múltiplo de hibernate.jdbc.batch_size)
+    static final int TAMANHO_BATCH = 1000;
+
+    private final EntityManager entityManager;
+    private final int fetchSizeStreaming;
+
+    EmpresaFornecedorRepositoryImpl(EntityManager entityManager,
+                                    @Value("${banco.streaming.fetch-size:1000}") int fetchSizeStreaming) {
+        this.entityManager = entityManager;
+        this.fetchSizeStreaming = fetchSizeStreaming;
+    }
+
+    @Override
+    public int inserirEmLote(Long empresaId, Collection<Long> fornecedorIds) {
+        // referências só com o id: nenhum SELECT de empresa/fornecedor
+        Empresa empresa = entityManager.getReference(Empresa.class, empresaId);
+        int inseridas = 0;
+
+        for (Long fornecedorId : fornecedorIds) {
+            EmpresaFornecedor vinculo = new EmpresaFornecedor();
+            vinculo.setEmpresa(empresa);
+            vinculo.setFornecedor(entityManager.getReference(Fornecedor.class, fornecedorId));
+            entityManager.persist(vinculo);
+
+            if (++inseridas % TAMANHO_BATCH == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                empresa = entityManager.getReference(Empresa.class, empresaId);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return inseridas;
+    }
+
+    @Override
+    public Stream<VinculoExportado> streamVinculos() {
+        return entityManager.createQuery("SELECT new com.pedro.backend.dto.VinculoExportado("
+                        + "ef.id, ef.empresa.id, ef.fornecedor.id) "
+                        + "FROM EmpresaFornecedor ef ORDER BY ef.id", VinculoExportado.class)
+                .setHint(HINT_FETCH_SIZE, fetchSizeStreaming)
+                .getResultStream();
+    }
+}
@@ -1,11 +1,47 @@
 package com.pedro.backend.repository;
 
+import com.pedro.backend.dto.Contagem;
+import com.pedro.backend.dto.EmpresaListada;
+import com.pedro.backend.dto.Opcao;
 import com.pedro.backend.model.Empresa;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface EmpresaRepository extends JpaRepository<Empresa, Long> {
+import java.util.Collection;
+import java.util.List;
+
+public interface EmpresaRepository extends JpaRepository<Empresa, Long>, EmpresaRepositoryCustom {
 
     boolean existsById(Long id);
 
-    boolean existsByCnpj(String cnpj);
+    @Query("SELECT e.id FROM Empresa e WHERE e.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    // estado de cada empresa do bloco, lido antes da exclusão para baixar os contadores
+    @Query("SELECT e.estado FROM Empresa e WHERE e.id IN :ids")
+    List<String> findEstados(@Param("ids") Collection<Long> ids);
+
+    // contagem inicial das estatísticas
+    @Query("SELECT new com.pedro.backend.dto.Contagem(e.estado, COUNT(e)) FROM Empresa e GROUP BY e.estado")
+    List<Contagem> contarPorEstado();
+
+    // exclusão em massa (os vínculos já foram apagados); o Hibernate invalida a região do cache
+    @Modifying
+    @Query("DELETE FROM Empresa e WHERE e.id IN :ids")
+    int excluirPorIds(@Param("ids") Collection<Long> ids);
+
+    // listagem: projeção com as colunas do JSON, sem hidratar entidades (readOnly: num GET pode ler de réplica)
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.pedro.backend.dto.EmpresaListada(e.id, e.cnpj, e.nomeFantasia, e.cep, e.estado, e.versao) "
+            + "FROM Empresa e ORDER BY e.id")
+    List<EmpresaListada> listarTodas();
+
+    // id e nome fantasia para o select da tela de vínculos (as primeiras pelo id)
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.pedro.backend.dto.Opcao(e.id, e.nomeFantasia) FROM Empresa e ORDER BY e.id")
+    List<Opcao> listarOpcoes(Limit limit);
 }
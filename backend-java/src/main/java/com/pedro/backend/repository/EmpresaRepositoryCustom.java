@@ -0,0 +1,16 @@
+package com.pedro.backend.repository;
+
+import com.pedro.backend.dto.EmpresaListada;
+
+import java.util.stream.Stream;
+
+// consultas de empresa que passam pelo cache de natural id do Hibernate e leitura em streaming
+public interface EmpresaRepositoryCustom {
+
+    // usado para validar CNPJ duplicado
+    boolean existsByCnpj(String cnpj);
+
+    // export: lê a tabela inteira em streaming (precisa de transação aberta); projeção,
+    // então nada entra no contexto de persistência nem no cache de segundo nível
+    Stream<EmpresaListada> streamTodas();
+}
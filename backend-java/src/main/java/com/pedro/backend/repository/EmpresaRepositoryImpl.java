@@ -0,0 +1,45 @@
+package com.pedro.backend.repository;
+
+import com.pedro.backend.dto.EmpresaListada;
+import com.pedro.backend.model.Empresa;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+class EmpresaRepositoryImpl implements EmpresaRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final int fetchSizeStreaming;
+
+    EmpresaRepositoryImpl(EntityManager entityManager,
+                          @Value("${banco.streaming.fetch-size:1000}") int fetchSizeStreaming) {
+        this.entityManager = entityManager;
+        this.fetchSizeStreaming = fetchSizeStreaming;
+    }
+
+    // só resolve cnpj -> id (cache de natural id, ou SELECT só do id pelo índice único);
+    // getReference devolve um proxy sem carregar a empresa
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByCnpj(String cnpj) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Empresa.class)
+                .getReference(cnpj) != null;
+    }
+
+    @Override
+    public Stream<EmpresaListada> streamTodas() {
+        return entityManager.createQuery("SELECT new com.pedro.backend.dto.EmpresaListada("
+                        + "e.id, e.cnpj, e.nomeFantasia, e.cep, e.estado, e.versao) "
+                        + "FROM Empresa e ORDER BY e.id", EmpresaListada.class)
+                .setHint(HINT_FETCH_SIZE, fetchSizeStreaming)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
@@ -1,11 +1,23 @@
 package com.pedro.backend.repository;
 
+import com.pedro.backend.dto.Contagem;
+import com.pedro.backend.dto.FornecedorListado;
+import com.pedro.backend.dto.Opcao;
+import com.pedro.backend.dto.PerfilFornecedor;
 import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.model.TipoPessoa;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
-public interface FornecedorRepository extends JpaRepository<Fornecedor, Long> {
+public interface FornecedorRepository extends JpaRepository<Fornecedor, Long>, FornecedorRepositoryCustom {
 
     List<Fornecedor> findByNomeContainingIgnoreCase(String nome);
 
@@ -13,9 +25,170 @@ public interface FornecedorRepository extends JpaRepository<Fornecedor, Long> {
 
     List<Fornecedor> findByNomeContainingIgnoreCaseAndCpfCnpj(String nome, String cpfCnpj);
 
-    // usado para validar CPF/CNPJ duplicado
-    boolean existsByCpfCnpj(String cpfCnpj);
+    // listagem paginada por cursor: só linhas com id > cursor, filtros nulos são ignorados.
+    // Nome e CPF/CNPJ chegam como padrões LIKE já escapados (o controller decide entre trecho
+    // e prefixo; só o prefixo usa o índice da coluna). Sem LOWER() porque a collation do MySQL
+    // já compara sem diferenciar maiúsculas.
+    // Projeção: a página não hidrata entidades nem grava no cache de segundo nível.
+    // readOnly: num GET pode ler de réplica (banco.replicas); o mesmo nas consultas de listagem abaixo
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new com.pedro.backend.dto.FornecedorListado(
+                f.id, f.nome, f.cpfCnpj, f.email, f.rg, f.dataNascimento, f.cep, f.tipoPessoa, f.versao)
+            FROM Fornecedor f
+            WHERE f.id > :cursor
+              AND (:padraoNome IS NULL OR f.nome LIKE :padraoNome ESCAPE '!')
+              AND (:padraoCpfCnpj IS NULL OR f.cpfCnpj LIKE :padraoCpfCnpj ESCAPE '!')
+              AND (:tipoPessoa IS NULL OR f.tipoPessoa = :tipoPessoa)
+            ORDER BY f.id
+            """)
+    List<FornecedorListado> buscarPagina(@Param("cursor") long cursor,
+                                         @Param("padraoNome") String padraoNome,
+                                         @Param("padraoCpfCnpj") String padraoCpfCnpj,
+                                         @Param("tipoPessoa") TipoPessoa tipoPessoa,
+                                         Limit limit);
+
+    // fornecedores que a empresa ainda pode receber, por cursor: sem vínculo com ela
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new com.pedro.backend.dto.FornecedorListado(
+                f.id, f.nome, f.cpfCnpj, f.email, f.rg, f.dataNascimento, f.cep, f.tipoPessoa, f.versao)
+            FROM Fornecedor f
+            WHERE f.id > :cursor
+              AND NOT EXISTS (SELECT 1 FROM EmpresaFornecedor ef
+                              WHERE ef.empresa.id = :empresaId AND ef.fornecedor.id = f.id)
+            ORDER BY f.id
+            """)
+    List<FornecedorListado> buscarElegiveis(@Param("empresaId") long empresaId,
+                                            @Param("cursor") long cursor,
+                                            Limit limit);
+
+    // o mesmo para empresa do PR: também sem PF que ainda não fez 18 anos. Consulta separada em vez
+    // de ":hoje IS NULL OR ...", que o otimizador não consegue resolver antes de ver o valor
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new com.pedro.backend.dto.FornecedorListado(
+                f.id, f.nome, f.cpfCnpj, f.email, f.rg, f.dataNascimento, f.cep, f.tipoPessoa, f.versao)
+            FROM Fornecedor f
+            WHERE f.id > :cursor
+              AND (f.dataMaioridade IS NULL OR f.dataMaioridade <= :hoje)
+              AND NOT EXISTS (SELECT 1 FROM EmpresaFornecedor ef
+                              WHERE ef.empresa.id = :empresaId AND ef.fornecedor.id = f.id)
+            ORDER BY f.id
+            """)
+    List<FornecedorListado> buscarElegiveisSemMenores(@Param("empresaId") long empresaId,
+                                                      @Param("hoje") LocalDate hoje,
+                                                      @Param("cursor") long cursor,
+                                                      Limit limit);
+
+    // selects da tela de vínculos: id e nome dos primeiros pelo id, todos ou só os que a empresa
+    // pode receber (mesmo filtro de buscarElegiveis), com o nome filtrado por padraoNome ("%" = todos)
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new com.pedro.backend.dto.Opcao(f.id, f.nome)
+            FROM Fornecedor f
+            WHERE f.nome LIKE :padraoNome ESCAPE '!'
+            ORDER BY f.id
+            """)
+    List<Opcao> listarOpcoes(@Param("padraoNome") String padraoNome, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new com.pedro.backend.dto.Opcao(f.id, f.nome)
+            FROM Fornecedor f
+            WHERE f.nome LIKE :padraoNome ESCAPE '!'
+              AND NOT EXISTS (SELECT 1 FROM EmpresaFornecedor ef
+                              WHERE ef.empresa.id = :empresaId AND ef.fornecedor.id = f.id)
+            ORDER BY f.id
+            """)
+    List<Opcao> listarOpcoesElegiveis(@Param("empresaId") long empresaId,
+                                      @Param("padraoNome") String padraoNome,
+                                      Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new com.pedro.backend.dto.Opcao(f.id, f.nome)
+            FROM Fornecedor f
+            WHERE f.nome LIKE :padraoNome ESCAPE '!'
+              AND (f.dataMaioridade IS NULL OR f.dataMaioridade <= :hoje)
+              AND NOT EXISTS (SELECT 1 FROM EmpresaFornecedor ef
+                              WHERE ef.empresa.id = :empresaId AND ef.fornecedor.id = f.id)
+            ORDER BY f.id
+            """)
+    List<Opcao> listarOpcoesElegiveisSemMenores(@Param("empresaId") long empresaId,
+                                                @Param("hoje") LocalDate hoje,
+                                                @Param("padraoNome") String padraoNome,
+                                                Limit limit);
+
+    // PF que ainda não fizeram 18 anos, na ordem do índice (data_maioridade, id): cada página é uma
+    // faixa do índice que para no limite, sem ordenar todos os menores. A primeira página começa
+    // depois de hoje; as seguintes, depois do (data, id) da última linha lida.
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new com.pedro.backend.dto.FornecedorListado(
+                f.id, f.nome, f.cpfCnpj, f.email, f.rg, f.dataNascimento, f.cep, f.tipoPessoa, f.versao)
+            FROM Fornecedor f
+            WHERE f.dataMaioridade > :hoje
+            ORDER BY f.dataMaioridade, f.id
+            """)
+    List<FornecedorListado> buscarMenores(@Param("hoje") LocalDate hoje, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new com.pedro.backend.dto.FornecedorListado(
+                f.id, f.nome, f.cpfCnpj, f.email, f.rg, f.dataNascimento, f.cep, f.tipoPessoa, f.versao)
+            FROM Fornecedor f
+            WHERE f.dataMaioridade > :hoje
+              AND (f.dataMaioridade > :data OR (f.dataMaioridade = :data AND f.id > :id))
+            ORDER BY f.dataMaioridade, f.id
+            """)
+    List<FornecedorListado> buscarMenoresDepoisDe(@Param("hoje") LocalDate hoje,
+                                                  @Param("data") LocalDate data,
+                                                  @Param("id") long id,
+                                                  Limit limit);
+
+    // dentre os ids, os PF que ainda não fizeram 18 anos (vínculo em lote com empresa do PR)
+    @Query("SELECT f.id FROM Fornecedor f WHERE f.id IN :ids AND f.dataMaioridade > :hoje")
+    List<Long> findIdsMenores(@Param("ids") Collection<Long> ids, @Param("hoje") LocalDate hoje);
+
+    // checagem de CPF/CNPJ duplicado em lote (import): quais desses documentos já estão cadastrados
+    @Query("SELECT f.cpfCnpj FROM Fornecedor f WHERE f.cpfCnpj IN :documentos")
+    List<String> findCpfCnpjExistentes(@Param("documentos") Collection<String> documentos);
+
     boolean existsById(Long id);
 
-    
+    @Query("SELECT f.id FROM Fornecedor f WHERE f.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    // perfil de cada fornecedor do bloco, lido antes da exclusão para baixar os contadores
+    @Query("SELECT new com.pedro.backend.dto.PerfilFornecedor(f.tipoPessoa, f.cep, f.dataMaioridade) "
+            + "FROM Fornecedor f WHERE f.id IN :ids")
+    List<PerfilFornecedor> findPerfis(@Param("ids") Collection<Long> ids);
+
+    // contagens iniciais das estatísticas (uma vez na subida ou numa recontagem)
+    @Query("SELECT new com.pedro.backend.dto.Contagem(f.tipoPessoa, COUNT(f)) FROM Fornecedor f GROUP BY f.tipoPessoa")
+    List<Contagem> contarPorTipo();
+
+    @Query("SELECT new com.pedro.backend.dto.Contagem(f.cep, COUNT(f)) FROM Fornecedor f GROUP BY f.cep")
+    List<Contagem> contarPorCep();
+
+    // PF que ainda não fizeram 18 anos, por dia em que fazem: faixa no índice de data_maioridade
+    @Query("SELECT new com.pedro.backend.dto.Contagem(f.dataMaioridade, COUNT(f)) FROM Fornecedor f "
+            + "WHERE f.dataMaioridade > :hoje GROUP BY f.dataMaioridade")
+    List<Contagem> contarMenoresPorMaioridade(@Param("hoje") LocalDate hoje);
+
+    // exclusão em massa (os vínculos já foram apagados); o Hibernate invalida a região do cache
+    @Modifying
+    @Query("DELETE FROM Fornecedor f WHERE f.id IN :ids")
+    int excluirPorIds(@Param("ids") Collection<Long> ids);
+
+    // % e _ digitados valem como texto, não como curinga (o ESCAPE das consultas é '!')
+    static String padraoLike(String valor, boolean emQualquerPosicao) {
+        if (valor == null) {
+            return null;
+        }
+        String escapado = valor.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return (emQualquerPosicao ? "%" : "") + escapado + "%";
+    }
+
 }
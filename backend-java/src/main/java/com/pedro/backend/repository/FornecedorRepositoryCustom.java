@@ -0,0 +1,25 @@
+package com.pedro.backend.repository;
+
+import com.pedro.backend.dto.FornecedorIndexado;
+import com.pedro.backend.dto.FornecedorListado;
+import com.pedro.backend.model.Fornecedor;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// operações em lote de fornecedor, leituras em streaming e consultas que passam pelo cache de natural id
+public interface FornecedorRepositoryCustom {
+
+    // usado para validar CPF/CNPJ duplicado
+    boolean existsByCpfCnpj(String cpfCnpj);
+
+    // insere os fornecedores com batch JDBC; devolve quantas linhas entraram
+    int inserirEmLote(List<Fornecedor> fornecedores);
+
+    // export: lê a tabela inteira em streaming (precisa de transação aberta); projeção,
+    // então nada entra no contexto de persistência nem no cache de segundo nível
+    Stream<FornecedorListado> streamTodos();
+
+    // carga do índice de busca: só as colunas indexadas, mesmo streaming do export
+    Stream<FornecedorIndexado> streamIndexaveis();
+}
@@ -0,0 +1,77 @@
+package com.pedro.backend.repository;
+
+import com.pedro.backend.dto.FornecedorIndexado;
+import com.pedro.backend.dto.FornecedorListado;
+import com.pedro.backend.model.Fornecedor;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+class FornecedorRepositoryImpl implements FornecedorRepositoryCustom {
+
+    // a cada quantos fornecedores o contexto é descarregado (múltiplo de hibernate.jdbc.batch_size)
+    static final int TAMANHO_BATCH = 1000;
+
+    private final EntityManager entityManager;
+    private final int fetchSizeStreaming;
+
+    FornecedorRepositoryImpl(EntityManager entityManager,
+                             @Value("${banco.streaming.fetch-size:1000}") int fetchSizeStreaming) {
+        this.entityManager = entityManager;
+        this.fetchSizeStreaming = fetchSizeStreaming;
+    }
+
+    // só resolve cpfCnpj -> id (cache de natural id, ou SELECT só do id pelo índice único);
+    // getReference devolve um proxy sem carregar a fornecedor
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByCpfCnpj(String cpfCnpj) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Fornecedor.class)
+                .getReference(cpfCnpj) != null;
+    }
+
+    @Override
+    public int inserirEmLote(List<Fornecedor> fornecedores) {
+        int inseridas = 0;
+
+        for (Fornecedor fornecedor : fornecedores) {
+            entityManager.persist(fornecedor);
+
+            if (++inseridas % TAMANHO_BATCH == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return inseridas;
+    }
+
+    @Override
+    public Stream<FornecedorListado> streamTodos() {
+        return entityManager.createQuery("SELECT new com.pedro.backend.dto.FornecedorListado("
+                        + "f.id, f.nome, f.cpfCnpj, f.email, f.rg, f.dataNascimento, f.cep, f.tipoPessoa, f.versao) "
+                        + "FROM Fornecedor f ORDER BY f.id", FornecedorListado.class)
+                .setHint(HINT_FETCH_SIZE, fetchSizeStreaming)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<FornecedorIndexado> streamIndexaveis() {
+        return entityManager.createQuery("SELECT new com.pedro.backend.dto.FornecedorIndexado(f.id, f.nome, f.cpfCnpj, f.email) "
+                        + "FROM Fornecedor f ORDER BY f.id", FornecedorIndexado.class)
+                .setHint(HINT_FETCH_SIZE, fetchSizeStreaming)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
@@ -0,0 +1,164 @@
+package com.pedro.backend.vinculo;
+
+import com.pedro.backend.dto.ResultadoVinculoLote.Item;
+import com.pedro.backend.dto.ResultadoVinculoLote.Status;
+import com.pedro.backend.model.Empresa;
+import com.pedro.backend.repository.EmpresaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Escrita agrupada de vínculos ({@code vinculos.escrita-agrupada.habilitada=true}).
+ *
+ * Cada pedido de vínculo entra na fila da partição da sua empresa. Um único consumidor por
+ * partição junta o que chegou em micro-lotes, agrupa por empresa e grava cada grupo numa
+ * transação com {@link VinculacaoEmLote}: uma leitura da empresa, um IN de fornecedores e
+ * vínculos existentes e um INSERT em batch, em vez de uma transação por requisição.
+ *
+ * Como a empresa sempre cai na mesma partição, dois pedidos para o mesmo par não disputam a chave
+ * única: o segundo já enxerga o primeiro. Partições diferentes gravam em paralelo.
+ */
+@Component
+@ConditionalOnProperty(name = "vinculos.escrita-agrupada.habilitada", havingValue = "true")
+public class FilaVinculos implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(FilaVinculos.class);
+
+    private final EmpresaRepository empresaRepository;
+    private final VinculacaoEmLote vinculacao;
+    private final TransactionTemplate transacao;
+    private final int loteMaximo;
+    private final Particao[] particoes;
+
+    public FilaVinculos(EmpresaRepository empresaRepository,
+                        VinculacaoEmLote vinculacao,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${vinculos.escrita-agrupada.particoes:4}") int particoes,
+                        @Value("${vinculos.escrita-agrupada.capacidade:10000}") int capacidade,
+                        @Value("${vinculos.escrita-agrupada.lote-maximo:500}") int loteMaximo) {
+        this.empresaRepository = empresaRepository;
+        this.vinculacao = vinculacao;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.loteMaximo = Math.max(1, loteMaximo);
+        this.particoes = new Particao[Math.max(1, particoes)];
+        for (int i = 0; i < this.particoes.length; i++) {
+            this.particoes[i] = new Particao(i, capacidade);
+        }
+        log.info("Escrita agrupada de vínculos ativa: {} partições, até {} pedidos por lote",
+                this.particoes.length, this.loteMaximo);
+    }
+
+    // fila da partição cheia: RejectedExecutionException na hora, para o cliente tentar de novo
+    public CompletableFuture<Status> vincular(long empresaId, long fornecedorId) {
+        Pedido pedido = new Pedido(empresaId, fornecedorId, new CompletableFuture<>());
+        Particao particao = particoes[Math.floorMod(Long.hashCode(empresaId), particoes.length)];
+        if (!particao.fila.offer(pedido)) {
+            throw new RejectedExecutionException("Fila de vínculos cheia.");
+        }
+        return pedido.resultado();
+    }
+
+    @Override
+    public void destroy() {
+        for (Particao particao : particoes) {
+            particao.consumidor.interrupt();
+        }
+        for (Particao particao : particoes) {
+            List<Pedido> pendentes = new ArrayList<>();
+            particao.fila.drainTo(pendentes);
+            pendentes.forEach(p -> p.resultado().completeExceptionally(
+                    new CancellationException("Aplicação encerrando.")));
+        }
+    }
+
+    private void processar(List<Pedido> lote) {
+        Map<Long, List<Pedido>> porEmpresa = new LinkedHashMap<>();
+        for (Pedido pedido : lote) {
+            porEmpresa.computeIfAbsent(pedido.empresaId(), id -> new ArrayList<>()).add(pedido);
+        }
+        porEmpresa.forEach(this::gravar);
+    }
+
+    private void gravar(long empresaId, List<Pedido> pedidos) {
+        List<Long> fornecedorIds = pedidos.stream().map(Pedido::fornecedorId).toList();
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                List<Item> itens = transacao.execute(status -> {
+                    Empresa empresa = empresaRepository.findById(empresaId).orElse(null);
+                    return empresa == null ? null : vinculacao.vincular(empresa, fornecedorIds);
+                });
+                for (int i = 0; i < pedidos.size(); i++) {
+                    pedidos.get(i).resultado().complete(
+                            itens == null ? Status.EMPRESA_NAO_ENCONTRADA : itens.get(i).status());
+                }
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // par gravado por outro caminho (vínculo em lote, outra instância) entre a leitura e o
+                // INSERT: a segunda tentativa já o vê como vinculado
+                if (tentativa < 2) {
+                    continue;
+                }
+                falhar(pedidos, e);
+                return;
+            } catch (RuntimeException e) {
+                falhar(pedidos, e);
+                return;
+            }
+        }
+    }
+
+    private static void falhar(List<Pedido> pedidos, RuntimeException e) {
+        log.warn("Lote de {} vínculos não gravado: {}", pedidos.size(), e.getMessage());
+        pedidos.forEach(p -> p.resultado().completeExceptionally(e));
+    }
+
+    private final class Particao implements Runnable {
+
+        private final BlockingQueue<Pedido> fila;
+        private final Thread consumidor;
+
+        private Particao(int indice, int capacidade) {
+            this.fila = new ArrayBlockingQueue<>(Math.max(1, capacidade));
+            this.consumidor = Thread.ofPlatform().daemon().name("vinculos-" + indice).start(this);
+        }
+
+        @Override
+        public void run() {
+            List<Pedido> lote = new ArrayList<>(loteMaximo);
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    // espera o primeiro e leva junto o que já estiver na fila
+                    lote.add(fila.take());
+                    fila.drainTo(lote, loteMaximo - 1);
+                    processar(lote);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    log.error("Falha inesperada na fila de vínculos", e);
+                    lote.forEach(p -> p.resultado().completeExceptionally(e));
+                } finally {
+                    lote.clear();
+                }
+            }
+        }
+    }
+
+    private record Pedido(long empresaId, long fornecedorId, CompletableFuture<Status> resultado) {}
+}
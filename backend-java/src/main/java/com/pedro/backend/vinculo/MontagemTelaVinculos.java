@@ -0,0 +1,127 @@
+package com.pedro.backend.vinculo;
+
+import com.pedro.backend.alteracao.RegistroAlteracoes;
+import com.pedro.backend.cache.CacheCurto;
+import com.pedro.backend.dto.FornecedorVinculado;
+import com.pedro.backend.dto.Opcao;
+import com.pedro.backend.dto.Pagina;
+import com.pedro.backend.dto.TelaVinculos;
+import com.pedro.backend.model.Empresa;
+import com.pedro.backend.regra.RegraParana;
+import com.pedro.backend.repository.EmpresaFornecedorRepository;
+import com.pedro.backend.repository.EmpresaRepository;
+import com.pedro.backend.repository.FornecedorRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+/**
+ * Monta a resposta da tela de vínculos. As três partes (empresas, fornecedores do select e
+ * página de vinculados) saem de consultas independentes, feitas em paralelo, e ficam num
+ * {@link CacheCurto} que qualquer escrita commitada invalida: depois de vincular, o
+ * redirecionamento da tela já vê o vínculo novo.
+ * Os selects trazem no máximo {@code vinculos.tela.maximo-opcoes} itens (os primeiros pelo id);
+ * com mais fornecedores que isso, a tela filtra pelo nome em vez de baixar a tabela inteira.
+ */
+@Component
+public class MontagemTelaVinculos {
+
+    private static final int MAXIMO_ENTRADAS = 1000;
+    private static final long TODOS = 0L;
+
+    private record ChavePagina(long empresaId, PageRequest pagina) {}
+
+    // empresaId TODOS = sem empresa selecionada; padraoNome "%" = sem busca
+    private record ChaveOpcoes(long empresaId, String padraoNome) {}
+
+    private final EmpresaRepository empresaRepository;
+    private final FornecedorRepository fornecedorRepository;
+    private final EmpresaFornecedorRepository empresaFornecedorRepository;
+    private final TaskExecutor executor;
+    private final int maximoOpcoes;
+
+    private final CacheCurto<Long, List<Opcao>> empresas;
+    private final CacheCurto<ChaveOpcoes, List<Opcao>> fornecedores;
+    private final CacheCurto<ChavePagina, Pagina<FornecedorVinculado>> vinculados;
+
+    public MontagemTelaVinculos(EmpresaRepository empresaRepository,
+                                FornecedorRepository fornecedorRepository,
+                                EmpresaFornecedorRepository empresaFornecedorRepository,
+                                RegistroAlteracoes alteracoes,
+                                @Qualifier("applicationTaskExecutor") TaskExecutor executor,
+                                @Value("${vinculos.tela.cache-validade:5s}") Duration validade,
+                                @Value("${vinculos.tela.maximo-opcoes:200}") int maximoOpcoes) {
+        this.empresaRepository = empresaRepository;
+        this.fornecedorRepository = fornecedorRepository;
+        this.empresaFornecedorRepository = empresaFornecedorRepository;
+        this.executor = executor;
+        this.maximoOpcoes = maximoOpcoes;
+        this.empresas = new CacheCurto<>(alteracoes::geracao, validade, 1);
+        this.fornecedores = new CacheCurto<>(alteracoes::geracao, validade, MAXIMO_ENTRADAS);
+        this.vinculados = new CacheCurto<>(alteracoes::geracao, validade, MAXIMO_ENTRADAS);
+    }
+
+    // empresa null: nenhuma selecionada (todos os fornecedores no select, sem página de vinculados);
+    // buscaFornecedor null: sem filtro no nome
+    public TelaVinculos montar(Empresa empresa, PageRequest pagina, String buscaFornecedor) {
+        // uma opção a mais só para saber se o select ficou cortado
+        Limit limite = Limit.of(maximoOpcoes + 1);
+        String padraoNome = buscaFornecedor == null ? "%" : FornecedorRepository.padraoLike(buscaFornecedor, true);
+        CompletableFuture<List<Opcao>> opcoesEmpresas =
+                empresas.obter(TODOS, () -> empresaRepository.listarOpcoes(limite), executor);
+
+        if (empresa == null) {
+            CompletableFuture<List<Opcao>> opcoesFornecedores = fornecedores.obter(new ChaveOpcoes(TODOS, padraoNome),
+                    () -> fornecedorRepository.listarOpcoes(padraoNome, limite), executor);
+            return tela(juntar(opcoesEmpresas), null, juntar(opcoesFornecedores), null);
+        }
+
+        long empresaId = empresa.getId();
+        CompletableFuture<List<Opcao>> elegiveis = fornecedores.obter(new ChaveOpcoes(empresaId, padraoNome),
+                () -> RegraParana.seAplica(empresa)
+                        ? fornecedorRepository.listarOpcoesElegiveisSemMenores(empresaId, LocalDate.now(), padraoNome, limite)
+                        : fornecedorRepository.listarOpcoesElegiveis(empresaId, padraoNome, limite),
+                executor);
+        CompletableFuture<Pagina<FornecedorVinculado>> daEmpresa = vinculados.obter(new ChavePagina(empresaId, pagina),
+                () -> Pagina.de(empresaFornecedorRepository.findFornecedoresByEmpresaId(empresaId, pagina)), executor);
+        return tela(juntar(opcoesEmpresas), empresa, juntar(elegiveis), juntar(daEmpresa));
+    }
+
+    private TelaVinculos tela(List<Opcao> empresasLidas, Empresa selecionada, List<Opcao> fornecedoresLidos,
+                              Pagina<FornecedorVinculado> daEmpresa) {
+        List<Opcao> opcoesEmpresas = cortar(empresasLidas);
+        // selecionada fora do corte: entra no select mesmo assim, para a tela mostrar qual é
+        if (selecionada != null && opcoesEmpresas.stream().noneMatch(o -> o.id().equals(selecionada.getId()))) {
+            opcoesEmpresas = Stream.concat(opcoesEmpresas.stream(),
+                    Stream.of(new Opcao(selecionada.getId(), selecionada.getNomeFantasia()))).toList();
+        }
+        return TelaVinculos.de(opcoesEmpresas, empresasLidas.size() > maximoOpcoes,
+                cortar(fornecedoresLidos), fornecedoresLidos.size() > maximoOpcoes, daEmpresa);
+    }
+
+    private List<Opcao> cortar(List<Opcao> lidas) {
+        return lidas.size() > maximoOpcoes ? lidas.subList(0, maximoOpcoes) : lidas;
+    }
+
+    // erro numa parte sobe como o original, não embrulhado em CompletionException
+    private static <T> T juntar(CompletableFuture<T> parte) {
+        try {
+            return parte.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
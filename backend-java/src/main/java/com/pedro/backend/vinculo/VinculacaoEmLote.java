@@ -0,0 +1,101 @@
+package com.pedro.backend.vinculo;
+
+import com.pedro.backend.alteracao.RegistroAlteracoes;
+import com.pedro.backend.dto.Alteracao;
+import com.pedro.backend.dto.Alteracao.Operacao;
+import com.pedro.backend.dto.ResultadoVinculoLote.Item;
+import com.pedro.backend.dto.ResultadoVinculoLote.Status;
+import com.pedro.backend.grafo.IndiceVinculos;
+import com.pedro.backend.model.Empresa;
+import com.pedro.backend.regra.RegraParana;
+import com.pedro.backend.repository.EmpresaFornecedorRepository;
+import com.pedro.backend.repository.FornecedorRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Vínculo de vários fornecedores a uma empresa com poucas consultas: busca em blocos de IN quais
+ * ids existem, quais já estão vinculados e (empresa do PR) quais são PF menores de idade, só ids,
+ * sem carregar entidades; classifica cada id pedido e insere só os pares novos via batch JDBC.
+ * Roda dentro da transação de quem chama (vínculo em lote e fila de vínculos).
+ */
+@Component
+public class VinculacaoEmLote {
+
+    // ids por cláusula IN
+    static final int TAMANHO_IN = 1000;
+
+    private final FornecedorRepository fornecedorRepository;
+    private final EmpresaFornecedorRepository empresaFornecedorRepository;
+    private final IndiceVinculos indiceVinculos;
+    private final RegistroAlteracoes alteracoes;
+
+    public VinculacaoEmLote(FornecedorRepository fornecedorRepository,
+                            EmpresaFornecedorRepository empresaFornecedorRepository,
+                            IndiceVinculos indiceVinculos,
+                            RegistroAlteracoes alteracoes) {
+        this.fornecedorRepository = fornecedorRepository;
+        this.empresaFornecedorRepository = empresaFornecedorRepository;
+        this.indiceVinculos = indiceVinculos;
+        this.alteracoes = alteracoes;
+    }
+
+    // um item por id pedido, na ordem recebida
+    public List<Item> vincular(Empresa empresa, List<Long> fornecedorIds) {
+        Long empresaId = empresa.getId();
+
+        // 1. existentes, já vinculados e menores de idade (só no PR) em blocos de IN
+        List<Long> distintos = new ArrayList<>(new LinkedHashSet<>(fornecedorIds));
+        distintos.removeIf(id -> id == null);
+        boolean regraParana = RegraParana.seAplica(empresa);
+        LocalDate hoje = LocalDate.now();
+        Set<Long> existentes = new HashSet<>();
+        Set<Long> jaVinculados = new HashSet<>();
+        Set<Long> menores = new HashSet<>();
+        for (int i = 0; i < distintos.size(); i += TAMANHO_IN) {
+            List<Long> bloco = distintos.subList(i, Math.min(i + TAMANHO_IN, distintos.size()));
+            existentes.addAll(fornecedorRepository.findIdsExistentes(bloco));
+            jaVinculados.addAll(empresaFornecedorRepository.findFornecedorIdsVinculados(empresaId, bloco));
+            if (regraParana) {
+                menores.addAll(fornecedorRepository.findIdsMenores(bloco, hoje));
+            }
+        }
+
+        // 2. classifica cada id pedido, na ordem recebida
+        Set<Long> vistos = new HashSet<>();
+        List<Long> novos = new ArrayList<>();
+        List<Item> itens = new ArrayList<>(fornecedorIds.size());
+        for (Long id : fornecedorIds) {
+            Status status;
+            if (id == null || !existentes.contains(id)) {
+                status = Status.FORNECEDOR_NAO_ENCONTRADO;
+            } else if (!vistos.add(id)) {
+                status = Status.DUPLICADO_NO_LOTE;
+            } else if (jaVinculados.contains(id)) {
+                status = Status.JA_VINCULADO;
+            } else if (menores.contains(id)) {
+                status = Status.MENOR_DE_IDADE_PR;
+            } else {
+                status = Status.VINCULADO;
+                novos.add(id);
+            }
+            itens.add(new Item(id, status));
+        }
+
+        // 3. grava só os pares novos
+        if (!novos.isEmpty()) {
+            empresaFornecedorRepository.inserirEmLote(empresaId, novos);
+            alteracoes.registrar(novos.stream()
+                    .map(id -> Alteracao.vinculo(Operacao.CRIADO, empresaId, id))
+                    .toList());
+            indiceVinculos.vinculados(empresaId, novos);
+        }
+        return itens;
+    }
+}
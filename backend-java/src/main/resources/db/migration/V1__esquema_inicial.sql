@@ -0,0 +1,44 @@
+-- esquema que o Hibernate criava com ddl-auto=update (bancos já existentes entram direto na versão 1)
+
+CREATE TABLE empresas (
+    id            BIGINT       NOT NULL,
+    cnpj          VARCHAR(14)  NOT NULL,
+    nome_fantasia VARCHAR(150) NOT NULL,
+    cep           VARCHAR(8)   NOT NULL,
+    estado        VARCHAR(2)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_empresas_cnpj UNIQUE (cnpj)
+);
+
+CREATE TABLE fornecedores (
+    id              BIGINT            NOT NULL,
+    nome            VARCHAR(150)      NOT NULL,
+    cpf_cnpj        VARCHAR(14)       NOT NULL,
+    email           VARCHAR(150)      NOT NULL,
+    rg              VARCHAR(20),
+    data_nascimento DATE,
+    cep             VARCHAR(8)        NOT NULL,
+    tipo_pessoa     ENUM ('PF', 'PJ') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_fornecedores_cpf_cnpj UNIQUE (cpf_cnpj)
+);
+
+CREATE TABLE empresas_fornecedores (
+    id            BIGINT NOT NULL,
+    empresa_id    BIGINT NOT NULL,
+    fornecedor_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_empresas_fornecedores_empresa FOREIGN KEY (empresa_id) REFERENCES empresas (id),
+    CONSTRAINT fk_empresas_fornecedores_fornecedor FOREIGN KEY (fornecedor_id) REFERENCES fornecedores (id)
+);
+
+-- geradores de id em blocos (GeradoresId); AlinhadorGeradoresId ajusta os valores na subida
+CREATE TABLE id_geradores (
+    gerador       VARCHAR(255) NOT NULL,
+    proximo_valor BIGINT,
+    PRIMARY KEY (gerador)
+);
+
+INSERT INTO id_geradores (gerador, proximo_valor) VALUES ('empresas', 0);
+INSERT INTO id_geradores (gerador, proximo_valor) VALUES ('fornecedores', 0);
+INSERT INTO id_geradores (gerador, proximo_valor) VALUES ('empresas_fornecedores', 0);
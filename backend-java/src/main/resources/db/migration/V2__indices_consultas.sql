@@ -0,0 +1,28 @@
+-- índices para os padrões de consulta da aplicação
+
+-- bancos marcados como versão 1 que nunca subiram com os geradores em tabela
+-- (AlinhadorGeradoresId cria as linhas que faltarem)
+CREATE TABLE IF NOT EXISTS id_geradores (
+    gerador       VARCHAR(255) NOT NULL,
+    proximo_valor BIGINT,
+    PRIMARY KEY (gerador)
+);
+
+-- vínculos duplicados de antes da chave única: fica o mais antigo
+-- (a subconsulta derivada é materializada, por isso o MySQL aceita ler a própria tabela)
+DELETE FROM empresas_fornecedores
+WHERE id NOT IN (
+    SELECT id FROM (
+        SELECT MIN(id) AS id FROM empresas_fornecedores GROUP BY empresa_id, fornecedor_id
+    ) manter
+);
+
+-- par empresa/fornecedor único: o banco garante o vínculo sem SELECT antes do INSERT,
+-- e o índice cobre "fornecedores da empresa" e "esse par existe?" sem ler a tabela
+CREATE UNIQUE INDEX uk_empresas_fornecedores_par ON empresas_fornecedores (empresa_id, fornecedor_id);
+
+-- caminho inverso: empresas de um fornecedor (exclusão em cascata, vínculos do fornecedor)
+CREATE INDEX idx_empresas_fornecedores_fornecedor ON empresas_fornecedores (fornecedor_id, empresa_id);
+
+-- busca de fornecedor por início do nome (collation case-insensitive) e ordenação por nome
+CREATE INDEX idx_fornecedores_nome ON fornecedores (nome, id);
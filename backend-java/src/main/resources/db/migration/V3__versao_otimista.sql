@@ -0,0 +1,5 @@
+-- versão para concorrência otimista (@Version): o UPDATE só grava se ninguém alterou o registro
+-- desde a leitura, e a versão vira o ETag do GET por id
+ALTER TABLE empresas ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE fornecedores ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- feed de alterações (outbox): cada escrita grava aqui, na mesma transação, o que mudou;
+-- consumidores leem em ordem de seq a partir do último visto (GET /alteracoes?desde=)
+CREATE TABLE alteracoes (
+    seq            BIGINT      NOT NULL AUTO_INCREMENT,
+    entidade       VARCHAR(20) NOT NULL,
+    operacao       VARCHAR(20) NOT NULL,
+    entidade_id    BIGINT      NOT NULL,
+    relacionado_id BIGINT,
+    ocorrido_em    TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (seq)
+);
@@ -0,0 +1,15 @@
+-- dia em que o fornecedor PF faz 18 anos (nulo para PJ ou sem data de nascimento), mantido pela
+-- aplicação a cada gravação: a regra do Paraná vira comparação com a data de hoje, e "quem ainda é
+-- menor" é uma faixa no índice em vez de cálculo de idade linha a linha
+ALTER TABLE fornecedores ADD COLUMN data_maioridade DATE NULL;
+
+-- nascidos em 29/02 fazem 18 anos em 01/03 (o ano dos 18 nunca é bissexto e a soma cai em 28/02)
+UPDATE fornecedores
+SET data_maioridade = CASE
+        WHEN MONTH(data_nascimento) = 2 AND DAY(data_nascimento) = 29
+            THEN data_nascimento + INTERVAL '18' YEAR + INTERVAL '1' DAY
+        ELSE data_nascimento + INTERVAL '18' YEAR
+    END
+WHERE tipo_pessoa = 'PF' AND data_nascimento IS NOT NULL;
+
+CREATE INDEX idx_fornecedores_maioridade ON fornecedores (data_maioridade, id);
@@ -0,0 +1,59 @@
+package com.pedro.backend;
+
+import com.pedro.backend.model.Empresa;
+import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.model.TipoPessoa;
+
+import java.time.LocalDate;
+
+/**
+ * Empresas e fornecedores válidos para os testes, ainda não salvos: cada teste grava pelo
+ * controller ou pelo repositório, conforme o que está testando.
+ */
+public final class Cadastros {
+
+	public static final String CEP_SP = "01000000";
+	public static final String CEP_PR = "80000000";
+
+	private Cadastros() {
+	}
+
+	public static Empresa empresa(String cnpj) {
+		return empresa(cnpj, "SP");
+	}
+
+	// só SP ou PR: o CEP sai da mesma UF, para passar na validação do controller
+	public static Empresa empresa(String cnpj, String estado) {
+		Empresa e = new Empresa();
+		e.setCnpj(cnpj);
+		e.setNomeFantasia("Empresa " + cnpj);
+		e.setCep("PR".equals(estado) ? CEP_PR : CEP_SP);
+		e.setEstado(estado);
+		return e;
+	}
+
+	public static Fornecedor fornecedor(String documento) {
+		return fornecedor(documento, null, CEP_SP);
+	}
+
+	public static Fornecedor fornecedor(String documento, LocalDate nascimento) {
+		return fornecedor(documento, nascimento, CEP_SP);
+	}
+
+	// sem data de nascimento é PJ; com ela, PF
+	public static Fornecedor fornecedor(String documento, LocalDate nascimento, String cep) {
+		Fornecedor f = new Fornecedor();
+		f.setNome("Fornecedor " + documento);
+		f.setCpfCnpj(documento);
+		f.setEmail("contato@exemplo.com");
+		f.setCep(cep);
+		if (nascimento == null) {
+			f.setTipoPessoa(TipoPessoa.PJ);
+		} else {
+			f.setTipoPessoa(TipoPessoa.PF);
+			f.setRg("123456789");
+			f.setDataNascimento(nascimento);
+		}
+		return f;
+	}
+}
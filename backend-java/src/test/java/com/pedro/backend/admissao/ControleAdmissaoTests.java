@@ -0,0 +1,178 @@
+package com.pedro.backend.admissao;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"admissao.habilitada=true",
+		"admissao.escrita.taxa=1",
+		"admissao.escrita.rajada=2",
+		"admissao.escrita.limite=1",
+		"admissao.janela=1h",
+		"admissao.proxies-confiaveis=127.0.0.1,10.1.0.0/16"
+})
+class ControleAdmissaoTests {
+
+	@Autowired
+	private ControleAdmissao controle;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Test
+	void clienteQueEstouraOBaldeRecebe429SemAtrapalharOsOutros() throws Exception {
+		assertThat(requisicao("POST", "integracao-a", null).getStatus()).isEqualTo(200);
+		assertThat(requisicao("POST", "integracao-a", null).getStatus()).isEqualTo(200);
+
+		MockHttpServletResponse recusada = requisicao("POST", "integracao-a", null);
+		assertThat(recusada.getStatus()).isEqualTo(429);
+		assertThat(recusada.getHeader("Retry-After")).isEqualTo("1");
+
+		// outro cliente tem o próprio balde; leituras têm outra taxa
+		assertThat(requisicao("POST", "integracao-b", null).getStatus()).isEqualTo(200);
+		assertThat(requisicao("GET", "integracao-a", null).getStatus()).isEqualTo(200);
+
+		assertThat(contagem("write", "rate_limited")).isGreaterThanOrEqualTo(1);
+		assertThat(contagem("write", "admitted")).isGreaterThanOrEqualTo(3);
+	}
+
+	@Test
+	void semVagaDeEscritaResponde503NaHora() throws Exception {
+		CountDownLatch dentro = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService thread = Executors.newSingleThreadExecutor();
+		try {
+			Future<MockHttpServletResponse> ocupando = thread.submit(() -> requisicao("PUT", "lenta", () -> {
+				dentro.countDown();
+				liberar.await();
+				return null;
+			}));
+			assertThat(dentro.await(5, TimeUnit.SECONDS)).isTrue();
+
+			MockHttpServletResponse recusada = requisicao("DELETE", "outra", null);
+			assertThat(recusada.getStatus()).isEqualTo(503);
+			assertThat(recusada.getHeader("Retry-After")).isEqualTo("1");
+			// leitura tem as vagas dela
+			assertThat(requisicao("GET", "outra", null).getStatus()).isEqualTo(200);
+
+			liberar.countDown();
+			assertThat(ocupando.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+		} finally {
+			thread.shutdownNow();
+		}
+		assertThat(controle.limiteEscrita().emAndamento()).isZero();
+		assertThat(contagem("write", "shed")).isGreaterThanOrEqualTo(1);
+	}
+
+	@Test
+	void cabecalhoDeClienteSoValeVindoDeProxyConfiavel() throws Exception {
+		// fora dos proxies o cabeçalho é ignorado: trocar de valor não dá um balde novo
+		assertThat(requisicao("POST", "10.2.0.7", "novo-1", null).getStatus()).isEqualTo(200);
+		assertThat(requisicao("POST", "10.2.0.7", "novo-2", null).getStatus()).isEqualTo(200);
+		assertThat(requisicao("POST", "10.2.0.7", "novo-3", null).getStatus()).isEqualTo(429);
+
+		// dentro da faixa confiável cada usuário repassado tem o seu
+		assertThat(requisicao("POST", "10.1.4.2", "usuario-1", null).getStatus()).isEqualTo(200);
+		assertThat(requisicao("POST", "10.1.4.2", "usuario-2", null).getStatus()).isEqualTo(200);
+
+		ProxiesConfiaveis proxies = new ProxiesConfiaveis(List.of("192.168.0.0/23", "::1", ""));
+		assertThat(proxies.contem("192.168.1.250")).isTrue();
+		assertThat(proxies.contem("192.168.2.1")).isFalse();
+		assertThat(proxies.contem("0:0:0:0:0:0:0:1")).isTrue();
+		assertThat(new ProxiesConfiaveis(List.of()).contem("127.0.0.1")).isFalse();
+	}
+
+	@Test
+	void requisicaoAssincronaSeguraAVagaAteCompletar() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/empresas/1/fornecedores/2");
+		request.setAsyncSupported(true);
+		request.addHeader("X-Cliente", "assincrona");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controle.doFilter(request, response, (req, resp) -> req.startAsync());
+
+		// a thread do servlet já voltou, mas a resposta ainda não saiu
+		assertThat(controle.limiteEscrita().emAndamento()).isEqualTo(1);
+		assertThat(requisicao("POST", "outra-assincrona", null).getStatus()).isEqualTo(503);
+
+		request.getAsyncContext().complete();
+		assertThat(controle.limiteEscrita().emAndamento()).isZero();
+	}
+
+	@Test
+	void limiteCaiQuandoOP99SobeEVoltaACrescerQuandoNormaliza() {
+		long ms = TimeUnit.MILLISECONDS.toNanos(1);
+		LimiteAdaptativo limite = new LimiteAdaptativo(10, TimeUnit.HOURS.toNanos(1), 2.0, ms);
+
+		// janela de referência: 2ms, sem encostar no limite
+		janela(limite, 1, 30, 2 * ms);
+		assertThat(limite.limite()).isEqualTo(10);
+
+		// todas as vagas ocupadas e p99 normal: sobe um
+		janela(limite, 10, 30, 2 * ms);
+		assertThat(limite.limite()).isEqualTo(11);
+
+		// p99 dez vezes maior: cai 10% por janela até o mínimo (1/5 do inicial)
+		janela(limite, 1, 30, 20 * ms);
+		assertThat(limite.limite()).isEqualTo(9);
+		for (int i = 0; i < 20; i++) {
+			janela(limite, 1, 30, 20 * ms);
+		}
+		assertThat(limite.limite()).isEqualTo(2);
+		assertThat(limite.ultimoP99()).isEqualTo(20 * ms);
+	}
+
+	// simultaneas entram juntas e saem; depois mais amostras até completar a janela
+	private static void janela(LimiteAdaptativo limite, int simultaneas, int amostras, long latencia) {
+		for (int feitas = 0; feitas < amostras; feitas += simultaneas) {
+			for (int i = 0; i < simultaneas; i++) {
+				assertThat(limite.entrar()).isTrue();
+			}
+			for (int i = 0; i < simultaneas; i++) {
+				limite.sair(latencia);
+			}
+		}
+		limite.ajustar();
+	}
+
+	private interface Corpo {
+		Void executar() throws Exception;
+	}
+
+	private MockHttpServletResponse requisicao(String metodo, String cliente, Corpo corpo) throws Exception {
+		return requisicao(metodo, "127.0.0.1", cliente, corpo);
+	}
+
+	private MockHttpServletResponse requisicao(String metodo, String endereco, String cliente, Corpo corpo) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(metodo, "/fornecedores");
+		request.setRemoteAddr(endereco);
+		request.addHeader("X-Cliente", cliente);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controle.doFilter(request, response, (req, resp) -> {
+			if (corpo != null) {
+				try {
+					corpo.executar();
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		});
+		return response;
+	}
+
+	private double contagem(String classe, String resultado) {
+		return registry.get(ControleAdmissao.METRICA).tag("class", classe).tag("outcome", resultado).counter().count();
+	}
+}
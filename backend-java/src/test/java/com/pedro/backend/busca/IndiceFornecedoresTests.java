@@ -0,0 +1,60 @@
+package com.pedro.backend.busca;
+
+import com.pedro.backend.repository.FornecedorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class IndiceFornecedoresTests {
+
+	@Autowired
+	private FornecedorRepository fornecedorRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void cargaQueFalhaDerrubaASubidaSemSegundoPlano() {
+		IndiceFornecedores indice = new IndiceFornecedores(fornecedorRepository, transactionManager, false, Duration.ZERO);
+
+		jdbc.execute("ALTER TABLE fornecedores RENAME TO fornecedores_fora");
+		try {
+			assertThatThrownBy(indice::iniciarCarga).isInstanceOf(DataAccessException.class);
+		} finally {
+			jdbc.execute("ALTER TABLE fornecedores_fora RENAME TO fornecedores");
+		}
+		assertThat(indice.pronto()).isFalse();
+	}
+
+	@Test
+	void cargaEmSegundoPlanoTentaDeNovoAteConseguir() throws InterruptedException {
+		IndiceFornecedores indice = new IndiceFornecedores(fornecedorRepository, transactionManager, true,
+				Duration.ofMillis(50));
+
+		jdbc.execute("ALTER TABLE fornecedores RENAME TO fornecedores_fora");
+		try {
+			indice.iniciarCarga();
+			Thread.sleep(200);
+			assertThat(indice.pronto()).isFalse();
+		} finally {
+			jdbc.execute("ALTER TABLE fornecedores_fora RENAME TO fornecedores");
+		}
+
+		for (int i = 0; i < 100 && !indice.pronto(); i++) {
+			Thread.sleep(50);
+		}
+		assertThat(indice.pronto()).isTrue();
+	}
+}
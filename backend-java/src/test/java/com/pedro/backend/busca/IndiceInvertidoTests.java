@@ -0,0 +1,76 @@
+package com.pedro.backend.busca;
+
+import com.pedro.backend.dto.ResultadoBusca;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceInvertidoTests {
+
+	private IndiceInvertido indice;
+
+	@BeforeEach
+	void montar() {
+		indice = new IndiceInvertido();
+		indice.indexar(1, "João da Conceição", "12345678901", "joao@gmail.com");
+		indice.indexar(2, "Mercado São João Ltda", "11222333000181", "compras@mercadosj.com.br");
+		indice.indexar(3, "Distribuidora Joanópolis", "99888777000166", "vendas@joanopolis.com");
+		indice.indexar(4, "Maria Aparecida", "98765432100", "maria.ap@hotmail.com");
+	}
+
+	@Test
+	void buscaIgnoraAcentosEMaiusculas() {
+		assertThat(indice.buscar("CONCEICAO", 10)).extracting(ResultadoBusca::id).containsExactly(1L);
+		assertThat(indice.buscar("sao joão", 10)).extracting(ResultadoBusca::id).containsExactly(2L);
+	}
+
+	@Test
+	void prefixoCasaENomeQueComecaPeloTermoVemPrimeiro() {
+		// "joa" casa joao (1 e 2) e joanopolis (3); quem começa com o termo ganha
+		assertThat(indice.buscar("joa", 10)).extracting(ResultadoBusca::id).startsWith(1L).contains(2L, 3L);
+		// exato vale mais que prefixo
+		assertThat(indice.buscar("joao", 10)).extracting(ResultadoBusca::id).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void todosOsTermosPrecisamCasar() {
+		assertThat(indice.buscar("joao mercado", 10)).extracting(ResultadoBusca::id).containsExactly(2L);
+		assertThat(indice.buscar("joao maria", 10)).isEmpty();
+	}
+
+	@Test
+	void toleraErroDeDigitacao() {
+		assertThat(indice.buscar("aparecisa", 10)).extracting(ResultadoBusca::id).containsExactly(4L);
+		assertThat(indice.buscar("distribuidira", 10)).extracting(ResultadoBusca::id).containsExactly(3L);
+		// termos curtos não têm tolerância
+		assertThat(indice.buscar("mra", 10)).isEmpty();
+	}
+
+	@Test
+	void buscaPorDocumentoEEmail() {
+		assertThat(indice.buscar("11222333", 10)).extracting(ResultadoBusca::id).containsExactly(2L);
+		assertThat(indice.buscar("98765432100", 10)).extracting(ResultadoBusca::id).containsExactly(4L);
+		assertThat(indice.buscar("hotmail", 10)).extracting(ResultadoBusca::id).containsExactly(4L);
+	}
+
+	@Test
+	void alteracaoEExclusaoAtualizamOIndice() {
+		indice.indexar(4, "Maria Conceição", "98765432100", "maria.ap@hotmail.com");
+		assertThat(indice.buscar("aparecida", 10)).isEmpty();
+		assertThat(indice.buscar("conceicao", 10)).extracting(ResultadoBusca::id).containsExactlyInAnyOrder(1L, 4L);
+
+		indice.remover(1);
+		assertThat(indice.buscar("conceicao", 10)).extracting(ResultadoBusca::id).containsExactly(4L);
+		assertThat(indice.tamanho()).isEqualTo(3);
+	}
+
+	@Test
+	void limiteCortaOsPioresResultados() {
+		for (long id = 10; id < 60; id++) {
+			indice.indexar(id, "Fornecedor " + id, "", "f" + id + "@x.com");
+		}
+		assertThat(indice.buscar("fornecedor", 5)).hasSize(5).extracting(ResultadoBusca::id)
+				.containsExactly(10L, 11L, 12L, 13L, 14L);
+	}
+}
@@ -0,0 +1,57 @@
+package com.pedro.backend.cep;
+
+import com.pedro.backend.dto.EnderecoCep;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServicoCepTests {
+
+	private static final FaixasCep FAIXAS = FaixasCep.carregar(new ByteArrayInputStream("""
+			# teste
+			01000000,19999999,SP
+			80000000,87999999,PR
+			""".getBytes(StandardCharsets.UTF_8)));
+
+	@Test
+	void ufVemDoIndiceLocal() {
+		ServicoCep servico = new ServicoCep(FAIXAS, null, 10);
+
+		assertThat(servico.uf("01000-000")).contains("SP");
+		assertThat(servico.uf("19999999")).contains("SP");
+		assertThat(servico.uf("80.000-000")).contains("PR");
+		assertThat(servico.uf("50000000")).isEmpty();
+		assertThat(servico.uf("00999999")).isEmpty();
+		assertThat(servico.uf("1234")).isEmpty();
+		assertThat(servico.uf("8000000a")).isEmpty();
+	}
+
+	@Test
+	void consultaRemotaFicaEmCacheEFalhaCaiNoIndiceLocal() {
+		AtomicInteger chamadas = new AtomicInteger();
+		ServicoCep servico = new ServicoCep(FAIXAS, cep -> {
+			if (chamadas.incrementAndGet() > 1) {
+				throw new IllegalStateException("fora do ar");
+			}
+			return Optional.of(new EnderecoCep(cep, "PR", "Curitiba", "Centro", "VIACEP"));
+		}, 10);
+
+		assertThat(servico.consultar("80000000")).get().extracting(EnderecoCep::localidade).isEqualTo("Curitiba");
+		assertThat(servico.consultar("80000-000")).get().extracting(EnderecoCep::localidade).isEqualTo("Curitiba");
+		assertThat(chamadas).hasValue(1);
+
+		// API caiu: responde só com a UF e não guarda a falha
+		assertThat(servico.consultar("01000000")).get().extracting(EnderecoCep::fonte).isEqualTo("LOCAL");
+		assertThat(servico.consultar("01000000")).get().extracting(EnderecoCep::uf).isEqualTo("SP");
+		assertThat(chamadas).hasValue(3);
+
+		// fora de qualquer faixa nem chega na API
+		assertThat(servico.consultar("50000000")).isEmpty();
+		assertThat(chamadas).hasValue(3);
+	}
+}
@@ -0,0 +1,100 @@
+package com.pedro.backend.concorrencia;
+
+import com.pedro.backend.repository.FornecedorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@SpringBootTest(properties = {
+		"spring.threads.virtual.enabled=true",
+		"banco.bulkhead.vagas=2",
+		"banco.bulkhead.espera=300ms"
+})
+class BulkheadBancoTests {
+
+	@Autowired
+	private BulkheadBanco bulkhead;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private FornecedorRepository fornecedorRepository;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void dataSourcePassaPeloBulkhead() {
+		assertThat(dataSource).isInstanceOf(DelegatingDataSource.class);
+	}
+
+	@Test
+	void muitasThreadsVirtuaisPassamPeloBulkheadEDevolvemAsVagas() throws Exception {
+		List<Future<Long>> resultados = new ArrayList<>();
+		try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 200; i++) {
+				resultados.add(threads.submit(() -> fornecedorRepository.count()));
+			}
+		}
+
+		for (Future<Long> resultado : resultados) {
+			assertThat(resultado.get()).isNotNegative();
+		}
+		assertThat(bulkhead.vagasLivres()).isEqualTo(2);
+		assertThat(bulkhead.aguardando()).isZero();
+	}
+
+	@Test
+	void transacoesAbertasOcupamAsVagasEOProximoRecebeBancoOcupado() throws Exception {
+		TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+		CountDownLatch dentro = new CountDownLatch(2);
+		CountDownLatch liberar = new CountDownLatch(1);
+		try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+			// duas transações de escrita seguram a conexão até o fim, como um POST em andamento
+			for (int i = 0; i < 2; i++) {
+				threads.submit(() -> transacao.executeWithoutResult(s -> {
+					fornecedorRepository.count();
+					dentro.countDown();
+					try {
+						liberar.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}));
+			}
+			assertThat(dentro.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(bulkhead.vagasLivres()).isZero();
+
+			// a terceira chamada espera o tempo máximo e desiste, por repositório ou por JdbcTemplate
+			Throwable porRepositorio = catchThrowable(() -> fornecedorRepository.count());
+			assertThat(NestedExceptionUtils.getMostSpecificCause(porRepositorio)).isInstanceOf(BancoOcupadoException.class);
+			Throwable porJdbc = catchThrowable(() -> jdbc.queryForObject("SELECT 1", Integer.class));
+			assertThat(NestedExceptionUtils.getMostSpecificCause(porJdbc)).isInstanceOf(BancoOcupadoException.class);
+
+			liberar.countDown();
+		}
+		assertThat(bulkhead.vagasLivres()).isEqualTo(2);
+		assertThat(jdbc.queryForObject("SELECT 1", Integer.class)).isEqualTo(1);
+	}
+}
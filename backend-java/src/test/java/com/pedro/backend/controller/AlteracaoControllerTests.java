@@ -0,0 +1,180 @@
+package com.pedro.backend.controller;
+
+import com.pedro.backend.alteracao.RegistroAlteracoes;
+import com.pedro.backend.dto.Alteracao;
+import com.pedro.backend.dto.Alteracao.Entidade;
+import com.pedro.backend.dto.Alteracao.Operacao;
+import com.pedro.backend.dto.LoteAlteracoes;
+import com.pedro.backend.model.Empresa;
+import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.repository.EmpresaFornecedorRepository;
+import com.pedro.backend.repository.EmpresaRepository;
+import com.pedro.backend.repository.FornecedorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.pedro.backend.Cadastros.empresa;
+import static com.pedro.backend.Cadastros.fornecedor;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class AlteracaoControllerTests {
+
+	@Autowired
+	private AlteracaoController controller;
+
+	@Autowired
+	private EmpresaController empresaController;
+
+	@Autowired
+	private FornecedorController fornecedorController;
+
+	@Autowired
+	private EmpresaFornecedorController vinculoController;
+
+	@Autowired
+	private RegistroAlteracoes alteracoes;
+
+	@Autowired
+	private EmpresaRepository empresaRepository;
+
+	@Autowired
+	private FornecedorRepository fornecedorRepository;
+
+	@Autowired
+	private EmpresaFornecedorRepository empresaFornecedorRepository;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	@Qualifier("applicationTaskExecutor")
+	private TaskExecutor executor;
+
+	private long inicio;
+
+	@BeforeEach
+	void limpar() {
+		empresaFornecedorRepository.deleteAll();
+		fornecedorRepository.deleteAll();
+		empresaRepository.deleteAll();
+		vinculoController.corrigirVinculos();
+		inicio = jdbc.queryForObject("SELECT COALESCE(MAX(seq), 0) FROM alteracoes", Long.class);
+	}
+
+	@Test
+	void feedRegistraCadaEscritaEmOrdem() {
+		Empresa empresa = (Empresa) empresaController.criar(empresa("11111111000111")).getBody();
+		Fornecedor fornecedor = (Fornecedor) fornecedorController.criar(fornecedor("50000000000103")).getBody();
+
+		Empresa mudanca = new Empresa();
+		mudanca.setNomeFantasia("Outro nome");
+		empresaController.atualizar(empresa.getId(), mudanca, null);
+		// mesmo conteúdo de novo: sem UPDATE, sem linha no feed
+		empresaController.atualizar(empresa.getId(), mudanca, null);
+
+		vinculoController.vincular(empresa.getId(), fornecedor.getId()).join();
+		vinculoController.desvincular(empresa.getId(), fornecedor.getId());
+		vinculoController.vincularEmLote(empresa.getId(), List.of(fornecedor.getId()));
+		fornecedorController.deletar(fornecedor.getId());
+
+		// duplicado: a escrita falha e nada vai para o feed
+		assertThat(empresaController.criar(empresa("11111111000111")).getStatusCode().value()).isEqualTo(400);
+
+		LoteAlteracoes lote = ler(inicio, 100);
+		assertThat(lote.alteracoes())
+				.extracting(Alteracao::entidade, Alteracao::operacao, Alteracao::id, Alteracao::relacionadoId)
+				.containsExactly(
+						tuple(Entidade.EMPRESA, Operacao.CRIADO, empresa.getId(), null),
+						tuple(Entidade.FORNECEDOR, Operacao.CRIADO, fornecedor.getId(), null),
+						tuple(Entidade.EMPRESA, Operacao.ALTERADO, empresa.getId(), null),
+						tuple(Entidade.VINCULO, Operacao.CRIADO, empresa.getId(), fornecedor.getId()),
+						tuple(Entidade.VINCULO, Operacao.EXCLUIDO, empresa.getId(), fornecedor.getId()),
+						tuple(Entidade.VINCULO, Operacao.CRIADO, empresa.getId(), fornecedor.getId()),
+						tuple(Entidade.FORNECEDOR, Operacao.EXCLUIDO, fornecedor.getId(), null));
+		assertThat(lote.temMais()).isFalse();
+
+		// em lotes: o proximo de um é o desde do seguinte
+		LoteAlteracoes primeiro = ler(inicio, 4);
+		assertThat(primeiro.temMais()).isTrue();
+		assertThat(ler(primeiro.proximo(), 100).alteracoes())
+				.containsExactlyElementsOf(lote.alteracoes().subList(4, 7));
+		assertThat(ler(lote.proximo(), 100).alteracoes()).isEmpty();
+	}
+
+	@Test
+	void falhaNoFeedDesfazODesvinculo() {
+		Empresa empresa = (Empresa) empresaController.criar(empresa("44444444000144")).getBody();
+		Fornecedor fornecedor = (Fornecedor) fornecedorController.criar(fornecedor("50000000000104")).getBody();
+		vinculoController.vincular(empresa.getId(), fornecedor.getId()).join();
+
+		// sem a tabela do feed o INSERT falha: a exclusão do vínculo não pode ficar
+		jdbc.execute("ALTER TABLE alteracoes RENAME TO alteracoes_fora");
+		try {
+			assertThatThrownBy(() -> vinculoController.desvincular(empresa.getId(), fornecedor.getId()))
+					.isInstanceOf(DataAccessException.class);
+		} finally {
+			jdbc.execute("ALTER TABLE alteracoes_fora RENAME TO alteracoes");
+		}
+
+		assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM empresas_fornecedores WHERE empresa_id = ? AND fornecedor_id = ?",
+				Long.class, empresa.getId(), fornecedor.getId())).isEqualTo(1);
+		assertThat(vinculoController.verificarVinculos().getBody().consistente()).isTrue();
+	}
+
+	@Test
+	void esperaLongaRespondeNoCommit() throws InterruptedException {
+		DeferredResult<?> resultado = controller.listar(inicio, 100, 10);
+		assertThat(resultado.hasResult()).isFalse();
+
+		Empresa empresa = (Empresa) empresaController.criar(empresa("22222222000122")).getBody();
+
+		for (int i = 0; i < 100 && !resultado.hasResult(); i++) {
+			Thread.sleep(50);
+		}
+		assertThat(((LoteAlteracoes) resultado.getResult()).alteracoes())
+				.extracting(Alteracao::id)
+				.containsExactly(empresa.getId());
+	}
+
+	@Test
+	void leituraParaEmBuracoRecenteDaSequencia() {
+		// transação revertida: o seq reservado nunca aparece
+		TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+		transacao.executeWithoutResult(status -> {
+			alteracoes.registrar(List.of(Alteracao.empresa(Operacao.CRIADO, 1)));
+			status.setRollbackOnly();
+		});
+		Empresa empresa = (Empresa) empresaController.criar(empresa("33333333000133")).getBody();
+
+		// buraco novo: pode ser transação em andamento, então a leitura para antes dele
+		assertThat(ler(inicio, 100).alteracoes()).isEmpty();
+
+		// passado o tempo de espera, o buraco é tratado como rollback
+		RegistroAlteracoes semEspera = new RegistroAlteracoes(jdbc, transactionManager, executor, Duration.ZERO);
+		assertThat(semEspera.ler(inicio, 100).alteracoes())
+				.extracting(Alteracao::id)
+				.containsExactly(empresa.getId());
+	}
+
+	private LoteAlteracoes ler(long desde, int limite) {
+		return (LoteAlteracoes) controller.listar(desde, limite, 0).getResult();
+	}
+}
@@ -0,0 +1,125 @@
+package com.pedro.backend.controller;
+
+import com.pedro.backend.dto.EstatisticaCache;
+import com.pedro.backend.model.Empresa;
+import com.pedro.backend.repository.EmpresaFornecedorRepository;
+import com.pedro.backend.repository.EmpresaRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+
+import static com.pedro.backend.Cadastros.empresa;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class EmpresaControllerTests {
+
+	@Autowired
+	private EmpresaController controller;
+
+	@Autowired
+	private CacheController cacheController;
+
+	@Autowired
+	private EmpresaRepository empresaRepository;
+
+	@Autowired
+	private EmpresaFornecedorRepository empresaFornecedorRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void limpar() {
+		empresaFornecedorRepository.deleteAll();
+		empresaRepository.deleteAll();
+	}
+
+	@Test
+	void cacheDeCnpjAcompanhaAtualizacaoEExclusao() {
+		Empresa criada = (Empresa) controller.criar(empresa("11111111000111")).getBody();
+		assertThat(empresaRepository.existsByCnpj("11111111000111")).isTrue();
+		assertThat(controller.criar(empresa("11111111000111")).getStatusCode().value()).isEqualTo(400);
+
+		controller.atualizar(criada.getId(), empresa("22222222000122"), null);
+		assertThat(empresaRepository.existsByCnpj("11111111000111")).isFalse();
+		assertThat(empresaRepository.existsByCnpj("22222222000122")).isTrue();
+		assertThat(controller.buscar(criada.getId(), null).getBody().getCnpj()).isEqualTo("22222222000122");
+
+		controller.deletar(criada.getId());
+		assertThat(empresaRepository.existsByCnpj("22222222000122")).isFalse();
+		assertThat(controller.buscar(criada.getId(), null).getStatusCode().value()).isEqualTo(404);
+	}
+
+	@Test
+	void checagemDeCnpjNaoCarregaAEmpresa() {
+		controller.criar(empresa("55555555000155"));
+		// fora do cache: a checagem precisa ir ao banco
+		entityManagerFactory.getCache().evictAll();
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		boolean habilitadas = estatisticas.isStatisticsEnabled();
+		estatisticas.setStatisticsEnabled(true);
+		estatisticas.clear();
+		try {
+			assertThat(empresaRepository.existsByCnpj("55555555000155")).isTrue();
+			assertThat(empresaRepository.existsByCnpj("66666666000166")).isFalse();
+
+			assertThat(estatisticas.getEntityStatistics(Empresa.class.getName()).getLoadCount()).isZero();
+		} finally {
+			estatisticas.setStatisticsEnabled(habilitadas);
+		}
+	}
+
+	@Test
+	void estatisticasMostramHitsDoCache() {
+		Empresa criada = (Empresa) controller.criar(empresa("33333333000133")).getBody();
+		controller.buscar(criada.getId(), null);
+		controller.buscar(criada.getId(), null);
+
+		assertThat(cacheController.estatisticas().getBody())
+				.filteredOn(e -> e.regiao().equals("empresas"))
+				.singleElement()
+				.extracting(EstatisticaCache::hits)
+				.satisfies(hits -> assertThat(hits).isPositive());
+	}
+
+	@Test
+	void versaoControlaEtagEEscritaConcorrente() {
+		Empresa criada = (Empresa) controller.criar(empresa("44444444000144")).getBody();
+		ResponseEntity<Empresa> lida = controller.buscar(criada.getId(), null);
+		String etag = lida.getHeaders().getETag();
+		String etagLista = controller.listar(null).getHeaders().getETag();
+		assertThat(etag).isEqualTo("\"0\"");
+
+		// GET condicional: mesma versão -> 304 sem corpo
+		ResponseEntity<Empresa> naoModificada = controller.buscar(criada.getId(), "W/" + etag);
+		assertThat(naoModificada.getStatusCode().value()).isEqualTo(304);
+		assertThat(naoModificada.getBody()).isNull();
+		assertThat(controller.listar(etagLista).getStatusCode().value()).isEqualTo(304);
+
+		Empresa mudanca = new Empresa();
+		mudanca.setNomeFantasia("Outro nome");
+		// If-Match compara forte: a mesma versão marcada como fraca não autoriza a escrita
+		assertThat(controller.atualizar(criada.getId(), mudanca, "W/" + etag).getStatusCode().value()).isEqualTo(412);
+		assertThat(controller.atualizar(criada.getId(), mudanca, etag).getHeaders().getETag()).isEqualTo("\"1\"");
+
+		// quem ainda tem a versão 0 perde a pré-condição em vez de sobrescrever
+		assertThat(controller.atualizar(criada.getId(), mudanca, etag).getStatusCode().value()).isEqualTo(412);
+		assertThat(controller.buscar(criada.getId(), etag).getStatusCode().value()).isEqualTo(200);
+		assertThat(controller.listar(etagLista).getStatusCode().value()).isEqualTo(200);
+
+		// sem If-Match, a versão no WHERE do UPDATE ainda barra a escrita em cima de leitura velha
+		Empresa velha = lida.getBody();
+		velha.setNomeFantasia("Sobrescrita");
+		assertThatThrownBy(() -> empresaRepository.save(velha))
+				.isInstanceOf(OptimisticLockingFailureException.class);
+		assertThat(controller.buscar(criada.getId(), null).getBody().getNomeFantasia()).isEqualTo("Outro nome");
+	}
+}
@@ -0,0 +1,349 @@
+package com.pedro.backend.controller;
+
+import com.pedro.backend.Cadastros;
+import com.pedro.backend.dto.ContagemVinculos;
+import com.pedro.backend.dto.FornecedorListado;
+import com.pedro.backend.dto.FornecedorVinculado;
+import com.pedro.backend.dto.IdsVinculados;
+import com.pedro.backend.dto.Opcao;
+import com.pedro.backend.dto.Pagina;
+import com.pedro.backend.dto.PaginaCursor;
+import com.pedro.backend.dto.ResultadoExclusao;
+import com.pedro.backend.dto.ResultadoVinculoLote;
+import com.pedro.backend.dto.ResultadoVinculoLote.Status;
+import com.pedro.backend.dto.TelaVinculos;
+import com.pedro.backend.model.Empresa;
+import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.model.TipoPessoa;
+import com.pedro.backend.repository.EmpresaFornecedorRepository;
+import com.pedro.backend.repository.EmpresaRepository;
+import com.pedro.backend.repository.FornecedorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EmpresaFornecedorControllerTests {
+
+	@Autowired
+	private EmpresaFornecedorController controller;
+
+	@Autowired
+	private FornecedorController fornecedorController;
+
+	@Autowired
+	private EmpresaController empresaController;
+
+	@Autowired
+	private EmpresaRepository empresaRepository;
+
+	@Autowired
+	private FornecedorRepository fornecedorRepository;
+
+	@Autowired
+	private EmpresaFornecedorRepository empresaFornecedorRepository;
+
+	@BeforeEach
+	void limpar() {
+		empresaFornecedorRepository.deleteAll();
+		fornecedorRepository.deleteAll();
+		empresaRepository.deleteAll();
+	}
+
+	@Test
+	void vincularEmLoteReportaCadaItem() {
+		Empresa empresa = empresa("PR");
+		Fornecedor adulto = fornecedor("10000000001", LocalDate.of(1980, 5, 1));
+		Fornecedor menor = fornecedor("10000000002", LocalDate.now().minusYears(10));
+		Fornecedor jaVinculado = fornecedor("10000000003", LocalDate.of(1975, 3, 2));
+		controller.vincular(empresa.getId(), jaVinculado.getId()).join();
+		assertThat(controller.vincular(empresa.getId(), jaVinculado.getId()).join().getStatusCode().value()).isEqualTo(400);
+
+		ResultadoVinculoLote resultado = (ResultadoVinculoLote) controller.vincularEmLote(empresa.getId(),
+				Arrays.asList(adulto.getId(), menor.getId(), jaVinculado.getId(), adulto.getId(), -1L)).getBody();
+
+		assertThat(resultado.itens()).extracting(ResultadoVinculoLote.Item::status).containsExactly(
+				Status.VINCULADO, Status.MENOR_DE_IDADE_PR, Status.JA_VINCULADO,
+				Status.DUPLICADO_NO_LOTE, Status.FORNECEDOR_NAO_ENCONTRADO);
+		assertThat(resultado.vinculados()).isEqualTo(1);
+		assertThat(resultado.recusados()).isEqualTo(4);
+		assertThat(empresaFornecedorRepository.findFornecedorIdsVinculados(empresa.getId(),
+				List.of(adulto.getId(), menor.getId(), jaVinculado.getId())))
+				.containsExactlyInAnyOrder(adulto.getId(), jaVinculado.getId());
+	}
+
+	@Test
+	void elegiveisEBloqueadosSeguemADataDeMaioridade() {
+		Empresa empresa = empresa("PR");
+		Fornecedor adulto = fornecedor("30000000001", LocalDate.of(1980, 5, 1));
+		Fornecedor menor = fornecedor("30000000002", LocalDate.now().minusYears(17));
+		Fornecedor vinculado = fornecedor("30000000003", LocalDate.of(1975, 3, 2));
+		controller.vincular(empresa.getId(), vinculado.getId()).join();
+
+		assertThat(idsDaPagina(controller.fornecedoresElegiveis(empresa.getId(), null, 50))).containsExactly(adulto.getId());
+		assertThat(idsDaPagina(controller.fornecedoresBloqueados(empresa.getId(), null, 50))).containsExactly(menor.getId());
+
+		// fora do PR a regra não vale
+		empresa.setEstado("SP");
+		empresa = empresaRepository.save(empresa);
+		assertThat(idsDaPagina(controller.fornecedoresElegiveis(empresa.getId(), null, 50)))
+				.containsExactly(adulto.getId(), menor.getId());
+		assertThat(idsDaPagina(controller.fornecedoresBloqueados(empresa.getId(), null, 50))).isEmpty();
+
+		// alterar a data de nascimento recalcula a maioridade: quem faz 18 hoje já pode
+		empresa.setEstado("PR");
+		empresa = empresaRepository.save(empresa);
+		Fornecedor dados = new Fornecedor();
+		dados.setDataNascimento(LocalDate.now().minusYears(18));
+		fornecedorController.atualizar(menor.getId(), dados, null);
+		assertThat(idsDaPagina(controller.fornecedoresBloqueados(empresa.getId(), null, 50))).isEmpty();
+		ResponseEntity<?> criado = controller.vincular(empresa.getId(), menor.getId()).join();
+		assertThat(criado.getStatusCode().value()).isEqualTo(201);
+		assertThat(criado.getBody()).isEqualTo(new ResultadoVinculoLote.Item(menor.getId(), Status.VINCULADO));
+
+		// nascido em 29/02 faz 18 anos em 01/03
+		assertThat(Fornecedor.calcularMaioridade(TipoPessoa.PF, LocalDate.of(2008, 2, 29))).isEqualTo(LocalDate.of(2026, 3, 1));
+		assertThat(Fornecedor.calcularMaioridade(TipoPessoa.PJ, LocalDate.of(2008, 2, 29))).isNull();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void bloqueadosPaginamPelaDataDeMaioridadeEId() {
+		Empresa empresa = empresa("PR");
+		LocalDate nascimento = LocalDate.now().minusYears(17);
+		Fornecedor depois = fornecedor("30000000011", nascimento.plusMonths(2));
+		Fornecedor mesmoDia1 = fornecedor("30000000012", nascimento);
+		Fornecedor mesmoDia2 = fornecedor("30000000013", nascimento);
+
+		List<Long> vistos = new ArrayList<>();
+		String cursor = null;
+		do {
+			PaginaCursor<FornecedorListado> pagina = (PaginaCursor<FornecedorListado>)
+					controller.fornecedoresBloqueados(empresa.getId(), cursor, 1).getBody();
+			pagina.itens().forEach(f -> vistos.add(f.id()));
+			cursor = pagina.proximoCursor();
+		} while (cursor != null);
+
+		// primeiro quem faz 18 antes; no mesmo dia, pelo id
+		assertThat(vistos).containsExactly(mesmoDia1.getId(), mesmoDia2.getId(), depois.getId());
+		assertThat(controller.fornecedoresBloqueados(empresa.getId(), "x", 1).getStatusCode().value()).isEqualTo(400);
+	}
+
+	@Test
+	void listarFornecedoresPaginaEOrdenaPelaProjecao() {
+		Empresa empresa = empresa("SP");
+		Fornecedor c = fornecedor("20000000003", LocalDate.of(1990, 1, 1));
+		c.setNome("Carla");
+		fornecedorRepository.save(c);
+		Fornecedor a = fornecedor("20000000001", LocalDate.of(1990, 1, 1));
+		a.setNome("Ana");
+		fornecedorRepository.save(a);
+		Fornecedor b = fornecedor("20000000002", LocalDate.of(1990, 1, 1));
+		b.setNome("Bruno");
+		fornecedorRepository.save(b);
+		controller.vincularEmLote(empresa.getId(), List.of(c.getId(), a.getId(), b.getId()));
+
+		Pagina<FornecedorVinculado> primeira = pagina(controller.listarFornecedores(empresa.getId(), 0, 2, "nome", "asc", null));
+		Pagina<FornecedorVinculado> segunda = pagina(controller.listarFornecedores(empresa.getId(), 1, 2, "nome", "asc", null));
+
+		assertThat(primeira.total()).isEqualTo(3);
+		assertThat(primeira.itens()).extracting(FornecedorVinculado::nome).containsExactly("Ana", "Bruno");
+		assertThat(segunda.itens()).extracting(FornecedorVinculado::nome).containsExactly("Carla");
+		assertThat(pagina(controller.listarFornecedores(empresa.getId(), 0, 10, "nome", "desc", null)).itens())
+				.extracting(FornecedorVinculado::nome).containsExactly("Carla", "Bruno", "Ana");
+		assertThat(controller.listarFornecedores(empresa.getId(), 0, 10, "email", "asc", null).getStatusCode().value())
+				.isEqualTo(400);
+	}
+
+	@Test
+	void vincularEmLoteEmpresaInexistente() {
+		assertThat(controller.vincularEmLote(-1L, List.of(1L)).getStatusCode().value()).isEqualTo(404);
+	}
+
+	@Test
+	void excluirFornecedoresEmLoteApagaVinculosSemTocarNosOutros() {
+		Empresa empresa = empresa("SP");
+		Fornecedor a = fornecedor("30000000001", LocalDate.of(1990, 1, 1));
+		Fornecedor b = fornecedor("30000000002", LocalDate.of(1990, 1, 1));
+		Fornecedor fica = fornecedor("30000000003", LocalDate.of(1990, 1, 1));
+		controller.vincularEmLote(empresa.getId(), List.of(a.getId(), b.getId(), fica.getId()));
+
+		ResultadoExclusao resultado = (ResultadoExclusao) fornecedorController
+				.deletarEmLote(Arrays.asList(a.getId(), b.getId(), a.getId(), -1L, null)).getBody();
+
+		assertThat(resultado.excluidos()).isEqualTo(2);
+		assertThat(resultado.naoEncontrados()).containsExactly(-1L);
+		assertThat(fornecedorRepository.existsById(a.getId())).isFalse();
+		assertThat(fornecedorRepository.existsByCpfCnpj("30000000002")).isFalse();
+		assertThat(empresaFornecedorRepository.findFornecedorIdsVinculados(empresa.getId(),
+				List.of(a.getId(), b.getId(), fica.getId()))).containsExactly(fica.getId());
+		assertThat(fornecedorController.deletar(a.getId()).getStatusCode().value()).isEqualTo(404);
+	}
+
+	@Test
+	void excluirEmpresasEmLoteApagaOsVinculosEmVariasFatias() {
+		controller.corrigirVinculos();
+		// 101 empresas x 100 fornecedores: mais vínculos que uma fatia (10 mil)
+		List<Long> fornecedores = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			fornecedores.add(fornecedor(String.valueOf(50000000000L + i), LocalDate.of(1990, 1, 1)).getId());
+		}
+		List<Long> excluir = new ArrayList<>();
+		for (int i = 0; i < 101; i++) {
+			Empresa e = empresa("SP", String.valueOf(60000000000000L + i));
+			controller.vincularEmLote(e.getId(), fornecedores);
+			excluir.add(e.getId());
+		}
+		Empresa fica = empresa("SP", "70000000000000");
+		controller.vincularEmLote(fica.getId(), fornecedores.subList(0, 3));
+
+		List<Long> pedido = new ArrayList<>(excluir);
+		pedido.add(-1L);
+		ResultadoExclusao resultado = (ResultadoExclusao) empresaController.deletarEmLote(pedido).getBody();
+
+		assertThat(resultado.excluidos()).isEqualTo(101);
+		assertThat(resultado.naoEncontrados()).containsExactly(-1L);
+		assertThat(empresaRepository.findIdsExistentes(excluir)).isEmpty();
+		assertThat(empresaFornecedorRepository.count()).isEqualTo(3);
+		assertThat(empresaFornecedorRepository.findFornecedorIdsVinculados(fica.getId(), fornecedores))
+				.containsExactlyInAnyOrderElementsOf(fornecedores.subList(0, 3));
+		assertThat(fornecedorRepository.count()).isEqualTo(100);
+		assertThat(controller.verificarVinculos().getBody().consistente()).isTrue();
+	}
+
+	@Test
+	void grafoDeVinculosAcompanhaGravacoesEBateComOBanco() {
+		// o limpar() apaga direto pelo repositório: ressincroniza antes de começar
+		controller.corrigirVinculos();
+		Empresa e1 = empresa("SP");
+		Empresa e2 = new Empresa();
+		e2.setCnpj("98765432000155");
+		e2.setNomeFantasia("Outra Empresa");
+		e2.setCep("80000000");
+		e2.setEstado("PR");
+		empresaRepository.save(e2);
+		Fornecedor f1 = fornecedor("40000000001", LocalDate.of(1990, 1, 1));
+		Fornecedor f2 = fornecedor("40000000002", LocalDate.of(1990, 1, 1));
+		Fornecedor f3 = fornecedor("40000000003", LocalDate.of(1990, 1, 1));
+
+		controller.vincular(e1.getId(), f1.getId()).join();
+		controller.vincularEmLote(e1.getId(), List.of(f2.getId(), f3.getId()));
+		controller.vincular(e2.getId(), f2.getId()).join();
+		controller.vincular(e2.getId(), f3.getId()).join();
+
+		assertThat(ids(controller.fornecedoresEmComum(e1.getId(), e2.getId()))).containsExactly(f2.getId(), f3.getId());
+		assertThat(ids(fornecedorController.empresas(f2.getId()))).containsExactly(e1.getId(), e2.getId());
+		ContagemVinculos contagem = (ContagemVinculos) controller
+				.contarVinculos(List.of(e1.getId(), e2.getId()), List.of(f1.getId())).getBody();
+		assertThat(contagem.porEmpresa()).containsEntry(e1.getId(), 3L).containsEntry(e2.getId(), 2L);
+		assertThat(contagem.porFornecedor()).containsEntry(f1.getId(), 1L);
+
+		controller.desvincular(e2.getId(), f3.getId());
+		assertThat(ids(controller.fornecedoresEmComum(e1.getId(), e2.getId()))).containsExactly(f2.getId());
+
+		fornecedorController.deletar(f2.getId());
+		assertThat(ids(controller.fornecedoresEmComum(e1.getId(), e2.getId()))).isEmpty();
+		assertThat(fornecedorController.empresas(f2.getId()).getStatusCode().value()).isEqualTo(404);
+		assertThat(controller.fornecedoresEmComum(e1.getId(), -1L).getStatusCode().value()).isEqualTo(404);
+
+		assertThat(controller.verificarVinculos().getBody().consistente()).isTrue();
+	}
+
+	@Test
+	void telaDeVinculosJuntaAsPartesEAcompanhaOsVinculos() {
+		Empresa empresa = empresa("PR");
+		Fornecedor adulto = fornecedor("40000000001", LocalDate.of(1980, 5, 1));
+		Fornecedor menor = fornecedor("40000000002", LocalDate.now().minusYears(17));
+
+		TelaVinculos semEmpresa = tela(null);
+		assertThat(semEmpresa.empresas()).containsExactly(new Opcao(empresa.getId(), empresa.getNomeFantasia()));
+		assertThat(semEmpresa.fornecedores()).extracting(Opcao::id).containsExactly(adulto.getId(), menor.getId());
+		assertThat(semEmpresa.vinculados()).isNull();
+
+		// empresa do PR: o select não oferece o menor de idade
+		TelaVinculos antes = tela(empresa.getId());
+		assertThat(antes.fornecedores()).extracting(Opcao::id).containsExactly(adulto.getId());
+		assertThat(antes.totalVinculados()).isZero();
+
+		// vincular muda a geração: a montagem seguinte não vem do cache
+		controller.vincular(empresa.getId(), adulto.getId()).join();
+		TelaVinculos depois = tela(empresa.getId());
+		assertThat(depois.fornecedores()).isEmpty();
+		assertThat(depois.vinculados().itens()).extracting(FornecedorVinculado::id).containsExactly(adulto.getId());
+		assertThat(depois.totalVinculados()).isEqualTo(1);
+		assertThat(tela(empresa.getId()).vinculados()).isSameAs(depois.vinculados());
+
+		assertThat(controller.telaVinculos(empresa.getId() + 1000, 0, 100, "nome", null).getStatusCode().value()).isEqualTo(404);
+		assertThat(controller.telaVinculos(empresa.getId(), 0, 100, "email", null).getStatusCode().value()).isEqualTo(400);
+	}
+
+	@Test
+	void selectDaTelaDeVinculosECortadoEFiltradoPeloNome() {
+		Empresa empresa = empresa("SP");
+		List<Fornecedor> novos = new ArrayList<>();
+		for (int i = 0; i < 201; i++) {
+			Fornecedor f = new Fornecedor();
+			f.setNome(i == 150 ? "Serraria 100% Pinho" : "Fornecedor " + i);
+			f.setCpfCnpj(String.format("5%010d", i));
+			f.setEmail("fornecedor@exemplo.com");
+			f.setCep("80000000");
+			f.setTipoPessoa(TipoPessoa.PJ);
+			novos.add(f);
+		}
+		fornecedorRepository.saveAll(novos);
+
+		TelaVinculos cortada = tela(empresa.getId());
+		assertThat(cortada.fornecedores()).hasSize(200);
+		assertThat(cortada.maisFornecedores()).isTrue();
+		assertThat(cortada.maisEmpresas()).isFalse();
+
+		// busca no meio do nome; % digitado é texto
+		TelaVinculos filtrada = tela(empresa.getId(), " 100% ");
+		assertThat(filtrada.fornecedores()).extracting(Opcao::rotulo).containsExactly("Serraria 100% Pinho");
+		assertThat(filtrada.maisFornecedores()).isFalse();
+		assertThat(tela(null, "0%").fornecedores()).extracting(Opcao::rotulo).containsExactly("Serraria 100% Pinho");
+	}
+
+	private TelaVinculos tela(Long empresaId) {
+		return tela(empresaId, null);
+	}
+
+	private TelaVinculos tela(Long empresaId, String buscaFornecedor) {
+		return (TelaVinculos) controller.telaVinculos(empresaId, 0, 100, "nome", buscaFornecedor).getBody();
+	}
+
+	private static long[] ids(ResponseEntity<?> resposta) {
+		return ((IdsVinculados) resposta.getBody()).ids();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Long> idsDaPagina(ResponseEntity<?> resposta) {
+		return ((PaginaCursor<FornecedorListado>) resposta.getBody()).itens().stream().map(FornecedorListado::id).toList();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Pagina<FornecedorVinculado> pagina(ResponseEntity<?> resposta) {
+		return (Pagina<FornecedorVinculado>) resposta.getBody();
+	}
+
+	private Empresa empresa(String estado) {
+		return empresa(estado, "12345678000199");
+	}
+
+	private Empresa empresa(String estado, String cnpj) {
+		return empresaRepository.save(Cadastros.empresa(cnpj, estado));
+	}
+
+	private Fornecedor fornecedor(String cpf, LocalDate nascimento) {
+		return fornecedorRepository.save(Cadastros.fornecedor(cpf, nascimento));
+	}
+}
@@ -0,0 +1,102 @@
+package com.pedro.backend.controller;
+
+import com.pedro.backend.Cadastros;
+import com.pedro.backend.dto.EstatisticasCadastro;
+import com.pedro.backend.model.Empresa;
+import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.model.TipoPessoa;
+import com.pedro.backend.repository.EmpresaFornecedorRepository;
+import com.pedro.backend.repository.EmpresaRepository;
+import com.pedro.backend.repository.FornecedorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.pedro.backend.Cadastros.CEP_PR;
+import static com.pedro.backend.Cadastros.CEP_SP;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EstatisticasControllerTests {
+
+	@Autowired
+	private EstatisticasController controller;
+
+	@Autowired
+	private EmpresaController empresaController;
+
+	@Autowired
+	private FornecedorController fornecedorController;
+
+	@Autowired
+	private EmpresaFornecedorController vinculoController;
+
+	@Autowired
+	private EmpresaRepository empresaRepository;
+
+	@Autowired
+	private FornecedorRepository fornecedorRepository;
+
+	@Autowired
+	private EmpresaFornecedorRepository empresaFornecedorRepository;
+
+	@BeforeEach
+	void limpar() {
+		empresaFornecedorRepository.deleteAll();
+		fornecedorRepository.deleteAll();
+		empresaRepository.deleteAll();
+		// apagados direto pelo repositório: zera contadores e grafo
+		vinculoController.corrigirVinculos();
+		controller.recontar();
+	}
+
+	@Test
+	void contadoresAcompanhamCadastroAlteracaoVinculoEExclusao() {
+		Empresa pr = empresa("11111111000111", "PR");
+		empresa("22222222000122", "SP");
+		Fornecedor menor = fornecedor("50000000001", LocalDate.now().minusYears(17), CEP_PR);
+		Fornecedor adulto = fornecedor("50000000002", LocalDate.of(1980, 1, 1), CEP_SP);
+		Fornecedor pj = fornecedor("50000000000103", null, CEP_PR);
+		vinculoController.vincular(pr.getId(), adulto.getId()).join();
+		vinculoController.vincular(pr.getId(), pj.getId()).join();
+
+		EstatisticasCadastro e = controller.estatisticas().getBody();
+		assertThat(e.empresas()).isEqualTo(2);
+		assertThat(e.fornecedores()).isEqualTo(3);
+		assertThat(e.vinculos()).isEqualTo(2);
+		assertThat(e.empresasSemFornecedor()).isEqualTo(1);
+		assertThat(e.empresasPorFaixaDeFornecedores()).containsEntry("2-10", 1L);
+		assertThat(e.empresasPorUf()).containsEntry("PR", 1L).containsEntry("SP", 1L);
+		assertThat(e.fornecedoresPorTipo()).containsEntry(TipoPessoa.PF, 2L).containsEntry(TipoPessoa.PJ, 1L);
+		assertThat(e.fornecedoresPorUf()).containsEntry("PR", 2L).containsEntry("SP", 1L);
+		assertThat(e.fornecedoresMenoresDeIdade()).isEqualTo(1);
+
+		Fornecedor mudanca = new Fornecedor();
+		mudanca.setCep("01000000");
+		mudanca.setDataNascimento(LocalDate.of(2000, 1, 1));
+		fornecedorController.atualizar(menor.getId(), mudanca, null);
+		fornecedorController.deletarEmLote(List.of(pj.getId()));
+
+		e = controller.estatisticas().getBody();
+		assertThat(e.fornecedores()).isEqualTo(2);
+		assertThat(e.vinculos()).isEqualTo(1);
+		assertThat(e.fornecedoresPorTipo()).containsEntry(TipoPessoa.PJ, 0L);
+		assertThat(e.fornecedoresPorUf()).containsOnlyKeys("SP").containsEntry("SP", 2L);
+		assertThat(e.fornecedoresMenoresDeIdade()).isZero();
+
+		// os incrementos batem com uma recontagem no banco
+		assertThat(controller.recontar().getBody()).isEqualTo(e);
+	}
+
+	private Empresa empresa(String cnpj, String estado) {
+		return (Empresa) empresaController.criar(Cadastros.empresa(cnpj, estado)).getBody();
+	}
+
+	private Fornecedor fornecedor(String documento, LocalDate nascimento, String cep) {
+		return (Fornecedor) fornecedorController.criar(Cadastros.fornecedor(documento, nascimento, cep)).getBody();
+	}
+}
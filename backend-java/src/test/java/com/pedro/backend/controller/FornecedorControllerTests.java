@@ -0,0 +1,205 @@
+package com.pedro.backend.controller;
+
+import com.pedro.backend.dto.FornecedorListado;
+import com.pedro.backend.dto.PaginaCursor;
+import com.pedro.backend.dto.ResultadoBusca;
+import com.pedro.backend.dto.ResultadoImportacao;
+import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.model.TipoPessoa;
+import com.pedro.backend.repository.EmpresaFornecedorRepository;
+import com.pedro.backend.repository.FornecedorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class FornecedorControllerTests {
+
+	@Autowired
+	private FornecedorController controller;
+
+	@Autowired
+	private FornecedorRepository fornecedorRepository;
+
+	@Autowired
+	private EmpresaFornecedorRepository empresaFornecedorRepository;
+
+	@BeforeEach
+	void limpar() {
+		empresaFornecedorRepository.deleteAll();
+		fornecedorRepository.deleteAll();
+	}
+
+	@Test
+	void listarPercorreTodasAsPaginasPeloCursor() {
+		for (int i = 0; i < 7; i++) {
+			salvar("Fornecedor " + i, "1000000000" + i, TipoPessoa.PJ);
+		}
+
+		List<FornecedorListado> vistos = new ArrayList<>();
+		String cursor = null;
+		int paginas = 0;
+		do {
+			PaginaCursor<FornecedorListado> pagina = pagina(controller.listar(cursor, 3, null, false, null, null, null));
+			vistos.addAll(pagina.itens());
+			cursor = pagina.proximoCursor();
+			paginas++;
+		} while (cursor != null);
+
+		assertThat(paginas).isEqualTo(3);
+		assertThat(vistos).extracting(FornecedorListado::cpfCnpj).doesNotHaveDuplicates().hasSize(7);
+	}
+
+	@Test
+	void listarAplicaFiltrosNoBanco() {
+		salvar("Padaria Central", "11111111000100", TipoPessoa.PJ);
+		salvar("Mercado Central", "22222222000100", TipoPessoa.PJ);
+		salvar("João Central", "33333333333", TipoPessoa.PF);
+
+		salvar("Mercado Popular", "44444444444", TipoPessoa.PF);
+		salvar("Mercado 100% Popular", "55555555555", TipoPessoa.PF);
+
+		assertThat(pagina(controller.listar(null, 50, "central", false, null, TipoPessoa.PJ, null)).itens())
+				.extracting(FornecedorListado::nome)
+				.containsExactly("Padaria Central", "Mercado Central");
+		assertThat(pagina(controller.listar(null, 50, "MERC", false, null, null, null)).itens())
+				.extracting(FornecedorListado::nome)
+				.containsExactly("Mercado Central", "Mercado Popular", "Mercado 100% Popular");
+		assertThat(pagina(controller.listar(null, 50, " ", false, "2222", null, null)).itens())
+				.extracting(FornecedorListado::nome)
+				.containsExactly("Mercado Central");
+		// % e _ são texto, não curinga
+		assertThat(pagina(controller.listar(null, 50, "100%", false, null, null, null)).itens())
+				.extracting(FornecedorListado::nome)
+				.containsExactly("Mercado 100% Popular");
+		assertThat(pagina(controller.listar(null, 50, "_", false, null, null, null)).itens()).isEmpty();
+		assertThat(pagina(controller.listar(null, 50, null, false, "%", null, null)).itens()).isEmpty();
+	}
+
+	@Test
+	void listarPorPrefixoDoNomeSoPegaOComeco() {
+		salvar("Padaria Central", "11111111000100", TipoPessoa.PJ);
+		salvar("Mercado Central", "22222222000100", TipoPessoa.PJ);
+
+		assertThat(pagina(controller.listar(null, 50, "merc", true, null, null, null)).itens())
+				.extracting(FornecedorListado::nome)
+				.containsExactly("Mercado Central");
+		assertThat(pagina(controller.listar(null, 50, "central", true, null, null, null)).itens()).isEmpty();
+	}
+
+	@Test
+	void listarRecusaCursorInvalido() {
+		assertThat(controller.listar("%%%", 50, null, false, null, null, null).getStatusCode().value()).isEqualTo(400);
+	}
+
+	@Test
+	void exportarEscreveUmFornecedorPorLinha() throws Exception {
+		salvar("Primeiro", "44444444000100", TipoPessoa.PJ);
+		salvar("Segundo", "55555555000100", TipoPessoa.PJ);
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller.exportar(response);
+
+		assertThat(response.getContentType()).startsWith("application/x-ndjson");
+		assertThat(response.getContentAsString().split("\n"))
+				.hasSize(2)
+				.allSatisfy(linha -> assertThat(linha).startsWith("{").endsWith("}"))
+				.anySatisfy(linha -> assertThat(linha).contains("\"nome\":\"Segundo\""));
+	}
+
+	@Test
+	void importarCsvGravaEmLotesERelataErrosPorLinha() throws Exception {
+		salvar("Já Cadastrado", "99999999000100", TipoPessoa.PJ);
+		String csv = String.join("\n",
+				"nome;cpfCnpj;email;rg;dataNascimento;cep;tipoPessoa",
+				"Alfa;11111111000111;a@x.com;;;80000000;PJ",
+				"Beta; 22222222222 ;b@x.com;123;01/02/1990;80000000;PF",
+				"Gama;33333333333;g@x.com;;;80000000;PF",
+				"Delta;99999999000100;d@x.com;;;80000000;PJ",
+				"Eta;11111111000111;e@x.com;;;80000000;PJ",
+				"Teta;44444444000144;t@x.com;;;80000000;XX");
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setContentType("text/csv");
+		request.setContent(csv.getBytes(StandardCharsets.UTF_8));
+
+		ResultadoImportacao resultado = (ResultadoImportacao) controller.importar(2, request).getBody();
+
+		assertThat(resultado.linhas()).isEqualTo(6);
+		assertThat(resultado.importadas()).isEqualTo(2);
+		assertThat(resultado.erros()).extracting(ResultadoImportacao.ErroLinha::linha)
+				.containsExactlyInAnyOrder(4L, 5L, 6L, 7L);
+		assertThat(fornecedorRepository.findByCpfCnpj("22222222222")).hasSize(1);
+	}
+
+	@Test
+	void importarNdjsonAceitaOArquivoDoExport() throws Exception {
+		salvar("Primeiro", "44444444000100", TipoPessoa.PJ);
+		salvar("Segundo", "55555555555", TipoPessoa.PF);
+		MockHttpServletResponse exportado = new MockHttpServletResponse();
+		controller.exportar(exportado);
+		fornecedorRepository.deleteAll();
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setContentType("application/x-ndjson");
+		request.setContent(exportado.getContentAsByteArray());
+		ResultadoImportacao resultado = (ResultadoImportacao) controller.importar(null, request).getBody();
+
+		assertThat(resultado.erros()).isEmpty();
+		assertThat(resultado.importadas()).isEqualTo(2);
+		assertThat(fornecedorRepository.findByCpfCnpj("55555555555"))
+				.singleElement()
+				.satisfies(f -> assertThat(f.getDataNascimento()).isEqualTo(LocalDate.of(1990, 1, 1)));
+	}
+
+	@Test
+	void buscaTextualAcompanhaCadastroEExclusao() {
+		Fornecedor novo = new Fornecedor();
+		novo.setNome("Distribuidora Conceição Ltda");
+		novo.setCpfCnpj("55666777000155");
+		novo.setEmail("contato@conceicao.com");
+		novo.setCep("80000000");
+		novo.setTipoPessoa(TipoPessoa.PJ);
+		Fornecedor salvo = (Fornecedor) controller.criar(novo).getBody();
+
+		assertThat(busca("distrib conceicao")).extracting(ResultadoBusca::id).containsExactly(salvo.getId());
+
+		controller.deletar(salvo.getId());
+		assertThat(busca("distrib conceicao")).isEmpty();
+		assertThat(controller.buscarTexto(" ", 20).getStatusCode().value()).isEqualTo(400);
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<ResultadoBusca> busca(String texto) {
+		return (List<ResultadoBusca>) controller.buscarTexto(texto, 20).getBody();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static PaginaCursor<FornecedorListado> pagina(ResponseEntity<?> resposta) {
+		return (PaginaCursor<FornecedorListado>) resposta.getBody();
+	}
+
+	private void salvar(String nome, String cpfCnpj, TipoPessoa tipo) {
+		Fornecedor f = new Fornecedor();
+		f.setNome(nome);
+		f.setCpfCnpj(cpfCnpj);
+		f.setEmail("contato@exemplo.com");
+		f.setCep("80000000");
+		f.setTipoPessoa(tipo);
+		if (tipo == TipoPessoa.PF) {
+			f.setRg("123456");
+			f.setDataNascimento(LocalDate.of(1990, 1, 1));
+		}
+		fornecedorRepository.save(f);
+	}
+}
@@ -0,0 +1,61 @@
+package com.pedro.backend.estatistica;
+
+import com.pedro.backend.model.Empresa;
+import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.model.TipoPessoa;
+import com.pedro.backend.regra.RegraParana;
+import com.pedro.backend.repository.EmpresaFornecedorRepository;
+import com.pedro.backend.repository.FornecedorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ContadoresCadastroTests {
+
+	@Autowired
+	private ContadoresCadastro contadores;
+
+	@Autowired
+	private FornecedorRepository fornecedorRepository;
+
+	@Autowired
+	private EmpresaFornecedorRepository empresaFornecedorRepository;
+
+	// volta os contadores para a data de hoje
+	@AfterEach
+	void recontar() {
+		contadores.recontar();
+	}
+
+	@Test
+	void nascidoEm29DeFevereiroContaComoMenorAte1DeMarcoComoNaRegraDoParana() {
+		empresaFornecedorRepository.deleteAll();
+		fornecedorRepository.deleteAll();
+		Fornecedor f = new Fornecedor();
+		f.setNome("Bissexto");
+		f.setCpfCnpj("29022008000");
+		f.setEmail("b@exemplo.com");
+		f.setCep("80000000");
+		f.setTipoPessoa(TipoPessoa.PF);
+		f.setRg("123456");
+		f.setDataNascimento(LocalDate.of(2008, 2, 29));
+		fornecedorRepository.save(f);
+		Empresa pr = new Empresa();
+		pr.setEstado("PR");
+
+		LocalDate vespera = LocalDate.of(2026, 2, 28);
+		contadores.recontar(vespera);
+		assertThat(contadores.menoresDeIdade(vespera)).isEqualTo(1);
+		assertThat(RegraParana.bloqueia(pr, f, vespera)).isTrue();
+
+		LocalDate aniversario = LocalDate.of(2026, 3, 1);
+		assertThat(contadores.menoresDeIdade(aniversario)).isZero();
+		assertThat(RegraParana.bloqueia(pr, f, aniversario)).isFalse();
+	}
+}
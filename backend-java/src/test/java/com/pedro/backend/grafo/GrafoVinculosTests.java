@@ -0,0 +1,113 @@
+package com.pedro.backend.grafo;
+
+import com.pedro.backend.dto.ConsistenciaVinculos;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GrafoVinculosTests {
+
+	@Test
+	void vinculaDesvinculaEContaDosDoisLados() {
+		GrafoVinculos grafo = new GrafoVinculos();
+		assertThat(grafo.vincular(1, 10)).isTrue();
+		assertThat(grafo.vincular(1, 10)).isFalse();
+		grafo.vincular(1, 11);
+		grafo.vincular(2, 10);
+
+		assertThat(grafo.fornecedoresDe(1)).containsExactly(10, 11);
+		assertThat(grafo.empresasDe(10)).containsExactly(1, 2);
+		assertThat(grafo.grauEmpresa(1)).isEqualTo(2);
+		assertThat(grafo.vinculos()).isEqualTo(3);
+
+		assertThat(grafo.desvincular(1, 10)).isTrue();
+		assertThat(grafo.desvincular(1, 10)).isFalse();
+		assertThat(grafo.empresasDe(10)).containsExactly(2);
+		assertThat(grafo.vinculos()).isEqualTo(2);
+	}
+
+	@Test
+	void exclusaoDeNoApagaDoOutroLado() {
+		GrafoVinculos grafo = new GrafoVinculos();
+		for (long empresa = 1; empresa <= 3; empresa++) {
+			grafo.vincular(empresa, 100);
+			grafo.vincular(empresa, 200);
+		}
+
+		grafo.removerFornecedores(List.of(100L, 999L));
+		assertThat(grafo.fornecedoresDe(2)).containsExactly(200);
+		assertThat(grafo.empresasDe(100)).isEmpty();
+
+		grafo.removerEmpresas(List.of(1L, 3L));
+		assertThat(grafo.empresasDe(200)).containsExactly(2);
+		assertThat(grafo.vinculos()).isEqualTo(1);
+	}
+
+	@Test
+	void emComumCruzaListasEMapasDeBits() {
+		GrafoVinculos grafo = new GrafoVinculos();
+		// empresa 1: 20 mil fornecedores seguidos (vira mapa de bits) + alguns em outro bloco de ids
+		LongStream.rangeClosed(1, 20_000).forEach(f -> grafo.vincular(1, f));
+		grafo.vincular(1, 5_000_000_000L);
+		// empresa 2: múltiplos de 7 (mapa de bits) e empresa 3: poucos (lista)
+		LongStream.rangeClosed(1, 40_000).filter(f -> f % 7 == 0).forEach(f -> grafo.vincular(2, f));
+		grafo.vincular(2, 5_000_000_000L);
+		List.of(3L, 7L, 70_000L, 5_000_000_000L).forEach(f -> grafo.vincular(3, f));
+
+		assertThat(grafo.fornecedoresEmComum(1, 2))
+				.hasSize(20_000 / 7 + 1)
+				.startsWith(7, 14)
+				.endsWith(19_999, 5_000_000_000L);
+		assertThat(grafo.fornecedoresEmComum(1, 3)).containsExactly(3, 7, 5_000_000_000L);
+		assertThat(grafo.fornecedoresEmComum(3, 2)).containsExactly(7, 5_000_000_000L);
+		assertThat(grafo.fornecedoresEmComum(1, 99)).isEmpty();
+
+		// volta de mapa de bits para lista ao remover
+		LongStream.rangeClosed(1, 19_000).forEach(f -> grafo.desvincular(1, f));
+		assertThat(grafo.fornecedoresEmComum(1, 3)).containsExactly(5_000_000_000L);
+		assertThat(grafo.grauEmpresa(1)).isEqualTo(1_001);
+	}
+
+	@Test
+	void mapaDeIdsSobreviveARemocoesNoMeioDasColisoes() {
+		MapaIds<String> mapa = new MapaIds<>();
+		TreeSet<Long> esperado = new TreeSet<>();
+		for (long id = 1; id <= 5_000; id++) {
+			mapa.obterOuCriar(id * 1024, String::valueOf);
+			esperado.add(id * 1024);
+		}
+		for (long id = 1; id <= 5_000; id += 3) {
+			assertThat(mapa.remover(id * 1024)).isEqualTo(String.valueOf(id * 1024));
+			esperado.remove(id * 1024);
+		}
+
+		assertThat(mapa.tamanho()).isEqualTo(esperado.size());
+		TreeSet<Long> presentes = new TreeSet<>();
+		mapa.paraCada((id, valor) -> presentes.add(id));
+		assertThat(presentes).isEqualTo(esperado);
+		assertThat(mapa.obter(1024)).isNull();
+		assertThat(mapa.obter(2048)).isEqualTo("2048");
+	}
+
+	@Test
+	void comparacaoApontaFaltandoESobrando() {
+		GrafoVinculos banco = new GrafoVinculos();
+		banco.vincular(1, 10);
+		banco.vincular(2, 20);
+		GrafoVinculos memoria = new GrafoVinculos();
+		memoria.vincular(1, 10);
+		memoria.vincular(3, 30);
+
+		ConsistenciaVinculos resultado = memoria.comparar(banco);
+
+		assertThat(resultado.consistente()).isFalse();
+		assertThat(resultado.faltandoNoGrafo()).isEqualTo(1);
+		assertThat(resultado.sobrandoNoGrafo()).isEqualTo(1);
+		assertThat(resultado.empresasDivergentes()).containsExactlyInAnyOrder(2L, 3L);
+		assertThat(banco.comparar(banco).consistente()).isTrue();
+	}
+}
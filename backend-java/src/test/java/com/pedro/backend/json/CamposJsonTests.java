@@ -0,0 +1,72 @@
+package com.pedro.backend.json;
+
+import com.pedro.backend.dto.EmpresaListada;
+import com.pedro.backend.dto.FornecedorListado;
+import com.pedro.backend.model.Empresa;
+import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.model.TipoPessoa;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CamposJsonTests {
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void escritorDaListagemGeraOMesmoJsonQueAEntidade() {
+		Fornecedor pf = new Fornecedor();
+		pf.setId(7L);
+		pf.setNome("João \"Zé\" da Silva");
+		pf.setCpfCnpj("12345678901");
+		pf.setEmail("joao@exemplo.com");
+		pf.setRg("1234567");
+		pf.setDataNascimento(LocalDate.of(1990, 2, 1));
+		pf.setCep("80000000");
+		pf.setTipoPessoa(TipoPessoa.PF);
+		pf.setVersao(3L);
+
+		FornecedorListado listado = new FornecedorListado(7L, "João \"Zé\" da Silva", "12345678901",
+				"joao@exemplo.com", "1234567", LocalDate.of(1990, 2, 1), "80000000", TipoPessoa.PF, 3L);
+
+		// mesmos campos e valores (a ordem dos campos não importa para o cliente)
+		assertThat(json(listado)).isEqualTo(json(pf));
+
+		// PJ: rg e data de nascimento nulos continuam no JSON
+		Fornecedor pj = new Fornecedor();
+		pj.setId(8L);
+		pj.setNome("Mercado");
+		pj.setCpfCnpj("11111111000100");
+		pj.setEmail("m@exemplo.com");
+		pj.setCep("80000000");
+		pj.setTipoPessoa(TipoPessoa.PJ);
+		pj.setVersao(0L);
+
+		assertThat(json(new FornecedorListado(8L, "Mercado", "11111111000100", "m@exemplo.com",
+				null, null, "80000000", TipoPessoa.PJ, 0L)))
+				.isEqualTo(json(pj));
+
+		Empresa empresa = new Empresa();
+		empresa.setId(1L);
+		empresa.setCnpj("11111111000111");
+		empresa.setNomeFantasia("Empresa");
+		empresa.setCep("01000000");
+		empresa.setEstado("SP");
+		empresa.setVersao(2L);
+
+		assertThat(json(new EmpresaListada(1L, "11111111000111", "Empresa", "01000000", "SP", 2L)))
+				.isEqualTo(json(empresa));
+	}
+
+	private JsonNode json(Object valor) {
+		return objectMapper.readTree(objectMapper.writeValueAsString(valor));
+	}
+}
@@ -0,0 +1,61 @@
+package com.pedro.backend.metricas;
+
+import com.pedro.backend.repository.EmpresaRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ExtendWith(OutputCaptureExtension.class)
+class DetectorNMaisUmTests {
+
+	@Autowired
+	private DetectorNMaisUm detector;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private EmpresaRepository empresaRepository;
+
+	@Test
+	void contaComandosPorRotaEAvisaAcimaDoLimite(CapturedOutput saida) throws Exception {
+		requisicao("/teste/poucos", 3);
+		assertThat(saida).doesNotContain("/teste/poucos");
+
+		// um SELECT por item: passa do alerta (25) e o comando repetido vai para o log
+		requisicao("/teste/laco", 30);
+		assertThat(saida).contains("GET /teste/laco executou 30 comandos SQL", "(30x)");
+
+		assertThat(resumo("/teste/poucos").totalAmount()).isEqualTo(3);
+		assertThat(resumo("/teste/laco").totalAmount()).isEqualTo(30);
+
+		// fora de uma requisição nada é contado
+		empresaRepository.count();
+		assertThat(resumo("/teste/laco").count()).isEqualTo(1);
+	}
+
+	private void requisicao(String rota, int consultas) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", rota);
+		detector.doFilter(request, new MockHttpServletResponse(), (req, resp) -> {
+			for (int i = 0; i < consultas; i++) {
+				empresaRepository.count();
+			}
+			req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, rota);
+		});
+	}
+
+	private DistributionSummary resumo(String rota) {
+		return registry.get(DetectorNMaisUm.METRICA).tag("uri", rota).summary();
+	}
+}
@@ -0,0 +1,134 @@
+package com.pedro.backend.replica;
+
+import com.pedro.backend.controller.EmpresaController;
+import com.pedro.backend.dto.ConsistenciaVinculos;
+import com.pedro.backend.dto.EmpresaListada;
+import com.pedro.backend.grafo.IndiceVinculos;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// primário = o H2 de sempre dos testes; réplica = outro H2 em memória com o mesmo esquema e uma
+// empresa que só existe nela (é assim que se vê de onde a leitura veio). A segunda "réplica"
+// aponta para uma porta fechada.
+@SpringBootTest(properties = {
+		"banco.replicas.habilitado=true",
+		"banco.replicas.urls=" + ReplicasLeituraTests.REPLICA + ",jdbc:h2:tcp://127.0.0.1:1/fora_do_ar",
+		"banco.replicas.espera-conexao=250ms",
+		"banco.replicas.verificacao=1h",
+		"banco.replicas.leitura-apos-escrita=30s"
+})
+class ReplicasLeituraTests {
+
+	static final String REPLICA = "jdbc:h2:mem:replica_testes;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+	private static final long SO_NA_REPLICA = 9_900_001L;
+	private static final long FORNECEDOR_SO_NA_REPLICA = 9_900_002L;
+
+	@Autowired
+	private LeituraAposEscrita filtro;
+
+	@Autowired
+	private ReplicasLeitura replicas;
+
+	@Autowired
+	private EmpresaController controller;
+
+	@Autowired
+	private IndiceVinculos indiceVinculos;
+
+	@BeforeAll
+	static void prepararReplica() {
+		Flyway.configure().dataSource(REPLICA, "sa", "").load().migrate();
+		new JdbcTemplate(new DriverManagerDataSource(REPLICA, "sa", "")).update(
+				"INSERT INTO empresas (id, cnpj, nome_fantasia, cep, estado) VALUES (?, '99000000000199', 'Só na réplica', '80010000', 'PR')",
+				SO_NA_REPLICA);
+		new JdbcTemplate(new DriverManagerDataSource(REPLICA, "sa", "")).update(
+				"INSERT INTO fornecedores (id, nome, cpf_cnpj, email, cep, tipo_pessoa) VALUES (?, 'Só na réplica', '99000000001', 'replica@exemplo.com', '80010000', 'PJ')",
+				FORNECEDOR_SO_NA_REPLICA);
+		new JdbcTemplate(new DriverManagerDataSource(REPLICA, "sa", "")).update(
+				"INSERT INTO empresas_fornecedores (id, empresa_id, fornecedor_id) VALUES (?, ?, ?)",
+				9_900_003L, SO_NA_REPLICA, FORNECEDOR_SO_NA_REPLICA);
+	}
+
+	@Test
+	void getLeDaReplicaEEscritaFicaNoPrimario() throws Exception {
+		List<Long> ids = new ArrayList<>();
+		requisicao("GET", null, () -> controller.listar(null).getBody().forEach(e -> ids.add(e.id())));
+		assertThat(ids).contains(SO_NA_REPLICA);
+
+		List<Integer> status = new ArrayList<>();
+		requisicao("GET", null, () -> status.add(controller.buscar(SO_NA_REPLICA, null).getStatusCode().value()));
+		assertThat(status).containsExactly(200);
+
+		// fora de um GET (threads de fundo, carga dos índices) e em POST/PUT/DELETE: primário
+		assertThat(controller.listar(null).getBody()).extracting(EmpresaListada::id).doesNotContain(SO_NA_REPLICA);
+		List<Long> naEscrita = new ArrayList<>();
+		requisicao("POST", null, () -> controller.listar(null).getBody().forEach(e -> naEscrita.add(e.id())));
+		assertThat(naEscrita).doesNotContain(SO_NA_REPLICA);
+	}
+
+	@Test
+	void verificacaoDoGrafoNumGetLeDoPrimario() throws Exception {
+		List<ConsistenciaVinculos> resultado = new ArrayList<>();
+		requisicao("GET", null, () -> resultado.add(indiceVinculos.verificar(false)));
+
+		// lendo da réplica, o vínculo que só existe nela apareceria faltando no grafo
+		assertThat(resultado.get(0).faltandoNoGrafo()).isZero();
+		assertThat(resultado.get(0).empresasDivergentes()).doesNotContain(SO_NA_REPLICA);
+	}
+
+	@Test
+	void depoisDeEscreverOClienteLeDoPrimarioDuranteAJanela() throws Exception {
+		MockHttpServletResponse escrita = requisicao("POST", null, () -> {});
+		Cookie cookie = escrita.getCookie(LeituraAposEscrita.COOKIE);
+		assertThat(cookie).isNotNull();
+		assertThat(cookie.getMaxAge()).isEqualTo(31);
+
+		List<Long> ids = new ArrayList<>();
+		requisicao("GET", cookie, () -> controller.listar(null).getBody().forEach(e -> ids.add(e.id())));
+		assertThat(ids).doesNotContain(SO_NA_REPLICA);
+
+		// janela vencida: volta para a réplica
+		Cookie vencido = new Cookie(LeituraAposEscrita.COOKIE, Long.toString(System.currentTimeMillis() - 1));
+		requisicao("GET", vencido, () -> controller.listar(null).getBody().forEach(e -> ids.add(e.id())));
+		assertThat(ids).contains(SO_NA_REPLICA);
+	}
+
+	@Test
+	void replicaForaDoArSaiDoRodizio() throws Exception {
+		// o rodízio passa pelas duas; quem cai na réplica fechada espera 250ms e segue para a outra
+		for (int i = 0; i < 4; i++) {
+			List<Long> ids = new ArrayList<>();
+			requisicao("GET", null, () -> controller.listar(null).getBody().forEach(e -> ids.add(e.id())));
+			assertThat(ids).contains(SO_NA_REPLICA);
+		}
+		assertThat(replicas.saudaveis()).isEqualTo(1);
+
+		// a verificação periódica mantém fora quem continua sem responder
+		replicas.verificar();
+		assertThat(replicas.saudaveis()).isEqualTo(1);
+	}
+
+	private MockHttpServletResponse requisicao(String metodo, Cookie cookie, Runnable corpo) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(metodo, "/empresas");
+		if (cookie != null) {
+			request.setCookies(cookie);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filtro.doFilter(request, response, (req, resp) -> corpo.run());
+		return response;
+	}
+}
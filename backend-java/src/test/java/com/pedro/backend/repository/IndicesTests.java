@@ -0,0 +1,53 @@
+package com.pedro.backend.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// confere pelo EXPLAIN que as consultas principais usam os índices da migração V2
+@SpringBootTest
+class IndicesTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void parEmpresaFornecedorUsaChaveUnica() {
+		assertThat(plano("SELECT id FROM empresas_fornecedores WHERE empresa_id = 1 AND fornecedor_id = 2"))
+				.contains("uk_empresas_fornecedores_par");
+	}
+
+	@Test
+	void fornecedoresDaEmpresaUsamChaveUnicaPeloPrefixo() {
+		assertThat(plano("SELECT f.id, f.nome FROM fornecedores f"
+				+ " JOIN empresas_fornecedores ef ON ef.fornecedor_id = f.id WHERE ef.empresa_id = 1"))
+				.contains("uk_empresas_fornecedores_par");
+	}
+
+	@Test
+	void vinculosDoFornecedorUsamIndiceInverso() {
+		assertThat(plano("SELECT empresa_id FROM empresas_fornecedores WHERE fornecedor_id = 2"))
+				.contains("idx_empresas_fornecedores_fornecedor");
+	}
+
+	@Test
+	void buscaPorInicioDoNomeUsaIndiceDeNome() {
+		assertThat(plano("SELECT id FROM fornecedores WHERE nome LIKE 'Merc%'"))
+				.contains("idx_fornecedores_nome");
+	}
+
+	@Test
+	void menoresPaginamPeloIndiceDeMaioridade() {
+		assertThat(plano("SELECT id FROM fornecedores WHERE data_maioridade > DATE '2026-01-01'"
+				+ " AND (data_maioridade > DATE '2026-03-01' OR (data_maioridade = DATE '2026-03-01' AND id > 10))"
+				+ " ORDER BY data_maioridade, id LIMIT 51"))
+				.contains("idx_fornecedores_maioridade");
+	}
+
+	private String plano(String sql) {
+		return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toLowerCase();
+	}
+}
@@ -0,0 +1,91 @@
+package com.pedro.backend.vinculo;
+
+import com.pedro.backend.controller.EmpresaFornecedorController;
+import com.pedro.backend.dto.ResultadoVinculoLote.Item;
+import com.pedro.backend.dto.ResultadoVinculoLote.Status;
+import com.pedro.backend.model.Empresa;
+import com.pedro.backend.model.Fornecedor;
+import com.pedro.backend.regra.RegraParana;
+import com.pedro.backend.repository.EmpresaFornecedorRepository;
+import com.pedro.backend.repository.EmpresaRepository;
+import com.pedro.backend.repository.FornecedorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static com.pedro.backend.Cadastros.empresa;
+import static com.pedro.backend.Cadastros.fornecedor;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "vinculos.escrita-agrupada.habilitada=true")
+class FilaVinculosTests {
+
+	@Autowired
+	private EmpresaFornecedorController controller;
+
+	@Autowired
+	private EmpresaRepository empresaRepository;
+
+	@Autowired
+	private FornecedorRepository fornecedorRepository;
+
+	@Autowired
+	private EmpresaFornecedorRepository empresaFornecedorRepository;
+
+	@BeforeEach
+	void limpar() {
+		empresaFornecedorRepository.deleteAll();
+		fornecedorRepository.deleteAll();
+		empresaRepository.deleteAll();
+		controller.corrigirVinculos();
+	}
+
+	@Test
+	void pedidosConcorrentesViramLotesSemDuplicarVinculo() {
+		Empresa empresa = empresaRepository.save(empresa("11111111000111", "PR"));
+		List<Fornecedor> adultos = IntStream.range(0, 20)
+				.mapToObj(i -> fornecedorRepository.save(fornecedor(String.format("%014d", 70_000_000_000L + i), null)))
+				.toList();
+		Fornecedor menor = fornecedorRepository.save(fornecedor("50000000001", LocalDate.now().minusYears(16)));
+
+		// cada fornecedor pedido duas vezes ao mesmo tempo, de várias threads
+		List<CompletableFuture<ResponseEntity<?>>> pedidos = new ArrayList<>();
+		List<CompletableFuture<Void>> disparos = new ArrayList<>();
+		for (Fornecedor f : adultos) {
+			for (int vez = 0; vez < 2; vez++) {
+				disparos.add(CompletableFuture.runAsync(() -> {
+					synchronized (pedidos) {
+						pedidos.add(controller.vincular(empresa.getId(), f.getId()));
+					}
+				}));
+			}
+		}
+		disparos.forEach(CompletableFuture::join);
+
+		List<Integer> status = pedidos.stream().map(p -> p.join().getStatusCode().value()).toList();
+		assertThat(status).filteredOn(s -> s == 201).hasSize(20);
+		assertThat(status).filteredOn(s -> s == 400).hasSize(20);
+		assertThat(empresaFornecedorRepository.count()).isEqualTo(20);
+		// mesmo corpo do modo síncrono
+		assertThat(pedidos.stream().map(CompletableFuture::join).filter(r -> r.getStatusCode().value() == 201)
+				.map(ResponseEntity::getBody).map(b -> ((Item) b).status()).distinct())
+				.containsExactly(Status.VINCULADO);
+
+		ResponseEntity<?> paraMenor = controller.vincular(empresa.getId(), menor.getId()).join();
+		assertThat(paraMenor.getStatusCode().value()).isEqualTo(400);
+		assertThat(paraMenor.getBody()).isEqualTo(RegraParana.MENSAGEM);
+		assertThat(controller.vincular(empresa.getId(), 999_999_999L).join().getStatusCode().value()).isEqualTo(404);
+		assertThat(controller.vincular(999_999_999L, adultos.get(0).getId()).join().getStatusCode().value()).isEqualTo(404);
+
+		// grafo em memória atualizado pelo mesmo caminho do vínculo em lote
+		assertThat(controller.verificarVinculos().getBody().consistente()).isTrue();
+	}
+}
@@ -0,0 +1,97 @@
+# Teste de carga simples do backend: vazão e latência (p50/p99) por endpoint.
+#
+# Uso (com o backend rodando):
+#   python scripts/carga.py --base http://localhost:8081 --concorrencia 200 --duracao 30
+#
+# Para comparar os modos, rode uma vez com o backend normal e outra com
+# JAVA_OPTS="-Dspring.threads.virtual.enabled=true".
+#
+# Cada trabalhador se identifica como um cliente (X-Cliente) para não esbarrar na taxa por
+# cliente da admissão; 429/503 da admissão saem na coluna "recusadas", fora da latência.
+import argparse
+import threading
+import time
+from concurrent.futures import ThreadPoolExecutor
+
+import requests
+
+
+def preparar(base):
+    # garante uma empresa e um fornecedor para o endpoint de vínculo
+    empresa = requests.post(f"{base}/empresas", json={
+        "cnpj": str(int(time.time() * 1000))[-14:].rjust(14, "0"),
+        "nomeFantasia": "Carga",
+        "cep": "01000000",
+        "estado": "SP",
+    }, timeout=10).json()
+    fornecedor = requests.post(f"{base}/fornecedores", json={
+        "nome": "Fornecedor Carga",
+        "cpfCnpj": str(int(time.time() * 1000) + 1)[-14:].rjust(14, "0"),
+        "email": "carga@exemplo.com",
+        "cep": "01000000",
+        "tipoPessoa": "PJ",
+    }, timeout=10).json()
+    return empresa["id"], fornecedor["id"]
+
+
+def rodar(nome, metodo, url, concorrencia, duracao):
+    latencias = []
+    erros = 0
+    recusadas = 0
+    clientes = iter(range(concorrencia))
+    trava = threading.Lock()
+    fim = time.monotonic() + duracao
+
+    def trabalhador():
+        nonlocal erros, recusadas
+        sessao = requests.Session()
+        with trava:
+            sessao.headers["X-Cliente"] = f"carga-{next(clientes)}"
+        while time.monotonic() < fim:
+            inicio = time.perf_counter()
+            try:
+                resp = sessao.request(metodo, url, timeout=30)
+                recusada = resp.status_code in (429, 503) and "Retry-After" in resp.headers
+                ok = resp.status_code < 500
+            except requests.RequestException:
+                recusada = ok = False
+            gasto = (time.perf_counter() - inicio) * 1000
+            with trava:
+                if recusada:
+                    recusadas += 1
+                elif ok:
+                    latencias.append(gasto)
+                else:
+                    erros += 1
+
+    with ThreadPoolExecutor(max_workers=concorrencia) as pool:
+        for _ in range(concorrencia):
+            pool.submit(trabalhador)
+
+    latencias.sort()
+    total = len(latencias)
+    p50 = latencias[total // 2] if total else 0
+    p99 = latencias[min(total - 1, int(total * 0.99))] if total else 0
+    print(f"{nome:<28} {total / duracao:>9.1f} req/s   p50 {p50:>8.1f} ms   p99 {p99:>8.1f} ms   erros {erros}   recusadas {recusadas}")
+
+
+def main():
+    args = argparse.ArgumentParser()
+    args.add_argument("--base", default="http://localhost:8081")
+    args.add_argument("--concorrencia", type=int, default=200)
+    args.add_argument("--duracao", type=int, default=30)
+    opcoes = args.parse_args()
+
+    empresa_id, fornecedor_id = preparar(opcoes.base)
+    base = opcoes.base
+    rodar("GET /fornecedores", "GET", f"{base}/fornecedores?tamanho=50",
+          opcoes.concorrencia, opcoes.duracao)
+    rodar("GET /empresas/{id}/fornecedores", "GET", f"{base}/empresas/{empresa_id}/fornecedores",
+          opcoes.concorrencia, opcoes.duracao)
+    # o primeiro vincula, os demais caem na regra de vínculo duplicado (mesmo caminho de leitura)
+    rodar("POST vincular", "POST", f"{base}/empresas/{empresa_id}/fornecedores/{fornecedor_id}",
+          opcoes.concorrencia, opcoes.duracao)
+
+
+if __name__ == "__main__":
+    main()
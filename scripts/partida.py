@@ -0,0 +1,65 @@
+# Partida do backend: tempo até a primeira resposta e memória residente (RSS) nesse momento.
+#
+# Uso (Linux; o comando é o java direto, sem sh -c, para o RSS ser o da JVM), na pasta com o jar
+# extraído do mesmo jeito que no Dockerfile (e o app.jsa da execução de treino, nos modos com CDS):
+#   python scripts/partida.py --repeticoes 5 -- java -jar app.jar
+#   python scripts/partida.py --repeticoes 5 -- java -XX:SharedArchiveFile=app.jsa -jar app.jar
+#   python scripts/partida.py --repeticoes 5 -- java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar app.jar
+import argparse
+import statistics
+import subprocess
+import time
+import urllib.error
+import urllib.request
+
+
+def rss_mb(pid):
+    with open(f"/proc/{pid}/status") as status:
+        for linha in status:
+            if linha.startswith("VmRSS:"):
+                return int(linha.split()[1]) / 1024
+    return 0.0
+
+
+def medir(comando, url, limite):
+    inicio = time.monotonic()
+    processo = subprocess.Popen(comando, stdout=subprocess.DEVNULL, stderr=subprocess.DEVNULL)
+    try:
+        while time.monotonic() - inicio < limite:
+            if processo.poll() is not None:
+                raise RuntimeError(f"backend terminou na subida (código {processo.returncode})")
+            try:
+                with urllib.request.urlopen(url, timeout=1):
+                    pass
+            except urllib.error.HTTPError:
+                pass  # respondeu (mesmo com erro): já está atendendo
+            except OSError:
+                time.sleep(0.02)
+                continue
+            return (time.monotonic() - inicio) * 1000, rss_mb(processo.pid)
+        raise RuntimeError(f"sem resposta em {limite}s")
+    finally:
+        processo.terminate()
+        processo.wait()
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("--url", default="http://localhost:8081/actuator/health")
+    parser.add_argument("--repeticoes", type=int, default=3)
+    parser.add_argument("--limite", type=float, default=120, help="segundos de espera por subida")
+    parser.add_argument("comando", nargs=argparse.REMAINDER)
+    args = parser.parse_args()
+    comando = args.comando[1:] if args.comando[:1] == ["--"] else args.comando
+
+    tempos, memorias = [], []
+    for i in range(args.repeticoes):
+        ms, mb = medir(comando, args.url, args.limite)
+        tempos.append(ms)
+        memorias.append(mb)
+        print(f"{i + 1}: primeira resposta em {ms:.0f} ms, RSS {mb:.0f} MB")
+    print(f"mediana: {statistics.median(tempos):.0f} ms, RSS {statistics.median(memorias):.0f} MB")
+
+
+if __name__ == "__main__":
+    main()